@@ -0,0 +1,35 @@
+package org.macan.minesweeper.bot;
+
+import org.macan.minesweeper.game.BoardView;
+import org.macan.minesweeper.game.Moves;
+
+/**
+ * The Player interface defines an automated Minesweeper strategy.
+ * A player only sees the board through a read-only {@link BoardView} and answers with moves
+ * encoded with {@link Moves#encode(int, int)}. A new instance is used for each game.
+ */
+public interface Player {
+
+    /**
+     * Gets the name of the player, used in tournament results.
+     *
+     * @return the player name
+     */
+    String getName();
+
+    /**
+     * Called once before the first move of a game.
+     *
+     * @param view       the read-only view of the board
+     * @param playerSeed a seed for any randomness the player needs, so that games can be replayed
+     */
+    void startGame(BoardView view, long playerSeed);
+
+    /**
+     * Chooses the next moves to play. All returned moves are applied in order as one batch.
+     *
+     * @param view the read-only view of the board
+     * @return the encoded moves, never empty while the game is in progress
+     */
+    int[] nextMoves(BoardView view);
+}
@@ -0,0 +1,76 @@
+package org.macan.minesweeper.bot;
+
+import org.macan.minesweeper.game.BoardView;
+import org.macan.minesweeper.game.Moves;
+import org.macan.minesweeper.solver.ProbabilitySolver;
+import org.macan.minesweeper.solver.SolverCache;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The ProbabilityPlayer class plays with the probability solver: it reveals every cell that is certainly safe and
+ * flags every cell that is certainly a mine, and otherwise reveals the hidden cell least likely to hold a mine,
+ * breaking ties at random. Players can share a {@link SolverCache} so that frontier patterns seen in one game are
+ * not enumerated again in another.
+ */
+public class ProbabilityPlayer implements Player {
+    private static final double CERTAINTY = 1e-9;
+
+    private final ProbabilitySolver solver;
+    private Random random;
+
+    /**
+     * Constructor for creating a ProbabilityPlayer object.
+     *
+     * @param cache the solver cache, which may be shared between players, or null
+     */
+    public ProbabilityPlayer(SolverCache cache) {
+        this.solver = new ProbabilitySolver(cache);
+    }
+
+    @Override
+    public String getName() {
+        return "Probability";
+    }
+
+    @Override
+    public void startGame(BoardView view, long playerSeed) {
+        random = new Random(playerSeed);
+    }
+
+    @Override
+    public int[] nextMoves(BoardView view) {
+        double[] probabilities = solver.solve(view);
+        int[] moves = new int[16];
+        int moveCount = 0;
+        int best = -1;
+        int ties = 0;
+        for (int cell = 0; cell < probabilities.length; cell++) {
+            double probability = probabilities[cell];
+            if (Double.isNaN(probability)) {
+                continue;
+            }
+            if (probability < CERTAINTY) {
+                moves = append(moves, moveCount++, Moves.encode(Moves.REVEAL, cell));
+            } else if (probability > 1 - CERTAINTY) {
+                moves = append(moves, moveCount++, Moves.encode(Moves.FLAG, cell));
+            } else if (best < 0 || probability < probabilities[best] - CERTAINTY) {
+                best = cell;
+                ties = 1;
+            } else if (probability < probabilities[best] + CERTAINTY && random.nextInt(++ties) == 0) {
+                best = cell;
+            }
+        }
+        if (moveCount > 0) {
+            return Arrays.copyOf(moves, moveCount);
+        }
+        return best < 0 ? new int[0] : new int[]{Moves.encode(Moves.REVEAL, best)};
+    }
+
+    private static int[] append(int[] moves, int position, int move) {
+        int[] target = position < moves.length ? moves : Arrays.copyOf(moves, moves.length * 2);
+        target[position] = move;
+        return target;
+    }
+}
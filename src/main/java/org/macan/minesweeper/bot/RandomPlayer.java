@@ -0,0 +1,39 @@
+package org.macan.minesweeper.bot;
+
+import org.macan.minesweeper.game.BoardView;
+import org.macan.minesweeper.game.Moves;
+
+import java.util.Random;
+
+/**
+ * The RandomPlayer class reveals a random hidden cell on every move. It serves as a baseline for other players.
+ */
+public class RandomPlayer implements Player {
+    private Random random;
+
+    @Override
+    public String getName() {
+        return "Random";
+    }
+
+    @Override
+    public void startGame(BoardView view, long playerSeed) {
+        random = new Random(playerSeed);
+    }
+
+    @Override
+    public int[] nextMoves(BoardView view) {
+        int rows = view.getGridRows();
+        int cols = view.getGridColumns();
+        int start = random.nextInt(rows * cols);
+        for (int offset = 0; offset < rows * cols; offset++) {
+            int cell = (start + offset) % (rows * cols);
+            int row = cell / cols;
+            int col = cell % cols;
+            if (!view.isRevealed(row, col) && !view.isFlagged(row, col)) {
+                return new int[]{Moves.encode(Moves.REVEAL, view.getCellIndex(row, col))};
+            }
+        }
+        return new int[0];
+    }
+}
@@ -0,0 +1,110 @@
+package org.macan.minesweeper.bot;
+
+import org.macan.minesweeper.game.BoardTopology;
+import org.macan.minesweeper.game.BoardView;
+import org.macan.minesweeper.game.Moves;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * The SinglePointPlayer class plays with single-point deductions: a number whose hidden neighbours must all be
+ * mines gets them flagged, and a number whose flags already account for all its mines is chorded.
+ * When nothing can be deduced it reveals a random hidden cell.
+ */
+public class SinglePointPlayer implements Player {
+    private Random random;
+    private int[] neighbourBuffer;
+
+    @Override
+    public String getName() {
+        return "SinglePoint";
+    }
+
+    @Override
+    public void startGame(BoardView view, long playerSeed) {
+        random = new Random(playerSeed);
+        neighbourBuffer = new int[2 * view.getTopology().getMaxNeighbours()];
+    }
+
+    @Override
+    public int[] nextMoves(BoardView view) {
+        int[] moves = deduceMoves(view);
+        return moves.length > 0 ? moves : guess(view);
+    }
+
+    /**
+     * Finds the moves that single-point deductions prove safe, without guessing.
+     *
+     * @param view the board as the player sees it
+     * @return the flag and chord moves, empty if nothing can be deduced
+     */
+    public int[] deduceMoves(BoardView view) {
+        int rows = view.getGridRows();
+        int cols = view.getGridColumns();
+        BoardTopology topology = view.getTopology();
+        BitSet flagged = new BitSet();
+        int[] moves = new int[16];
+        int moveCount = 0;
+
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                int adjacentMines = view.getAdjacentMines(row, col);
+                if (adjacentMines <= 0) {
+                    continue;
+                }
+                int count = topology.getNeighbours(row, col, rows, cols, neighbourBuffer);
+                int flags = 0;
+                int hidden = 0;
+                for (int k = 0; k < count; k++) {
+                    int i = neighbourBuffer[2 * k];
+                    int j = neighbourBuffer[2 * k + 1];
+                    if (view.isFlagged(i, j)) {
+                        flags++;
+                    } else if (!view.isRevealed(i, j)) {
+                        hidden++;
+                    }
+                }
+                if (hidden == 0) {
+                    continue;
+                }
+                if (flags == adjacentMines) {
+                    moves = append(moves, moveCount++, Moves.encode(Moves.CHORD, view.getCellIndex(row, col)));
+                } else if (adjacentMines - flags == hidden) {
+                    for (int k = 0; k < count; k++) {
+                        int i = neighbourBuffer[2 * k];
+                        int j = neighbourBuffer[2 * k + 1];
+                        int index = view.getCellIndex(i, j);
+                        if (!view.isFlagged(i, j) && !view.isRevealed(i, j) && !flagged.get(index)) {
+                            flagged.set(index);
+                            moves = append(moves, moveCount++, Moves.encode(Moves.FLAG, index));
+                        }
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(moves, moveCount);
+    }
+
+    private int[] guess(BoardView view) {
+        int rows = view.getGridRows();
+        int cols = view.getGridColumns();
+        int start = random.nextInt(rows * cols);
+        for (int offset = 0; offset < rows * cols; offset++) {
+            int cell = (start + offset) % (rows * cols);
+            int row = cell / cols;
+            int col = cell % cols;
+            if (!view.isRevealed(row, col) && !view.isFlagged(row, col)) {
+                return new int[]{Moves.encode(Moves.REVEAL, view.getCellIndex(row, col))};
+            }
+        }
+        return new int[0];
+    }
+
+    private static int[] append(int[] moves, int position, int move) {
+        int[] target = position < moves.length ? moves : Arrays.copyOf(moves, moves.length * 2);
+        target[position] = move;
+        return target;
+    }
+}
@@ -0,0 +1,247 @@
+package org.macan.minesweeper.bot;
+
+import org.macan.minesweeper.common.GameDifficulty;
+import org.macan.minesweeper.common.GameResult;
+import org.macan.minesweeper.common.GameStats;
+import org.macan.minesweeper.common.GridSize;
+import org.macan.minesweeper.common.LatencyHistogram;
+import org.macan.minesweeper.game.BoardView;
+import org.macan.minesweeper.game.GameBoard;
+import org.macan.minesweeper.game.MoveBatchResult;
+import org.macan.minesweeper.solver.SolverCache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * The Tournament class plays every registered player on the same seeded boards, spread across a thread pool,
+ * and ranks the players by win rate, then by mean 3BV per second.
+ * A player forfeits a game when choosing a move takes longer than the move time budget, when its moves stop
+ * changing the board, or when it throws an exception. Moves are chosen on separate daemon threads, so a player
+ * that hangs is interrupted and forfeits once its budget runs out instead of blocking the tournament.
+ */
+public class Tournament {
+    private final GridSize gridSize;
+    private final GameDifficulty difficulty;
+    private final int gamesPerPlayer;
+    private final long seed;
+    private final int threads;
+    private final long moveBudgetNanos;
+    private final List<Supplier<Player>> players = new ArrayList<>();
+
+    /**
+     * Constructor for creating a Tournament object.
+     *
+     * @param gridSize         the size of the boards
+     * @param difficulty       the difficulty of the boards
+     * @param gamesPerPlayer   the number of games each player plays
+     * @param seed             the seed the boards are generated from
+     * @param threads          the number of games played concurrently
+     * @param moveBudgetMillis the maximum time a player may take to choose its moves
+     */
+    public Tournament(GridSize gridSize, GameDifficulty difficulty, int gamesPerPlayer, long seed, int threads, long moveBudgetMillis) {
+        this.gridSize = gridSize;
+        this.difficulty = difficulty;
+        this.gamesPerPlayer = gamesPerPlayer;
+        this.seed = seed;
+        this.threads = threads;
+        this.moveBudgetNanos = TimeUnit.MILLISECONDS.toNanos(moveBudgetMillis);
+    }
+
+    /**
+     * Registers a player. The factory is called once per game so that players can keep per-game state.
+     *
+     * @param factory the factory creating the player
+     */
+    public void register(Supplier<Player> factory) {
+        players.add(factory);
+    }
+
+    /**
+     * Plays all games and ranks the players.
+     *
+     * @return the results, best player first
+     * @throws InterruptedException if interrupted while waiting for the games to finish
+     */
+    public List<TournamentResult> run() throws InterruptedException {
+        Random random = new Random(seed);
+        long[] boardSeeds = new long[gamesPerPlayer];
+        long[] playerSeeds = new long[gamesPerPlayer];
+        for (int game = 0; game < gamesPerPlayer; game++) {
+            boardSeeds[game] = random.nextLong();
+            playerSeeds[game] = random.nextLong();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        ExecutorService moveExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "tournament-player");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<List<Future<GameOutcome>>> futures = new ArrayList<>();
+            for (Supplier<Player> factory : players) {
+                List<Future<GameOutcome>> playerFutures = new ArrayList<>();
+                for (int game = 0; game < gamesPerPlayer; game++) {
+                    long boardSeed = boardSeeds[game];
+                    long playerSeed = playerSeeds[game];
+                    playerFutures.add(executor.submit(() -> playGame(factory.get(), boardSeed, playerSeed, moveExecutor)));
+                }
+                futures.add(playerFutures);
+            }
+
+            List<TournamentResult> results = new ArrayList<>();
+            for (int p = 0; p < players.size(); p++) {
+                results.add(aggregate(futures.get(p)));
+            }
+            results.sort(Comparator.comparingDouble(TournamentResult::getWinRate).reversed()
+                    .thenComparing(Comparator.comparingDouble(TournamentResult::getMeanThreeBVPerSecond).reversed())
+                    .thenComparingLong(TournamentResult::getP99MoveLatencyNanos));
+            return results;
+        } finally {
+            executor.shutdownNow();
+            moveExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays a single game.
+     *
+     * @param player       the player
+     * @param boardSeed    the seed of the board
+     * @param playerSeed   the seed handed to the player
+     * @param moveExecutor the executor the player chooses its moves on
+     * @return the outcome of the game
+     */
+    private GameOutcome playGame(Player player, long boardSeed, long playerSeed, ExecutorService moveExecutor) {
+        int mines = (int) (gridSize.getRows() * gridSize.getCols() * difficulty.getMineFactor());
+        GameStats gameStats = new GameStats();
+        GameBoard board = new GameBoard(gridSize.getRows(), gridSize.getCols(), mines, new HashMap<>(), new HashSet<>(), gameStats);
+        board.initializeGame(boardSeed);
+        BoardView view = board.asView();
+        GameOutcome outcome = new GameOutcome(player.getName());
+
+        long gameStart = System.nanoTime();
+        try {
+            player.startGame(view, playerSeed);
+            while (gameStats.getGameResult() == GameResult.IN_PROGRESS) {
+                long moveStart = System.nanoTime();
+                int[] moves = nextMoves(player, view, moveExecutor);
+                long moveTime = System.nanoTime() - moveStart;
+                outcome.moveLatencies.record(moveTime);
+                if (moves == null || moveTime > moveBudgetNanos) {
+                    outcome.forfeited = true;
+                    return outcome;
+                }
+                MoveBatchResult result = board.applyMoves(moves);
+                if (result.getMovesApplied() == 0) {
+                    outcome.forfeited = true;
+                    return outcome;
+                }
+            }
+        } catch (RuntimeException e) {
+            outcome.forfeited = true;
+            return outcome;
+        }
+        double seconds = (System.nanoTime() - gameStart) / 1e9;
+        outcome.won = gameStats.getGameResult() == GameResult.WON;
+        outcome.threeBVPerSecond = seconds > 0 ? board.getThreeBV() / seconds : 0;
+        return outcome;
+    }
+
+    /**
+     * Asks a player for its next moves on the move executor, waiting at most the move budget.
+     *
+     * @return the moves, or null if the player ran out of time or the game thread was interrupted
+     * @throws RuntimeException if the player threw one
+     */
+    private int[] nextMoves(Player player, BoardView view, ExecutorService moveExecutor) {
+        Future<int[]> moves = moveExecutor.submit(() -> player.nextMoves(view));
+        try {
+            return moves.get(moveBudgetNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            moves.cancel(true);
+            return null;
+        } catch (InterruptedException e) {
+            moves.cancel(true);
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Player failed", e.getCause());
+        }
+    }
+
+    private TournamentResult aggregate(List<Future<GameOutcome>> futures) throws InterruptedException {
+        String name = null;
+        int wins = 0;
+        int forfeits = 0;
+        double threeBVPerSecondSum = 0;
+        LatencyHistogram latencies = new LatencyHistogram();
+        for (Future<GameOutcome> future : futures) {
+            GameOutcome outcome;
+            try {
+                outcome = future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Tournament game failed", e.getCause());
+            }
+            name = outcome.playerName;
+            latencies.merge(outcome.moveLatencies);
+            if (outcome.won) {
+                wins++;
+                threeBVPerSecondSum += outcome.threeBVPerSecond;
+            }
+            if (outcome.forfeited) {
+                forfeits++;
+            }
+        }
+        return new TournamentResult(name, futures.size(), wins, forfeits, wins == 0 ? 0 : threeBVPerSecondSum / wins, latencies);
+    }
+
+    /**
+     * The outcome of a single game.
+     */
+    private static final class GameOutcome {
+        private final String playerName;
+        private final LatencyHistogram moveLatencies = new LatencyHistogram();
+        private boolean won;
+        private boolean forfeited;
+        private double threeBVPerSecond;
+
+        private GameOutcome(String playerName) {
+            this.playerName = playerName;
+        }
+    }
+
+    /**
+     * Main method to run a tournament between the built-in players.
+     *
+     * @param args command-line arguments (not used).
+     * @throws InterruptedException if interrupted while the tournament runs
+     */
+    public static void main(String[] args) throws InterruptedException {
+        Tournament tournament = new Tournament(GridSize.MEDIUM, GameDifficulty.EASY, 1000, 42,
+                Runtime.getRuntime().availableProcessors(), 100);
+        tournament.register(RandomPlayer::new);
+        tournament.register(SinglePointPlayer::new);
+        SolverCache cache = new SolverCache(64L << 20);
+        tournament.register(() -> new ProbabilityPlayer(cache));
+        for (TournamentResult result : tournament.run()) {
+            System.out.println(result);
+        }
+        System.out.println(cache);
+    }
+}
@@ -0,0 +1,88 @@
+package org.macan.minesweeper.bot;
+
+import org.macan.minesweeper.common.LatencyHistogram;
+
+/**
+ * The TournamentResult class holds the aggregated results of one player in a tournament.
+ */
+public class TournamentResult {
+    private final String playerName;
+    private final int gamesPlayed;
+    private final int wins;
+    private final int forfeits;
+    private final double meanThreeBVPerSecond;
+    private final LatencyHistogram moveLatencies;
+
+    TournamentResult(String playerName, int gamesPlayed, int wins, int forfeits, double meanThreeBVPerSecond,
+                     LatencyHistogram moveLatencies) {
+        this.playerName = playerName;
+        this.gamesPlayed = gamesPlayed;
+        this.wins = wins;
+        this.forfeits = forfeits;
+        this.meanThreeBVPerSecond = meanThreeBVPerSecond;
+        this.moveLatencies = moveLatencies;
+    }
+
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    public int getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    /**
+     * Gets the number of games lost by exceeding the move time budget, stalling or throwing an exception.
+     *
+     * @return the number of forfeited games
+     */
+    public int getForfeits() {
+        return forfeits;
+    }
+
+    /**
+     * Gets the share of games won.
+     *
+     * @return the win rate, between 0 and 1
+     */
+    public double getWinRate() {
+        return gamesPlayed == 0 ? 0 : (double) wins / gamesPlayed;
+    }
+
+    /**
+     * Gets the mean 3BV per second over the games won.
+     *
+     * @return the mean 3BV per second, or 0 if no game was won
+     */
+    public double getMeanThreeBVPerSecond() {
+        return meanThreeBVPerSecond;
+    }
+
+    /**
+     * Gets the 99th percentile of the time the player took to choose its moves.
+     *
+     * @return the p99 move latency in nanoseconds
+     */
+    public long getP99MoveLatencyNanos() {
+        return moveLatencies.getPercentile(99);
+    }
+
+    /**
+     * Gets the distribution of the time the player took to choose its moves.
+     *
+     * @return the move latencies in nanoseconds
+     */
+    public LatencyHistogram getMoveLatencies() {
+        return moveLatencies;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-16s games: %d | win rate: %.1f%% | forfeits: %d | 3BV/s: %.1f | p99 move: %.3f ms",
+                playerName, gamesPlayed, getWinRate() * 100, forfeits, meanThreeBVPerSecond, getP99MoveLatencyNanos() / 1e6);
+    }
+}
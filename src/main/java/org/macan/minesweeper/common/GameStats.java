@@ -1,32 +1,46 @@
 package org.macan.minesweeper.common;
 
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The GameStats class tracks and manages statistics for a game of Minesweeper.
- * It records the number of moves made, mines uncovered, game start and end times, and the game result.
+ * It records the number of moves made, mines uncovered, the game result and the game clock.
+ * The game clock is based on {@link System#nanoTime()}, so it is not affected by changes to the wall clock.
+ * It runs from construction until the game ends, except while paused, and the elapsed time at every move
+ * is kept as a split time.
  */
 public class GameStats {
     private int movesMade;
     private int minesUncovered;
-    private final long startTime;
-    private long endTime;
     private GameResult gameResult;
+    private int threeBV;
+    private long elapsedNanos;
+    private long runningSince;
+    private boolean clockRunning;
+    private boolean paused;
+    private long[] splitNanos = new long[16];
 
     /**
      * Constructor for creating a GameStats object.
-     * Initializes the game statistics and sets the start time to the current system time.
+     * Initializes the game statistics and starts the game clock.
      */
     public GameStats() {
         this.movesMade = 0;
         this.minesUncovered = 0;
-        this.startTime = System.currentTimeMillis();
         this.gameResult = GameResult.IN_PROGRESS;
+        this.runningSince = System.nanoTime();
+        this.clockRunning = true;
     }
 
     /**
-     * Increments the number of moves made by the player.
+     * Increments the number of moves made by the player and records the split time of the move.
      */
     public void incrementMovesMade() {
+        if (movesMade == splitNanos.length) {
+            splitNanos = Arrays.copyOf(splitNanos, movesMade * 2);
+        }
+        splitNanos[movesMade] = getElapsedNanos();
         this.movesMade++;
     }
 
@@ -45,13 +59,80 @@ public class GameStats {
     }
 
     /**
-     * Ends the game and records the end time and result.
+     * Sets the 3BV of the board being played, the minimum number of clicks needed to clear it.
+     *
+     * @param threeBV the 3BV of the board
+     */
+    public void setThreeBV(int threeBV) {
+        this.threeBV = threeBV;
+    }
+
+    /**
+     * Ends the game and records the result. The game clock stops unless the game is still in progress.
      *
      * @param result the result of the game (WON, LOST, or IN_PROGRESS)
      */
     public void endGame(GameResult result) {
-        this.endTime = System.currentTimeMillis();
         this.gameResult = result;
+        updateClock();
+    }
+
+    /**
+     * Restores the counters and result of the game, for example when a move is undone.
+     * The game clock is not rewound, but it runs again if an ended game is restored to in progress.
+     * The split times of the moves undone are dropped.
+     *
+     * @param movesMade      the number of moves made
+     * @param minesUncovered the number of mines uncovered
+     * @param result         the result of the game
+     */
+    public void restore(int movesMade, int minesUncovered, GameResult result) {
+        this.movesMade = movesMade;
+        this.minesUncovered = minesUncovered;
+        this.gameResult = result;
+        updateClock();
+    }
+
+    /**
+     * Pauses the game clock, for example while the game is saved or its window is minimised.
+     */
+    public void pause() {
+        paused = true;
+        updateClock();
+    }
+
+    /**
+     * Resumes the game clock after {@link #pause()}. The clock stays stopped if the game has ended.
+     */
+    public void resume() {
+        paused = false;
+        updateClock();
+    }
+
+    /**
+     * Checks whether the game clock is paused.
+     *
+     * @return true if paused, false otherwise
+     */
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Starts or stops the game clock so that it runs exactly while the game is in progress and not paused.
+     */
+    private void updateClock() {
+        boolean run = !paused && gameResult == GameResult.IN_PROGRESS;
+        if (run == clockRunning) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (run) {
+            runningSince = now;
+        } else {
+            elapsedNanos += now - runningSince;
+        }
+        clockRunning = run;
     }
 
     /**
@@ -73,22 +154,46 @@ public class GameStats {
     }
 
     /**
-     * Gets the total time elapsed from the start to the end of the game.
+     * Gets the time on the game clock: the time played so far, or the total time once the game has ended.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return clockRunning ? elapsedNanos + System.nanoTime() - runningSince : elapsedNanos;
+    }
+
+    /**
+     * Gets the time on the game clock in milliseconds, see {@link #getElapsedNanos()}.
      *
      * @return the total time in milliseconds
      */
     public long getTotalTime() {
-        return endTime - startTime;
+        return TimeUnit.NANOSECONDS.toMillis(getElapsedNanos());
     }
 
+    /**
+     * Gets the split time of a move, the time on the game clock when it was made.
+     *
+     * @param move the number of the move, starting at 0
+     * @return the split time in nanoseconds
+     * @throws IndexOutOfBoundsException if the move has not been made
+     */
+    public long getSplitNanos(int move) {
+        if (move < 0 || move >= movesMade) {
+            throw new IndexOutOfBoundsException("Move " + move + " of " + movesMade);
+        }
+        return splitNanos[move];
+    }
 
     /**
-     * Gets the total time elapsed from the start to the current of the game.
+     * Gets the time taken by a move, from the previous move or the start of the game.
      *
-     * @return the total time in milliseconds
+     * @param move the number of the move, starting at 0
+     * @return the move time in nanoseconds
+     * @throws IndexOutOfBoundsException if the move has not been made
      */
-    public long getTotalCurrentTime() {
-        return System.currentTimeMillis() - startTime;
+    public long getMoveNanos(int move) {
+        return getSplitNanos(move) - (move == 0 ? 0 : splitNanos[move - 1]);
     }
 
     /**
@@ -99,4 +204,32 @@ public class GameStats {
     public GameResult getGameResult() {
         return gameResult;
     }
+
+    /**
+     * Gets the 3BV of the board being played.
+     *
+     * @return the 3BV of the board
+     */
+    public int getThreeBV() {
+        return threeBV;
+    }
+
+    /**
+     * Gets the efficiency of the player, the 3BV of the board divided by the moves made.
+     *
+     * @return the efficiency, or 0 if no moves have been made
+     */
+    public double getEfficiency() {
+        return movesMade == 0 ? 0 : (double) threeBV / movesMade;
+    }
+
+    /**
+     * Gets the 3BV cleared per second over the whole game, used to normalize times across boards.
+     *
+     * @return the 3BV per second, or 0 if no time has elapsed
+     */
+    public double getThreeBVPerSecond() {
+        long elapsed = getElapsedNanos();
+        return elapsed <= 0 ? 0 : threeBV * 1e9 / elapsed;
+    }
 }
\ No newline at end of file
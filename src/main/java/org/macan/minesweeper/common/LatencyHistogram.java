@@ -0,0 +1,121 @@
+package org.macan.minesweeper.common;
+
+/**
+ * The LatencyHistogram class records latencies into log-linear buckets so that percentiles can be reported
+ * with a bounded relative error (about 6%) using a fixed amount of memory and no allocation per sample.
+ * Instances are not thread-safe; record on one thread and {@link #merge(LatencyHistogram)} to aggregate.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final long[] counts = new long[64 * SUB_BUCKETS];
+    private long totalCount;
+    private long min = Long.MAX_VALUE;
+    private long max;
+    private double sum;
+
+    /**
+     * Records a single latency sample.
+     *
+     * @param value the latency, in any unit; negative values are recorded as 0
+     */
+    public void record(long value) {
+        long sample = Math.max(0, value);
+        counts[bucketIndex(sample)]++;
+        totalCount++;
+        sum += sample;
+        min = Math.min(min, sample);
+        max = Math.max(max, sample);
+    }
+
+    /**
+     * Adds all samples recorded by another histogram to this one.
+     *
+     * @param other the histogram to merge
+     */
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Gets the number of recorded samples.
+     *
+     * @return the number of samples
+     */
+    public long getCount() {
+        return totalCount;
+    }
+
+    /**
+     * Gets the mean of the recorded samples.
+     *
+     * @return the mean, or 0 if nothing was recorded
+     */
+    public double getMean() {
+        return totalCount == 0 ? 0 : sum / totalCount;
+    }
+
+    /**
+     * Gets the smallest recorded sample.
+     *
+     * @return the minimum, or 0 if nothing was recorded
+     */
+    public long getMin() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    /**
+     * Gets the largest recorded sample.
+     *
+     * @return the maximum, or 0 if nothing was recorded
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Gets the value at a percentile, rounded up to the upper bound of its bucket.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the value at the percentile, or 0 if nothing was recorded
+     */
+    public long getPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= target) {
+                return Math.min(bucketUpperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        int subBucket = index % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+}
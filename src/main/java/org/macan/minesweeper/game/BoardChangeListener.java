@@ -0,0 +1,17 @@
+package org.macan.minesweeper.game;
+
+import java.util.BitSet;
+
+/**
+ * The BoardChangeListener interface is notified by a GameBoard after every move that changed what a player can see.
+ * Listeners are called on the thread that made the move and should return quickly.
+ */
+public interface BoardChangeListener {
+    /**
+     * Called after a move changed the board.
+     *
+     * @param board   the board that changed
+     * @param changed the indices of the cells whose visible state may have changed; must not be modified
+     */
+    void boardChanged(GameBoard board, BitSet changed);
+}
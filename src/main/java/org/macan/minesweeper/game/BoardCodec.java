@@ -0,0 +1,259 @@
+package org.macan.minesweeper.game;
+
+import org.macan.minesweeper.common.GameStats;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * The BoardCodec class encodes game boards into compact byte arrays and short strings, and decodes them back.
+ * A board generated from a seed is fully determined by its dimensions, mine count, topology, generator version
+ * and seed, and is encoded as a 16-byte token. Predefined layouts fall back to a run-length encoding of the mines.
+ * Only the mine layout is encoded, not the progress of a game.
+ */
+public final class BoardCodec {
+    /**
+     * Length of the token of a seeded board.
+     */
+    public static final int TOKEN_LENGTH = 16;
+
+    /**
+     * Largest number of cells of a decoded board, so that untrusted codes cannot request boards that do not fit
+     * in memory.
+     */
+    public static final int MAX_DECODED_CELLS = 1 << 24;
+
+    private static final int FORMAT_SEED = 1;
+    private static final int FORMAT_LAYOUT = 2;
+    private static final int MAX_DIMENSION = 0xFFFF;
+    private static final int MAX_TOKEN_MINES = 0xFFFFFF;
+
+    private BoardCodec() {
+    }
+
+    /**
+     * Encodes a board as a token if it was generated from a seed, and as a run-length layout otherwise.
+     *
+     * @param board the board to encode
+     * @return the encoded board
+     */
+    public static byte[] encode(GameBoard board) {
+        if (board.isSeeded() && board.getGridRows() <= MAX_DIMENSION && board.getGridColumns() <= MAX_DIMENSION
+                && board.getTotalMines() <= MAX_TOKEN_MINES) {
+            return toToken(board);
+        }
+        return encodeLayout(board);
+    }
+
+    /**
+     * Encodes a board as a URL-safe string.
+     *
+     * @param board the board to encode
+     * @return the encoded board
+     */
+    public static String encodeToString(GameBoard board) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(encode(board));
+    }
+
+    /**
+     * Encodes a seeded board as a 16-byte token: a header byte holding the format, topology and generator version,
+     * 16-bit row and column counts, a 24-bit mine count and the 64-bit seed.
+     *
+     * @param board the board to encode
+     * @return the token
+     * @throws IllegalArgumentException if the board was not generated from a seed or is too large for a token
+     */
+    public static byte[] toToken(GameBoard board) {
+        if (!board.isSeeded()) {
+            throw new IllegalArgumentException("Only boards generated from a seed can be encoded as a token");
+        }
+        if (board.getGridRows() > MAX_DIMENSION || board.getGridColumns() > MAX_DIMENSION || board.getTotalMines() > MAX_TOKEN_MINES) {
+            throw new IllegalArgumentException("Board is too large to be encoded as a token");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(TOKEN_LENGTH);
+        buffer.put((byte) header(FORMAT_SEED, board.getTopology()));
+        buffer.putShort((short) board.getGridRows());
+        buffer.putShort((short) board.getGridColumns());
+        buffer.put((byte) (board.getTotalMines() >>> 16));
+        buffer.putShort((short) board.getTotalMines());
+        buffer.putLong(board.getSeed());
+        return buffer.array();
+    }
+
+    /**
+     * Encodes the mine layout of any board: a header byte, the row, column and mine counts as varints, then the
+     * lengths of alternating runs of safe cells and mines in row-major order, starting with safe cells.
+     *
+     * @param board the board to encode
+     * @return the encoded layout
+     */
+    public static byte[] encodeLayout(GameBoard board) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(header(FORMAT_LAYOUT, board.getTopology()));
+        writeVarInt(out, board.getGridRows());
+        writeVarInt(out, board.getGridColumns());
+        writeVarInt(out, board.getTotalMines());
+        boolean mineRun = false;
+        int runLength = 0;
+        for (int row = 0; row < board.getGridRows(); row++) {
+            for (int col = 0; col < board.getGridColumns(); col++) {
+                if (board.getGridCell(row, col).isMine() != mineRun) {
+                    writeVarInt(out, runLength);
+                    mineRun = !mineRun;
+                    runLength = 0;
+                }
+                runLength++;
+            }
+        }
+        writeVarInt(out, runLength);
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a board encoded with {@link #encodeToString(GameBoard)}.
+     *
+     * @param encoded the encoded board
+     * @return the decoded board, initialized and ready to play
+     * @throws IllegalArgumentException if the string is not a valid encoded board
+     */
+    public static GameBoard decode(String encoded) {
+        return decode(Base64.getUrlDecoder().decode(encoded.trim()));
+    }
+
+    /**
+     * Decodes a board encoded with {@link #encode(GameBoard)}.
+     *
+     * @param data the encoded board
+     * @return the decoded board, initialized and ready to play
+     * @throws IllegalArgumentException if the data is not a valid encoded board or the board has more than
+     *                                  {@link #MAX_DECODED_CELLS} cells
+     */
+    public static GameBoard decode(byte[] data) {
+        if (data.length == 0) {
+            throw new IllegalArgumentException("Empty board encoding");
+        }
+        int header = data[0] & 0xFF;
+        int format = header >>> 6;
+        BoardTopology topology = topology((header >>> 4) & 0x3);
+        int generatorVersion = header & 0xF;
+        if (format == FORMAT_SEED) {
+            if (data.length != TOKEN_LENGTH) {
+                throw new IllegalArgumentException("Board token must be " + TOKEN_LENGTH + " bytes");
+            }
+            if (generatorVersion != GameBoard.GENERATOR_VERSION) {
+                throw new IllegalArgumentException("Unsupported generator version " + generatorVersion);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(data, 1, TOKEN_LENGTH - 1);
+            int rows = buffer.getShort() & 0xFFFF;
+            int cols = buffer.getShort() & 0xFFFF;
+            int mines = (buffer.get() & 0xFF) << 16 | buffer.getShort() & 0xFFFF;
+            long seed = buffer.getLong();
+            checkDimensions(rows, cols, mines);
+            GameBoard board = newBoard(rows, cols, mines, topology);
+            board.initializeGame(seed);
+            return board;
+        }
+        if (format == FORMAT_LAYOUT) {
+            return decodeLayout(data, topology);
+        }
+        throw new IllegalArgumentException("Unknown board encoding format " + format);
+    }
+
+    private static GameBoard decodeLayout(byte[] data, BoardTopology topology) {
+        int[] position = {1};
+        int rows = readVarInt(data, position);
+        int cols = readVarInt(data, position);
+        int mines = readVarInt(data, position);
+        checkDimensions(rows, cols, mines);
+        long cellCount = (long) rows * cols;
+        List<String> mineLocations = new ArrayList<>(mines);
+        long index = 0;
+        boolean mineRun = false;
+        while (index < cellCount) {
+            int runLength = readVarInt(data, position);
+            if (index + runLength > cellCount) {
+                throw new IllegalArgumentException("Layout runs exceed the board size");
+            }
+            if (mineRun) {
+                for (long cell = index; cell < index + runLength; cell++) {
+                    mineLocations.add(cell / cols + "_" + cell % cols);
+                }
+            }
+            index += runLength;
+            mineRun = !mineRun;
+        }
+        GameBoard board = newBoard(rows, cols, mines, topology);
+        board.initializeGame(mineLocations);
+        return board;
+    }
+
+    private static void checkDimensions(int rows, int cols, int mines) {
+        if (rows < 1 || cols < 1 || mines < 0 || mines > (long) rows * cols) {
+            throw new IllegalArgumentException("Invalid board dimensions " + rows + "x" + cols + " with " + mines + " mines");
+        }
+        if ((long) rows * cols > MAX_DECODED_CELLS) {
+            throw new IllegalArgumentException("Board of " + rows + "x" + cols + " cells exceeds the limit of "
+                    + MAX_DECODED_CELLS + " cells");
+        }
+    }
+
+    private static GameBoard newBoard(int rows, int cols, int mines, BoardTopology topology) {
+        return new GameBoard(rows, cols, mines, new HashMap<>(), new HashSet<>(), new GameStats(), topology);
+    }
+
+    private static int header(int format, BoardTopology topology) {
+        return format << 6 | topologyId(topology) << 4 | GameBoard.GENERATOR_VERSION;
+    }
+
+    private static int topologyId(BoardTopology topology) {
+        if (topology instanceof RectangleTopology) {
+            return 0;
+        } else if (topology instanceof TorusTopology) {
+            return 1;
+        } else if (topology instanceof HexTopology) {
+            return 2;
+        }
+        throw new IllegalArgumentException("Unsupported topology " + topology.getClass().getName());
+    }
+
+    private static BoardTopology topology(int id) {
+        switch (id) {
+            case 0:
+                return new RectangleTopology();
+            case 1:
+                return new TorusTopology();
+            case 2:
+                return new HexTopology();
+            default:
+                throw new IllegalArgumentException("Unknown topology " + id);
+        }
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarInt(byte[] data, int[] position) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (position[0] >= data.length) {
+                throw new IllegalArgumentException("Truncated board encoding");
+            }
+            int b = data[position[0]++];
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in board encoding");
+    }
+}
@@ -0,0 +1,312 @@
+package org.macan.minesweeper.game;
+
+import org.macan.minesweeper.common.GameStats;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The BoardImageExporter class renders a board, as a player sees it, into PNG images without a screen.
+ * Cells use the colors of {@link MinesweeperGUI}: the green checkerboard for hidden cells, orange for flags,
+ * bright green for revealed cells with their numbers, and red for mines once visible.
+ * The board is cut into square tiles of cells, written as {@code tile-<row>-<column>.png}, which are rendered and
+ * written in parallel; each thread holds a single tile image at a time, so the full-resolution image of the board
+ * is never in memory. An {@code overview.png}, rendered in parallel bands alongside the tiles, shows the whole
+ * board, averaging the colors of the cells that share a pixel on boards larger than the overview.
+ * The board must not change while it is being exported; a frozen view can be exported instead.
+ */
+public class BoardImageExporter {
+    /**
+     * File name of the overview image.
+     */
+    public static final String OVERVIEW_FILE = "overview.png";
+
+    private static final int MIN_TEXT_CELL_SIZE = 12;
+    private static final int MIN_BORDER_CELL_SIZE = 4;
+    private static final int OVERVIEW_BAND = 64;
+
+    private final int cellSize;
+    private final int tileCells;
+    private final int overviewSize;
+    private final int threads;
+
+    /**
+     * Constructor for creating a BoardImageExporter object.
+     *
+     * @param cellSize     the side length of a cell in the tiles, in pixels
+     * @param tileCells    the side length of a tile, in cells
+     * @param overviewSize the maximum width and height of the overview, in pixels
+     * @param threads      the number of threads rendering tiles
+     * @throws IllegalArgumentException if a size is not positive or a tile would be too large for an image
+     */
+    public BoardImageExporter(int cellSize, int tileCells, int overviewSize, int threads) {
+        if (cellSize < 1 || tileCells < 1 || overviewSize < 1 || threads < 1) {
+            throw new IllegalArgumentException("Sizes and thread count must be positive");
+        }
+        if ((long) cellSize * tileCells > 1 << 14) {
+            throw new IllegalArgumentException("Tiles must not be wider than 16384 pixels");
+        }
+        this.cellSize = cellSize;
+        this.tileCells = tileCells;
+        this.overviewSize = overviewSize;
+        this.threads = threads;
+    }
+
+    /**
+     * Renders the board into tiles and an overview in a directory, replacing images of an earlier export.
+     * Tile images already in the directory are deleted first, so that no tile of a larger earlier board is left
+     * beside the new ones.
+     *
+     * @param view      the board as the player sees it
+     * @param directory the directory receiving the images, created if missing
+     * @return the number of tiles written
+     * @throws IOException          if an image cannot be written or an earlier tile cannot be deleted
+     * @throws InterruptedException if interrupted while rendering
+     */
+    public int export(BoardView view, Path directory) throws IOException, InterruptedException {
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> staleTiles = Files.newDirectoryStream(directory, "tile-*.png")) {
+            for (Path tile : staleTiles) {
+                Files.delete(tile);
+            }
+        }
+        int tileRows = (view.getGridRows() + tileCells - 1) / tileCells;
+        int tileColumns = (view.getGridColumns() + tileCells - 1) / tileCells;
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int tileRow = 0; tileRow < tileRows; tileRow++) {
+            for (int tileCol = 0; tileCol < tileColumns; tileCol++) {
+                int row = tileRow;
+                int col = tileCol;
+                tasks.add(() -> {
+                    write(renderTile(view, row * tileCells, col * tileCells),
+                            directory.resolve("tile-" + row + "-" + col + ".png"));
+                    return null;
+                });
+            }
+        }
+        Overview overview = new Overview(view);
+        for (int y = 0; y < overview.image.getHeight(); y += OVERVIEW_BAND) {
+            int firstY = y;
+            tasks.add(() -> {
+                overview.render(firstY, Math.min(firstY + OVERVIEW_BAND, overview.image.getHeight()));
+                return null;
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof UncheckedIOException) {
+                        throw ((UncheckedIOException) e.getCause()).getCause();
+                    }
+                    throw new IllegalStateException("Rendering the board failed", e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        try {
+            write(overview.image, directory.resolve(OVERVIEW_FILE));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return tileRows * tileColumns;
+    }
+
+    /**
+     * Renders the tile whose top left cell is at the given position. Tiles at the right and bottom edges are cut
+     * to the board.
+     */
+    private BufferedImage renderTile(BoardView view, int firstRow, int firstCol) {
+        int rows = Math.min(tileCells, view.getGridRows() - firstRow);
+        int cols = Math.min(tileCells, view.getGridColumns() - firstCol);
+        int width = cols * cellSize;
+        BufferedImage image = new BufferedImage(width, rows * cellSize, BufferedImage.TYPE_INT_RGB);
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        boolean border = cellSize >= MIN_BORDER_CELL_SIZE;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                int rgb = cellColor(view, firstRow + r, firstCol + c);
+                for (int y = 0; y < cellSize; y++) {
+                    int offset = (r * cellSize + y) * width + c * cellSize;
+                    for (int x = 0; x < cellSize; x++) {
+                        boolean edge = border && (x == 0 || y == 0 || x == cellSize - 1 || y == cellSize - 1);
+                        pixels[offset + x] = edge ? 0 : rgb;
+                    }
+                }
+            }
+        }
+        if (cellSize >= MIN_TEXT_CELL_SIZE) {
+            drawLabels(view, image, firstRow, firstCol, rows, cols);
+        }
+        return image;
+    }
+
+    /**
+     * Draws the numbers of revealed cells and the mine markers, as the GUI labels them.
+     */
+    private void drawLabels(BoardView view, BufferedImage image, int firstRow, int firstCol, int rows, int cols) {
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            graphics.setFont(new Font(Font.SANS_SERIF, Font.BOLD, cellSize * 2 / 3));
+            graphics.setColor(Color.BLACK);
+            FontMetrics metrics = graphics.getFontMetrics();
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    String label = label(view, firstRow + r, firstCol + c);
+                    if (label != null) {
+                        int x = c * cellSize + (cellSize - metrics.stringWidth(label)) / 2;
+                        int y = r * cellSize + (cellSize - metrics.getHeight()) / 2 + metrics.getAscent();
+                        graphics.drawString(label, x, y);
+                    }
+                }
+            }
+        } finally {
+            graphics.dispose();
+        }
+    }
+
+    /**
+     * The overview image, rendered in bands of pixel rows. The board is drawn at one pixel per cell, scaled up
+     * to at most the cell size when that still fits the overview, or averaged over square blocks of cells when the
+     * board is larger than the overview.
+     */
+    private final class Overview {
+        private final BoardView view;
+        private final BufferedImage image;
+        private final int[] pixels;
+        private final int pixelsPerCell;
+        private final int cellsPerPixel;
+
+        private Overview(BoardView view) {
+            this.view = view;
+            int rows = view.getGridRows();
+            int cols = view.getGridColumns();
+            int largest = Math.max(rows, cols);
+            pixelsPerCell = Math.max(1, Math.min(cellSize, overviewSize / largest));
+            cellsPerPixel = (largest + overviewSize - 1) / overviewSize;
+            int width = pixelsPerCell > 1 ? cols * pixelsPerCell : (cols + cellsPerPixel - 1) / cellsPerPixel;
+            int height = pixelsPerCell > 1 ? rows * pixelsPerCell : (rows + cellsPerPixel - 1) / cellsPerPixel;
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        }
+
+        private void render(int firstY, int lastY) {
+            int width = image.getWidth();
+            for (int y = firstY; y < lastY; y++) {
+                for (int x = 0; x < width; x++) {
+                    if (pixelsPerCell > 1) {
+                        pixels[y * width + x] = cellColor(view, y / pixelsPerCell, x / pixelsPerCell);
+                    } else {
+                        pixels[y * width + x] = averageColor(view, y * cellsPerPixel, x * cellsPerPixel, cellsPerPixel);
+                    }
+                }
+            }
+        }
+    }
+
+    private static int averageColor(BoardView view, int firstRow, int firstCol, int cells) {
+        int lastRow = Math.min(firstRow + cells, view.getGridRows());
+        int lastCol = Math.min(firstCol + cells, view.getGridColumns());
+        long red = 0;
+        long green = 0;
+        long blue = 0;
+        for (int row = firstRow; row < lastRow; row++) {
+            for (int col = firstCol; col < lastCol; col++) {
+                int rgb = cellColor(view, row, col);
+                red += rgb >>> 16 & 0xFF;
+                green += rgb >>> 8 & 0xFF;
+                blue += rgb & 0xFF;
+            }
+        }
+        long count = (long) (lastRow - firstRow) * (lastCol - firstCol);
+        return (int) (red / count) << 16 | (int) (green / count) << 8 | (int) (blue / count);
+    }
+
+    /**
+     * Gets the color of a cell as the GUI paints it, without the heatmap.
+     */
+    private static int cellColor(BoardView view, int row, int col) {
+        if (view.isRevealed(row, col)) {
+            return view.getAdjacentMines(row, col) == BoardView.HIDDEN ? Color.RED.getRGB() : Color.GREEN.getRGB();
+        }
+        if (view.isFlagged(row, col)) {
+            return MinesweeperGUI.FLAG_COLOR.getRGB();
+        }
+        return ((row + col) % 2 == 0 ? MinesweeperGUI.GREEN : MinesweeperGUI.LIGHT_GREEN).getRGB();
+    }
+
+    private static String label(BoardView view, int row, int col) {
+        if (!view.isRevealed(row, col)) {
+            return null;
+        }
+        int adjacentMines = view.getAdjacentMines(row, col);
+        if (adjacentMines == BoardView.HIDDEN) {
+            return "M";
+        }
+        return adjacentMines > 0 ? String.valueOf(adjacentMines) : null;
+    }
+
+    private static void write(BufferedImage image, Path file) {
+        try {
+            if (!ImageIO.write(image, "png", file.toFile())) {
+                throw new IOException("No PNG writer available");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Main method to export a seeded board after one reveal.
+     *
+     * @param args optional arguments: rows, columns, mine density, output directory, cell size in pixels,
+     *             tile size in cells and overview size in pixels
+     * @throws IOException          if an image cannot be written
+     * @throws InterruptedException if interrupted while rendering
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int cols = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        double density = args.length > 2 ? Double.parseDouble(args[2]) : 0.12;
+        Path directory = Paths.get(args.length > 3 ? args[3] : "board-images");
+        int cellSize = args.length > 4 ? Integer.parseInt(args[4]) : 16;
+        int tileCells = args.length > 5 ? Integer.parseInt(args[5]) : 256;
+        int overviewSize = args.length > 6 ? Integer.parseInt(args[6]) : 2048;
+
+        GameBoard board = new GameBoard(rows, cols, (int) ((long) rows * cols * density), new HashMap<>(), new HashSet<>(),
+                new GameStats());
+        board.initializeGame(42L);
+        board.revealCell(rows / 2, cols / 2);
+        BoardImageExporter exporter = new BoardImageExporter(cellSize, tileCells, overviewSize,
+                Runtime.getRuntime().availableProcessors());
+        long start = System.nanoTime();
+        int tiles = exporter.export(board.asView(), directory);
+        System.out.printf("Wrote %d tiles and an overview to %s in %.1f s%n", tiles, directory.toAbsolutePath(),
+                (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,41 @@
+package org.macan.minesweeper.game;
+
+import org.macan.minesweeper.common.GameResult;
+
+/**
+ * The BoardSnapshot class captures the state of a GameBoard at a point in time so that it can be restored later.
+ * A snapshot only records a position in the board's change trail plus a few counters, which makes taking one O(1)
+ * and restoring one proportional to the number of changes made since.
+ * Snapshots follow stack discipline: restoring a snapshot invalidates every snapshot taken after it.
+ * A snapshot that is no longer needed can be handed back with {@link GameBoard#release(BoardSnapshot)}; once no
+ * snapshot of a board is left, the board stops recording its changes.
+ */
+public final class BoardSnapshot {
+    final GameBoard board;
+    final long trailPosition;
+    final int revealedCount;
+    final boolean showingAll;
+    final GameResult gameResult;
+    final int movesMade;
+    final int minesUncovered;
+
+    BoardSnapshot(GameBoard board, long trailPosition, int revealedCount, boolean showingAll, GameResult gameResult,
+                  int movesMade, int minesUncovered) {
+        this.board = board;
+        this.trailPosition = trailPosition;
+        this.revealedCount = revealedCount;
+        this.showingAll = showingAll;
+        this.gameResult = gameResult;
+        this.movesMade = movesMade;
+        this.minesUncovered = minesUncovered;
+    }
+
+    /**
+     * Gets the game result at the time the snapshot was taken.
+     *
+     * @return the game result
+     */
+    public GameResult getGameResult() {
+        return gameResult;
+    }
+}
@@ -0,0 +1,28 @@
+package org.macan.minesweeper.game;
+
+/**
+ * The BoardTopology interface defines which cells neighbour each other on the game board.
+ * Implementations use precomputed neighbour offset tables and are final so that the JIT can inline
+ * the neighbour lookup at call sites that only ever see one topology.
+ */
+public interface BoardTopology {
+
+    /**
+     * Gets the maximum number of neighbours a cell can have in this topology.
+     *
+     * @return the maximum number of neighbours
+     */
+    int getMaxNeighbours();
+
+    /**
+     * Writes the coordinates of the neighbours of a cell into a buffer as consecutive (row, column) pairs.
+     *
+     * @param row    the row index of the cell
+     * @param col    the column index of the cell
+     * @param rows   the number of rows in the grid
+     * @param cols   the number of columns in the grid
+     * @param buffer the buffer receiving the coordinates, at least twice {@link #getMaxNeighbours()} long
+     * @return the number of neighbours written
+     */
+    int getNeighbours(int row, int col, int rows, int cols, int[] buffer);
+}
@@ -0,0 +1,85 @@
+package org.macan.minesweeper.game;
+
+import org.macan.minesweeper.common.GameResult;
+
+/**
+ * The BoardView interface is a read-only view of a game board that only exposes what a player can see,
+ * used by automated players and other consumers that must not change or peek into the board.
+ */
+public interface BoardView {
+    /**
+     * Value returned by {@link #getAdjacentMines(int, int)} for cells whose content is not visible.
+     */
+    int HIDDEN = -1;
+
+    /**
+     * Gets the number of rows in the grid.
+     *
+     * @return the number of rows in the grid
+     */
+    int getGridRows();
+
+    /**
+     * Gets the number of columns in the grid.
+     *
+     * @return the number of columns in the grid
+     */
+    int getGridColumns();
+
+    /**
+     * Gets the total of mines in the grid.
+     *
+     * @return the total of mines in the grid
+     */
+    int getTotalMines();
+
+    /**
+     * Gets the topology defining which cells neighbour each other.
+     *
+     * @return the board topology
+     */
+    BoardTopology getTopology();
+
+    /**
+     * Gets the index of a cell, as used by {@link Moves#encode(int, int)}.
+     *
+     * @param row the row index of the cell
+     * @param col the column index of the cell
+     * @return the cell index
+     */
+    int getCellIndex(int row, int col);
+
+    /**
+     * Checks whether the content of a cell is visible.
+     *
+     * @param row the row index of the cell
+     * @param col the column index of the cell
+     * @return true if the cell is revealed, false otherwise
+     */
+    boolean isRevealed(int row, int col);
+
+    /**
+     * Checks whether a cell is flagged.
+     *
+     * @param row the row index of the cell
+     * @param col the column index of the cell
+     * @return true if the cell is flagged, false otherwise
+     */
+    boolean isFlagged(int row, int col);
+
+    /**
+     * Gets the number of mines adjacent to a revealed cell.
+     *
+     * @param row the row index of the cell
+     * @param col the column index of the cell
+     * @return the number of adjacent mines, or {@link #HIDDEN} if the cell is hidden or a mine
+     */
+    int getAdjacentMines(int row, int col);
+
+    /**
+     * Gets the result of the game.
+     *
+     * @return the game result (WON, LOST, or IN_PROGRESS)
+     */
+    GameResult getGameResult();
+}
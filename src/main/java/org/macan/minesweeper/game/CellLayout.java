@@ -0,0 +1,68 @@
+package org.macan.minesweeper.game;
+
+/**
+ * The CellLayout interface defines where each cell is stored in the board's cell array.
+ * Cell indices seen outside the board stay in row-major order whatever the layout; the layout only decides
+ * which cells lie next to each other in memory. Implementations are final so that the JIT can inline the
+ * slot computation at call sites that only ever see one layout.
+ */
+public interface CellLayout {
+
+    /**
+     * Gets the length of the cell array for a grid, including any padding slots that hold no cell.
+     *
+     * @param rows the number of rows in the grid
+     * @param cols the number of columns in the grid
+     * @return the number of slots
+     * @throws IllegalArgumentException if the grid needs more slots than an array can hold
+     */
+    int getSlotCount(int rows, int cols);
+
+    /**
+     * Gets the slot of a cell.
+     *
+     * @param row  the row index of the cell
+     * @param col  the column index of the cell
+     * @param cols the number of columns in the grid
+     * @return the position of the cell in the cell array
+     */
+    int getSlot(int row, int col, int cols);
+
+    /**
+     * Gets the row of the cell stored in a slot. Padding slots report a row or column outside the grid.
+     *
+     * @param slot the position in the cell array
+     * @param cols the number of columns in the grid
+     * @return the row index of the cell
+     */
+    int getSlotRow(int slot, int cols);
+
+    /**
+     * Gets the column of the cell stored in a slot. Padding slots report a row or column outside the grid.
+     *
+     * @param slot the position in the cell array
+     * @param cols the number of columns in the grid
+     * @return the column index of the cell
+     */
+    int getSlotCol(int slot, int cols);
+
+    /**
+     * Gets the slots of the eight cells touching a cell on the classic rectangle topology, in the order
+     * {@link RectangleTopology} lists them, stepping from the cell's own slot where the layout allows it.
+     * Neighbours outside the grid get the slot -1.
+     *
+     * @param slot  the slot of the cell
+     * @param row   the row index of the cell
+     * @param col   the column index of the cell
+     * @param rows  the number of rows in the grid
+     * @param cols  the number of columns in the grid
+     * @param slots the buffer receiving the eight slots
+     */
+    default void getNeighbourSlots(int slot, int row, int col, int rows, int cols, int[] slots) {
+        for (int k = 0; k < RectangleTopology.ROW_OFFSETS.length; k++) {
+            int i = row + RectangleTopology.ROW_OFFSETS[k];
+            int j = col + RectangleTopology.COL_OFFSETS[k];
+            slots[k] = i >= 0 && i < rows && j >= 0 && j < cols ? getSlot(i, j, cols) : -1;
+        }
+    }
+}
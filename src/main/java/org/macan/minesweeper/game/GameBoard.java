@@ -4,7 +4,12 @@ import org.macan.minesweeper.common.GameResult;
 import org.macan.minesweeper.common.GameStats;
 import org.macan.minesweeper.common.GridCell;
 
+import java.lang.ref.WeakReference;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  * The GameBoard class represents the game board for the Minesweeper game.
@@ -12,6 +17,22 @@ import java.util.*;
  * and revealing of cells during gameplay.
  */
 public class GameBoard {
+    /**
+     * Opening id of cells that do not belong to any zero-opening (mines and isolated numbers).
+     */
+    public static final int NO_OPENING = -1;
+
+    /**
+     * Version of the seeded mine placement algorithm. It must change whenever the same seed would produce a
+     * different layout, so that shared boards are never silently decoded into another board.
+     */
+    public static final int GENERATOR_VERSION = 1;
+
+    private static final int ADJACENT_MASK = 0x0F;
+    private static final int MINE = 0x10;
+    private static final int REVEALED = 0x20;
+    private static final int FLAGGED = 0x40;
+
     private final int gridRows;
     private final int gridColumns;
     private final int totalMines;
@@ -19,6 +40,29 @@ public class GameBoard {
     private final Set<String> mineKeys;
     private int revealedCount;
     private final GameStats gameStats;
+    private final BoardTopology topology;
+    private final CellLayout layout;
+    private final boolean rowMajor;
+    private final boolean steppedNeighbours;
+    private final int[] neighbourIndexSteps;
+    private final boolean populateGrid;
+    private final Neighbourhood neighbourhood;
+    private byte[] states;
+    private int[] openingIds;
+    private int openingCount;
+    private int threeBV;
+    private boolean showingAll;
+    private long seed;
+    private boolean seeded;
+    private BoardView view;
+    private int[] revealQueue;
+    private int[] changeTrail;
+    private int trailSize;
+    private long trailOffset;
+    private boolean recordingTrail;
+    private final List<WeakReference<BoardSnapshot>> liveSnapshots = new ArrayList<>();
+    private int parallelTileSize;
+    private final List<BoardChangeListener> changeListeners = new ArrayList<>();
 
     /**
      * Constructor for creating a GameBoard object.
@@ -31,6 +75,49 @@ public class GameBoard {
      * @param gameStats   the object representing the game statistics
      */
     public GameBoard(int gridRows, int gridColumns, int totalMines, Map<String, GridCell> grid, Set<String> mineKeys, GameStats gameStats) {
+        this(gridRows, gridColumns, totalMines, grid, mineKeys, gameStats, new RectangleTopology());
+    }
+
+    /**
+     * Constructor for creating a GameBoard object with a specific topology.
+     *
+     * @param gridRows    the number of rows in the grid
+     * @param gridColumns the number of columns in the grid
+     * @param totalMines  the total number of mines to be placed on the grid
+     * @param grid        the map representing the grid of cells
+     * @param mineKeys    the set of keys representing the mine locations
+     * @param gameStats   the object representing the game statistics
+     * @param topology    the topology defining which cells neighbour each other
+     */
+    public GameBoard(int gridRows, int gridColumns, int totalMines, Map<String, GridCell> grid, Set<String> mineKeys, GameStats gameStats,
+                     BoardTopology topology) {
+        this(gridRows, gridColumns, totalMines, grid, mineKeys, gameStats, topology, new RowMajorLayout(), true);
+    }
+
+    /**
+     * Constructor for creating a GameBoard object with a specific topology and cell layout.
+     * Unlike the other constructors, the grid map is not filled with every cell when the game is initialized:
+     * a cell is added to it only when {@link #getGridCell(int, int)} is first asked for it.
+     *
+     * @param gridRows    the number of rows in the grid
+     * @param gridColumns the number of columns in the grid
+     * @param totalMines  the total number of mines to be placed on the grid
+     * @param grid        the map representing the grid of cells
+     * @param mineKeys    the set of keys representing the mine locations
+     * @param gameStats   the object representing the game statistics
+     * @param topology    the topology defining which cells neighbour each other
+     * @param layout      the layout defining where each cell is stored in memory
+     */
+    public GameBoard(int gridRows, int gridColumns, int totalMines, Map<String, GridCell> grid, Set<String> mineKeys, GameStats gameStats,
+                     BoardTopology topology, CellLayout layout) {
+        this(gridRows, gridColumns, totalMines, grid, mineKeys, gameStats, topology, layout, false);
+    }
+
+    private GameBoard(int gridRows, int gridColumns, int totalMines, Map<String, GridCell> grid, Set<String> mineKeys, GameStats gameStats,
+                      BoardTopology topology, CellLayout layout, boolean populateGrid) {
+        if (topology.getMaxNeighbours() > ADJACENT_MASK) {
+            throw new IllegalArgumentException("Topology has too many neighbours: " + topology.getMaxNeighbours());
+        }
         this.gridRows = gridRows;
         this.gridColumns = gridColumns;
         this.totalMines = totalMines;
@@ -38,62 +125,274 @@ public class GameBoard {
         this.mineKeys = mineKeys;
         this.revealedCount = 0;
         this.gameStats = gameStats;
+        this.topology = topology;
+        this.layout = layout;
+        this.rowMajor = layout instanceof RowMajorLayout;
+        this.steppedNeighbours = topology instanceof RectangleTopology;
+        this.neighbourIndexSteps = new int[RectangleTopology.ROW_OFFSETS.length];
+        for (int k = 0; k < neighbourIndexSteps.length; k++) {
+            neighbourIndexSteps[k] = RectangleTopology.ROW_OFFSETS[k] * gridColumns + RectangleTopology.COL_OFFSETS[k];
+        }
+        this.populateGrid = populateGrid;
+        this.neighbourhood = new Neighbourhood();
     }
 
     /**
      * Initializes the game by placing mines and calculating the number of adjacent mines for each cell.
      */
     public void initializeGame() {
-        placeMines();
+        initializeGame(new Random().nextLong());
+    }
+
+    /**
+     * Initializes the game with a mine layout generated from a seed. The same seed, dimensions and mine count
+     * always produce the same board.
+     *
+     * @param seed the seed of the mine layout
+     */
+    public void initializeGame(long seed) {
+        this.seed = seed;
+        this.seeded = true;
+        allocateStates();
+        placeMines(seed);
         calculateMineNumbers();
+        calculateOpenings();
+    }
+
+    /**
+     * Initializes the game with a predefined mine layout instead of random placement.
+     *
+     * @param mineLocations the keys (see {@link #getGridKey(int, int)}) of the cells holding a mine
+     * @throws IllegalArgumentException if the layout does not match the board's dimensions or mine count
+     */
+    public void initializeGame(Collection<String> mineLocations) {
+        allocateStates();
+        for (String mineKey : mineLocations) {
+            String[] parts = mineKey.split("_");
+            int row = Integer.parseInt(parts[0]);
+            int col = Integer.parseInt(parts[1]);
+            if (row < 0 || row >= gridRows || col < 0 || col >= gridColumns) {
+                throw new IllegalArgumentException("Mine location out of bounds: " + mineKey);
+            }
+            setMine(slotAt(row, col));
+            mineKeys.add(getGridKey(row, col));
+        }
+        if (mineKeys.size() != totalMines) {
+            throw new IllegalArgumentException("Expected " + totalMines + " mines but got " + mineKeys.size());
+        }
+        calculateMineNumbers();
+        calculateOpenings();
+    }
+
+    /**
+     * Allocates one byte per cell, in the slot chosen by the cell layout, packing the cell's adjacent mine count
+     * with its mine, revealed and flagged bits. The board reads and writes only these bytes, which keeps
+     * neighbouring cells within a few cache lines; the cells returned by {@link #getGridCell(int, int)} read
+     * through to them. Boards created without an explicit layout also put every cell into the grid map here.
+     */
+    private void allocateStates() {
+        states = new byte[layout.getSlotCount(gridRows, gridColumns)];
+        if (populateGrid) {
+            for (int row = 0; row < gridRows; row++) {
+                for (int col = 0; col < gridColumns; col++) {
+                    grid.put(getGridKey(row, col), new BoardCell(row, col));
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the slot of a cell by its cell index.
+     *
+     * @param index the cell index in row-major order
+     * @return the position of the cell in the state array
+     */
+    private int slotOf(int index) {
+        if (rowMajor) {
+            return index;
+        }
+        return layout.getSlot(index / gridColumns, index % gridColumns, gridColumns);
+    }
+
+    /**
+     * Gets the slot of a cell by its position, without going through the row-major cell index.
+     *
+     * @param row the row index of the cell
+     * @param col the column index of the cell
+     * @return the position of the cell in the state array
+     */
+    private int slotAt(int row, int col) {
+        return layout.getSlot(row, col, gridColumns);
+    }
+
+    private void setMine(int slot) {
+        states[slot] |= MINE;
     }
 
     /**
      * Places mines randomly on the grid.
+     *
+     * @param seed the seed of the mine layout
      */
-    private void placeMines() {
-        Random rand = new Random();
+    private void placeMines(long seed) {
+        BitSet layout = generateMineLayout(gridRows, gridColumns, totalMines, seed);
+        for (int position = layout.nextSetBit(0); position >= 0; position = layout.nextSetBit(position + 1)) {
+            int row = position / gridColumns;
+            int col = position % gridColumns;
+            setMine(slotAt(row, col));
+            mineKeys.add(getGridKey(row, col));
+        }
+    }
+
+    /**
+     * Generates the mine layout of a seeded board without building the board, so that other components
+     * can reproduce exactly the layout {@link #initializeGame(long)} places.
+     *
+     * @param rows    the number of rows in the grid
+     * @param columns the number of columns in the grid
+     * @param mines   the number of mines to place
+     * @param seed    the seed of the mine layout
+     * @return the mine positions, each stored as {@code row * columns + col}
+     */
+    public static BitSet generateMineLayout(int rows, int columns, int mines, long seed) {
+        Random rand = new Random(seed);
+        BitSet layout = new BitSet(rows * columns);
         int placedMines = 0;
-        while (placedMines < totalMines) {
-            int row = rand.nextInt(gridRows);
-            int col = rand.nextInt(gridColumns);
-            GridCell cell = getGridCell(row, col);
-            if (!cell.isMine()) {
-                cell.setMine(true);
-                mineKeys.add(getGridKey(row, col));
+        while (placedMines < mines) {
+            int row = rand.nextInt(rows);
+            int col = rand.nextInt(columns);
+            int position = row * columns + col;
+            if (!layout.get(position)) {
+                layout.set(position);
                 placedMines++;
             }
         }
+        return layout;
     }
 
     /**
      * Calculates the number of adjacent mines for each cell on the grid.
      */
     private void calculateMineNumbers() {
-        for (String mineKey : mineKeys) {
-            String[] parts = mineKey.split("_");
-            int row = Integer.parseInt(parts[0]);
-            int col = Integer.parseInt(parts[1]);
-            updateAdjacentCells(row, col);
+        int index = 0;
+        for (int row = 0; row < gridRows; row++) {
+            for (int col = 0; col < gridColumns; col++, index++) {
+                int slot = slotAt(row, col);
+                if ((states[slot] & MINE) != 0) {
+                    updateAdjacentCells(index, slot, row, col);
+                }
+            }
         }
     }
 
     /**
      * Updates the adjacent cells of a given mine cell to increment their adjacent mine count.
      *
-     * @param mineRow the row index of the mine cell
-     * @param mineCol the column index of the mine cell
+     * @param index the cell index of the mine cell
+     * @param slot  the slot of the mine cell
+     * @param row   the row index of the mine cell
+     * @param col   the column index of the mine cell
+     */
+    private void updateAdjacentCells(int index, int slot, int row, int col) {
+        neighbourhood.find(index, slot, row, col);
+        for (int k = 0; k < neighbourhood.count; k++) {
+            states[neighbourhood.slots[k]]++;
+        }
+    }
+
+    /**
+     * Groups connected zero cells into openings with a union-find and derives the board's 3BV,
+     * the minimum number of clicks needed to clear the board: one per opening plus one per
+     * numbered cell that does not border any opening.
      */
-    private void updateAdjacentCells(int mineRow, int mineCol) {
-        for (int i = mineRow - 1; i <= mineRow + 1; i++) {
-            for (int j = mineCol - 1; j <= mineCol + 1; j++) {
-                if (i >= 0 && i < gridRows && j >= 0 && j < gridColumns && !(i == mineRow && j == mineCol)) {
-                    GridCell cell = getGridCell(i, j);
-                    cell.incrementAdjacentMines();
-                    grid.put(getGridKey(i, j), cell);
+    private void calculateOpenings() {
+        int size = gridRows * gridColumns;
+        int[] parent = new int[size];
+        for (int index = 0; index < size; index++) {
+            parent[index] = index;
+        }
+        int index = 0;
+        for (int row = 0; row < gridRows; row++) {
+            for (int col = 0; col < gridColumns; col++, index++) {
+                int slot = slotAt(row, col);
+                if (!isZeroCell(slot)) {
+                    continue;
+                }
+                neighbourhood.find(index, slot, row, col);
+                for (int k = 0; k < neighbourhood.count; k++) {
+                    if (isZeroCell(neighbourhood.slots[k])) {
+                        union(parent, index, neighbourhood.indices[k]);
+                    }
                 }
             }
         }
+
+        openingIds = new int[size];
+        Arrays.fill(openingIds, NO_OPENING);
+        int[] rootOpeningIds = new int[size];
+        Arrays.fill(rootOpeningIds, NO_OPENING);
+        openingCount = 0;
+        for (index = 0; index < size; index++) {
+            if (isZeroCell(slotOf(index))) {
+                int root = find(parent, index);
+                if (rootOpeningIds[root] == NO_OPENING) {
+                    rootOpeningIds[root] = openingCount++;
+                }
+                openingIds[index] = rootOpeningIds[root];
+            }
+        }
+
+        int isolatedNumbers = 0;
+        for (index = 0; index < size; index++) {
+            int slot = slotOf(index);
+            int state = states[slot];
+            if ((state & MINE) != 0 || (state & ADJACENT_MASK) == 0) {
+                continue;
+            }
+            openingIds[index] = findBorderingOpening(index, slot);
+            if (openingIds[index] == NO_OPENING) {
+                isolatedNumbers++;
+            }
+        }
+        threeBV = openingCount + isolatedNumbers;
+        gameStats.setThreeBV(threeBV);
+    }
+
+    /**
+     * Finds the opening bordering a numbered cell, if any.
+     *
+     * @param index the cell index of the numbered cell
+     * @param slot  the slot of the numbered cell
+     * @return the id of a bordering opening, or {@link #NO_OPENING} if the cell is isolated
+     */
+    private int findBorderingOpening(int index, int slot) {
+        neighbourhood.find(index, slot);
+        for (int k = 0; k < neighbourhood.count; k++) {
+            if (isZeroCell(neighbourhood.slots[k])) {
+                return openingIds[neighbourhood.indices[k]];
+            }
+        }
+        return NO_OPENING;
+    }
+
+    private boolean isZeroCell(int slot) {
+        return (states[slot] & (MINE | ADJACENT_MASK)) == 0;
+    }
+
+    private static int find(int[] parent, int index) {
+        while (parent[index] != index) {
+            parent[index] = parent[parent[index]];
+            index = parent[index];
+        }
+        return index;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
     }
 
     /**
@@ -103,51 +402,573 @@ public class GameBoard {
      * @param col the column index of the cell to reveal
      */
     public void revealCell(int row, int col) {
-        if (row < 0 || row >= gridRows || col < 0 || col >= gridColumns) {
+        if (showingAll || row < 0 || row >= gridRows || col < 0 || col >= gridColumns) {
             return;
         }
-        GridCell cell = getGridCell(row, col);
-        if (cell.isRevealed()) {
+        BitSet changed = changeListeners.isEmpty() ? null : new BitSet();
+        reveal(getCellIndex(row, col), changed);
+        fireBoardChanged(changed, false);
+    }
+
+    /**
+     * Reveals a cell and floods outwards through cells with no adjacent mines, then checks for a win.
+     *
+     * @param index   the cell index of the cell to reveal
+     * @param changed the set collecting the indices of changed cells, or null if not needed
+     * @return true if any cell was revealed, false otherwise
+     */
+    private boolean reveal(int index, BitSet changed) {
+        int slot = slotOf(index);
+        if ((states[slot] & REVEALED) != 0) {
+            return false;
+        }
+        revealSingleCell(slot, index, changed);
+        if ((states[slot] & MINE) != 0) {
+            gameStats.incrementMinesUncovered();
+            gameStats.endGame(GameResult.LOST);
+            revealAllCells();
+            return true;
+        }
+        if ((states[slot] & ADJACENT_MASK) == 0) {
+            revealQueue = ensureCapacity(revealQueue, 1);
+            revealQueue[0] = index;
+            flood(1, changed);
+        }
+        checkWin();
+        return true;
+    }
+
+    /**
+     * Reveals the neighbours of the already revealed zero cells at the start of the reveal queue, continuing through
+     * every zero cell reached, as one shared flood fill. Cells are revealed as they are queued, so each cell enters
+     * the queue at most once.
+     *
+     * @param seedCount the number of revealed zero cells at the start of the reveal queue
+     * @param changed   the set collecting the indices of changed cells, or null if not needed
+     */
+    private void flood(int seedCount, BitSet changed) {
+        if (parallelTileSize > 0) {
+            parallelFlood(seedCount, changed);
             return;
         }
-        Queue<GridCell> queue = new LinkedList<>();
-        queue.add(cell);
-        while (!queue.isEmpty()) {
-            cell = queue.poll();
-            int r = cell.getRow();
-            int c = cell.getCol();
-            if (cell.isRevealed()) {
-                continue;
+        int head = 0;
+        int tail = seedCount;
+        while (head < tail) {
+            int index = revealQueue[head++];
+            neighbourhood.find(index, slotOf(index));
+            for (int k = 0; k < neighbourhood.count; k++) {
+                int slot = neighbourhood.slots[k];
+                if ((states[slot] & REVEALED) == 0) {
+                    int neighbour = neighbourhood.indices[k];
+                    revealSingleCell(slot, neighbour, changed);
+                    if ((states[slot] & ADJACENT_MASK) == 0) {
+                        revealQueue = ensureCapacity(revealQueue, tail + 1);
+                        revealQueue[tail++] = neighbour;
+                    }
+                }
             }
-            cell.setRevealed(true);
-            revealedCount++;
-            if (cell.isMine()) {
-                gameStats.incrementMinesUncovered();
-                gameStats.endGame(GameResult.LOST);
-                revealAllCells();
-                return;
+        }
+    }
+
+    /**
+     * Enables or disables the parallel reveal mode. In parallel mode the board is split into square tiles and a
+     * flood fill reveals every tile it reaches concurrently on the common fork-join pool. The revealed cells are
+     * identical to those of the sequential flood fill; only large openings benefit from the extra threads.
+     *
+     * @param tileSize the side length of a tile in cells, or 0 to flood sequentially
+     * @throws IllegalArgumentException if the tile size is negative
+     */
+    public void setParallelRevealTileSize(int tileSize) {
+        if (tileSize < 0) {
+            throw new IllegalArgumentException("Tile size must not be negative: " + tileSize);
+        }
+        this.parallelTileSize = tileSize;
+    }
+
+    /**
+     * Gets the tile size of the parallel reveal mode.
+     *
+     * @return the side length of a tile in cells, or 0 if reveals flood sequentially
+     */
+    public int getParallelRevealTileSize() {
+        return parallelTileSize;
+    }
+
+    /**
+     * Floods from the already revealed zero cells at the start of the reveal queue in rounds. In every round each tile with pending cells floods
+     * within its own bounds on the fork-join pool and hands the cells it reaches in other tiles to the next round.
+     * A task only writes cells of its own tile, and rounds are separated by joining all tasks, so no cell is
+     * shared between threads. The revealed count, change trail and changed set are merged once per round.
+     *
+     * @param seedCount the number of revealed zero cells at the start of the reveal queue
+     * @param changed   the set collecting the indices of changed cells, or null if not needed
+     */
+    private void parallelFlood(int seedCount, BitSet changed) {
+        int tileColumns = (gridColumns + parallelTileSize - 1) / parallelTileSize;
+        Map<Integer, TileFlood> pending = new HashMap<>();
+        for (int k = 0; k < seedCount; k++) {
+            int tile = tileOf(revealQueue[k], tileColumns);
+            TileFlood flood = pending.get(tile);
+            if (flood == null) {
+                flood = new TileFlood(tile, tileColumns);
+                pending.put(tile, flood);
             }
-            if (cell.getAdjacentMines() == 0) {
-                for (int i = r - 1; i <= r + 1; i++) {
-                    for (int j = c - 1; j <= c + 1; j++) {
-                        if (i >= 0 && i < gridRows && j >= 0 && j < gridColumns && !getGridCell(i, j).isRevealed()) {
-                            queue.add(getGridCell(i, j));
-                        }
+            flood.expand(revealQueue[k]);
+        }
+        while (!pending.isEmpty()) {
+            List<Future<TileFlood>> results = ForkJoinPool.commonPool().invokeAll(pending.values());
+            pending = new HashMap<>();
+            for (Future<TileFlood> result : results) {
+                TileFlood flood = join(result);
+                revealedCount += flood.revealedCount;
+                for (int k = 0; k < flood.revealedCount; k++) {
+                    recordChange(flood.revealed[k]);
+                    if (changed != null) {
+                        changed.set(flood.revealed[k]);
                     }
                 }
+                for (int k = 0; k < flood.handoffCount; k++) {
+                    int cell = flood.handoffs[k];
+                    int tile = tileOf(cell, tileColumns);
+                    TileFlood next = pending.get(tile);
+                    if (next == null) {
+                        next = new TileFlood(tile, tileColumns);
+                        pending.put(tile, next);
+                    }
+                    next.seed(cell);
+                }
             }
         }
-        if (revealedCount == (gridRows * gridColumns - totalMines)) {
+    }
+
+    private int tileOf(int index, int tileColumns) {
+        return getCellRow(index) / parallelTileSize * tileColumns + getCellCol(index) / parallelTileSize;
+    }
+
+    private static TileFlood join(Future<TileFlood> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during parallel reveal", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Parallel reveal failed", e.getCause());
+        }
+    }
+
+    private void revealSingleCell(int slot, int index, BitSet changed) {
+        states[slot] |= REVEALED;
+        revealedCount++;
+        recordChange(index);
+        if (changed != null) {
+            changed.set(index);
+        }
+    }
+
+    private void checkWin() {
+        if (!showingAll && revealedCount == (gridRows * gridColumns - totalMines)) {
             gameStats.endGame(GameResult.WON);
             revealAllCells();
         }
     }
 
     /**
-     * Reveals all cells for end of the game.
+     * Chords a revealed number: if the number of flagged neighbours matches its adjacent mine count, every
+     * unflagged hidden neighbour is revealed at once and the zero cells among them are flooded together.
+     * Like {@link #revealCell(int, int)}, the move is not counted in the game statistics.
+     *
+     * @param row the row index of the revealed number
+     * @param col the column index of the revealed number
+     * @return the indices of the cells revealed by the chord, empty if the chord did not apply
+     */
+    public BitSet chord(int row, int col) {
+        BitSet changed = new BitSet();
+        if (showingAll || row < 0 || row >= gridRows || col < 0 || col >= gridColumns) {
+            return changed;
+        }
+        chord(getCellIndex(row, col), changed);
+        fireBoardChanged(changeListeners.isEmpty() ? null : (BitSet) changed.clone(), false);
+        return changed;
+    }
+
+    /**
+     * Reveals every unflagged neighbour of a revealed number whose flagged neighbour count matches it.
+     * A mine among them loses the game; otherwise the revealed zero cells seed one shared flood fill.
+     *
+     * @param index   the cell index of the revealed number
+     * @param changed the set collecting the indices of changed cells, or null if not needed
+     * @return true if any cell was revealed, false otherwise
+     */
+    private boolean chord(int index, BitSet changed) {
+        int chordSlot = slotOf(index);
+        int state = states[chordSlot];
+        if ((state & REVEALED) == 0 || (state & MINE) != 0 || (state & ADJACENT_MASK) == 0) {
+            return false;
+        }
+        neighbourhood.find(index, chordSlot);
+        int count = neighbourhood.count;
+        int flagged = 0;
+        for (int k = 0; k < count; k++) {
+            if ((states[neighbourhood.slots[k]] & FLAGGED) != 0) {
+                flagged++;
+            }
+        }
+        if (flagged != (state & ADJACENT_MASK)) {
+            return false;
+        }
+        revealQueue = ensureCapacity(revealQueue, count);
+        int seedCount = 0;
+        boolean revealed = false;
+        boolean mineHit = false;
+        for (int k = 0; k < count; k++) {
+            int slot = neighbourhood.slots[k];
+            if ((states[slot] & (FLAGGED | REVEALED)) != 0) {
+                continue;
+            }
+            int neighbour = neighbourhood.indices[k];
+            revealSingleCell(slot, neighbour, changed);
+            revealed = true;
+            if ((states[slot] & MINE) != 0) {
+                mineHit = true;
+            } else if ((states[slot] & ADJACENT_MASK) == 0) {
+                revealQueue[seedCount++] = neighbour;
+            }
+        }
+        if (mineHit) {
+            gameStats.incrementMinesUncovered();
+            gameStats.endGame(GameResult.LOST);
+            revealAllCells();
+            return true;
+        }
+        if (seedCount > 0) {
+            flood(seedCount, changed);
+        }
+        if (revealed) {
+            checkWin();
+        }
+        return revealed;
+    }
+
+    /**
+     * Applies a batch of moves encoded with {@link Moves#encode(int, int)} in a single pass.
+     * Processing stops at the first move that ends the game; the remaining moves are reported as skipped.
+     * Unlike {@link #revealCell(int, int)}, every move that changes the board is counted in the game statistics.
+     *
+     * @param moves the encoded moves
+     * @return the per-move outcomes and the combined set of changed cells
+     */
+    public MoveBatchResult applyMoves(int[] moves) {
+        byte[] outcomes = new byte[moves.length];
+        BitSet changed = new BitSet();
+        int cellCount = gridRows * gridColumns;
+        int applied = 0;
+        boolean wasShowingAll = showingAll;
+        for (int m = 0; m < moves.length; m++) {
+            if (showingAll) {
+                Arrays.fill(outcomes, m, moves.length, Moves.OUTCOME_SKIPPED);
+                break;
+            }
+            int index = Moves.getCellIndex(moves[m]);
+            if (index >= cellCount) {
+                outcomes[m] = Moves.OUTCOME_INVALID;
+                continue;
+            }
+            boolean changedAny;
+            switch (Moves.getType(moves[m])) {
+                case Moves.REVEAL:
+                    changedAny = reveal(index, changed);
+                    break;
+                case Moves.FLAG:
+                    changedAny = toggleFlag(index);
+                    if (changedAny) {
+                        changed.set(index);
+                    }
+                    break;
+                case Moves.CHORD:
+                    changedAny = chord(index, changed);
+                    break;
+                default:
+                    outcomes[m] = Moves.OUTCOME_INVALID;
+                    continue;
+            }
+            if (changedAny) {
+                gameStats.incrementMovesMade();
+                applied++;
+            }
+            if (showingAll) {
+                outcomes[m] = gameStats.getGameResult() == GameResult.WON ? Moves.OUTCOME_WON : Moves.OUTCOME_LOST;
+            } else {
+                outcomes[m] = changedAny ? Moves.OUTCOME_APPLIED : Moves.OUTCOME_NO_CHANGE;
+            }
+        }
+        fireBoardChanged(changeListeners.isEmpty() ? null : (BitSet) changed.clone(), wasShowingAll);
+        return new MoveBatchResult(outcomes, changed, applied);
+    }
+
+    private static int[] ensureCapacity(int[] array, int capacity) {
+        if (array == null) {
+            return new int[Math.max(16, capacity)];
+        }
+        if (capacity > array.length) {
+            return Arrays.copyOf(array, Math.max(capacity, array.length * 2));
+        }
+        return array;
+    }
+
+    /**
+     * Toggles the flag on a hidden cell and updates the flag count in the game statistics.
+     *
+     * @param row the row index of the cell
+     * @param col the column index of the cell
+     * @return true if the flag was toggled, false if the cell is out of bounds or already visible
+     */
+    public boolean toggleFlag(int row, int col) {
+        if (row < 0 || row >= gridRows || col < 0 || col >= gridColumns) {
+            return false;
+        }
+        int index = getCellIndex(row, col);
+        if (!toggleFlag(index)) {
+            return false;
+        }
+        if (!changeListeners.isEmpty()) {
+            BitSet changed = new BitSet();
+            changed.set(index);
+            fireBoardChanged(changed, showingAll);
+        }
+        return true;
+    }
+
+    private boolean toggleFlag(int index) {
+        int slot = slotOf(index);
+        if (showingAll || (states[slot] & REVEALED) != 0) {
+            return false;
+        }
+        states[slot] ^= FLAGGED;
+        if ((states[slot] & FLAGGED) != 0) {
+            gameStats.incrementMinesUncovered();
+        } else {
+            gameStats.decrementMinesUncovered();
+        }
+        recordChange(~index);
+        return true;
+    }
+
+    /**
+     * Takes a snapshot of the current board state. Taking a snapshot is O(1); from then on the board records
+     * every reveal and flag change so that {@link #restore(BoardSnapshot)} can undo them, until every snapshot
+     * has been released, invalidated or garbage collected.
+     *
+     * @return the snapshot of the current state
+     */
+    public BoardSnapshot snapshot() {
+        while (!liveSnapshots.isEmpty() && liveSnapshots.get(liveSnapshots.size() - 1).get() == null) {
+            liveSnapshots.remove(liveSnapshots.size() - 1);
+        }
+        recordingTrail = true;
+        BoardSnapshot snapshot = new BoardSnapshot(this, trailOffset + trailSize, revealedCount, showingAll,
+                gameStats.getGameResult(), gameStats.getMovesMade(), gameStats.getMinesUncovered());
+        liveSnapshots.add(new WeakReference<>(snapshot));
+        return snapshot;
+    }
+
+    /**
+     * Restores the board and its game statistics to the state captured by a snapshot,
+     * undoing only the changes made since it was taken. The snapshot stays valid; every snapshot taken after it
+     * is invalidated.
+     *
+     * @param snapshot the snapshot to restore
+     * @throws IllegalArgumentException if the snapshot was taken from another board
+     * @throws IllegalStateException    if the snapshot was released or invalidated by restoring an earlier one
+     */
+    public void restore(BoardSnapshot snapshot) {
+        if (snapshot.board != this) {
+            throw new IllegalArgumentException("Snapshot belongs to another board");
+        }
+        int live = indexOfLiveSnapshot(snapshot);
+        if (live < 0) {
+            throw new IllegalStateException("Snapshot is no longer valid");
+        }
+        liveSnapshots.subList(live + 1, liveSnapshots.size()).clear();
+        int target = (int) (snapshot.trailPosition - trailOffset);
+        boolean wasShowingAll = showingAll;
+        BitSet changed = changeListeners.isEmpty() ? null : new BitSet();
+        while (trailSize > target) {
+            int change = changeTrail[--trailSize];
+            if (changed != null) {
+                changed.set(change >= 0 ? change : ~change);
+            }
+            if (change >= 0) {
+                states[slotOf(change)] &= ~REVEALED;
+            } else {
+                states[slotOf(~change)] ^= FLAGGED;
+            }
+        }
+        revealedCount = snapshot.revealedCount;
+        showingAll = snapshot.showingAll;
+        gameStats.restore(snapshot.movesMade, snapshot.minesUncovered, snapshot.gameResult);
+        fireBoardChanged(changed, wasShowingAll);
+    }
+
+    /**
+     * Releases a snapshot that will not be restored, so that the board can drop the changes recorded for it.
+     * Releasing a snapshot that is no longer valid has no effect.
+     *
+     * @param snapshot the snapshot to release
+     * @throws IllegalArgumentException if the snapshot was taken from another board
+     */
+    public void release(BoardSnapshot snapshot) {
+        if (snapshot.board != this) {
+            throw new IllegalArgumentException("Snapshot belongs to another board");
+        }
+        int live = indexOfLiveSnapshot(snapshot);
+        if (live >= 0) {
+            liveSnapshots.remove(live);
+            compactTrail();
+        }
+    }
+
+    /**
+     * Gets the number of changes recorded for restoring the live snapshots.
+     *
+     * @return the length of the change trail
+     */
+    int getTrailSize() {
+        return trailSize;
+    }
+
+    private int indexOfLiveSnapshot(BoardSnapshot snapshot) {
+        for (int i = liveSnapshots.size() - 1; i >= 0; i--) {
+            BoardSnapshot live = liveSnapshots.get(i).get();
+            if (live == snapshot) {
+                return i;
+            }
+            if (live != null && live.trailPosition < snapshot.trailPosition) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Drops released and garbage collected snapshots, and the part of the change trail older than the oldest
+     * remaining one once that is at least half of the trail. Without any snapshot left the board stops recording
+     * changes.
+     */
+    private void compactTrail() {
+        BoardSnapshot oldest = null;
+        for (Iterator<WeakReference<BoardSnapshot>> it = liveSnapshots.iterator(); it.hasNext(); ) {
+            BoardSnapshot live = it.next().get();
+            if (live == null) {
+                it.remove();
+            } else if (oldest == null) {
+                oldest = live;
+            }
+        }
+        if (oldest == null) {
+            trailOffset += trailSize;
+            trailSize = 0;
+            recordingTrail = false;
+            return;
+        }
+        int dropped = (int) (oldest.trailPosition - trailOffset);
+        if (dropped > 0 && dropped >= trailSize / 2) {
+            System.arraycopy(changeTrail, dropped, changeTrail, 0, trailSize - dropped);
+            trailSize -= dropped;
+            trailOffset += dropped;
+        }
+    }
+
+    /**
+     * Registers a listener notified after every move that changes the board.
+     *
+     * @param listener the listener to add
+     */
+    public void addChangeListener(BoardChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener added with {@link #addChangeListener(BoardChangeListener)}.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeChangeListener(BoardChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Notifies the change listeners of a move. When the move switched the board into or out of showing all cells,
+     * every cell is reported as changed.
+     *
+     * @param changed       the indices of the changed cells, or null if there are no listeners
+     * @param wasShowingAll whether the board was showing all cells before the move
+     */
+    private void fireBoardChanged(BitSet changed, boolean wasShowingAll) {
+        if (changed == null || changeListeners.isEmpty()) {
+            return;
+        }
+        if (showingAll != wasShowingAll) {
+            changed = new BitSet(gridRows * gridColumns);
+            changed.set(0, gridRows * gridColumns);
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+        for (BoardChangeListener listener : new ArrayList<>(changeListeners)) {
+            listener.boardChanged(this, changed);
+        }
+    }
+
+    /**
+     * Appends a change to the trail used to restore snapshots. Reveals are stored as the cell index and
+     * flag toggles as its bitwise complement.
+     *
+     * @param change the encoded change
+     */
+    private void recordChange(int change) {
+        if (!recordingTrail) {
+            return;
+        }
+        if (changeTrail != null && trailSize == changeTrail.length) {
+            compactTrail();
+            if (!recordingTrail) {
+                return;
+            }
+        }
+        changeTrail = ensureCapacity(changeTrail, trailSize + 1);
+        changeTrail[trailSize++] = change;
+    }
+
+    /**
+     * Reveals all cells for end of the game. Only the board's view mode changes, so the cells keep
+     * the revealed state they reached during play.
      */
     private void revealAllCells() {
-        grid.values().forEach(cell -> cell.setRevealed(true));
+        showingAll = true;
+    }
+
+    /**
+     * Checks whether the board is showing all cells because the game has ended.
+     *
+     * @return true if every cell should be rendered as revealed, false otherwise
+     */
+    public boolean isShowingAll() {
+        return showingAll;
+    }
+
+    /**
+     * Checks whether a cell should be rendered as revealed, either because it was revealed during play
+     * or because the game has ended.
+     *
+     * @param row the row index of the cell
+     * @param col the column index of the cell
+     * @return true if the cell's content is visible, false otherwise
+     */
+    public boolean isCellVisible(int row, int col) {
+        if (states == null) {
+            return showingAll;
+        }
+        return showingAll || (states[slotAt(row, col)] & REVEALED) != 0;
     }
 
     /**
@@ -162,7 +983,39 @@ public class GameBoard {
     }
 
     /**
-     * Gets the GridCell object for the specified row and column.
+     * Gets the index of a cell in row-major order.
+     *
+     * @param row the row index of the cell
+     * @param col the column index of the cell
+     * @return the cell index
+     */
+    public int getCellIndex(int row, int col) {
+        return row * gridColumns + col;
+    }
+
+    /**
+     * Gets the row of the cell with the given cell index.
+     *
+     * @param index the cell index
+     * @return the row index of the cell
+     */
+    public int getCellRow(int index) {
+        return index / gridColumns;
+    }
+
+    /**
+     * Gets the column of the cell with the given cell index.
+     *
+     * @param index the cell index
+     * @return the column index of the cell
+     */
+    public int getCellCol(int index) {
+        return index % gridColumns;
+    }
+
+    /**
+     * Gets the GridCell object for the specified row and column, adding it to the grid map on first use.
+     * The cell reads the board's current state, so it stays up to date without being written on every move.
      *
      * @param row the row index of the cell
      * @param col the column index of the cell
@@ -170,7 +1023,12 @@ public class GameBoard {
      */
     GridCell getGridCell(int row, int col) {
         String key = getGridKey(row, col);
-        return grid.computeIfAbsent(key, k -> new GridCell(row, col));
+        GridCell cell = grid.get(key);
+        if (!(cell instanceof BoardCell)) {
+            cell = new BoardCell(row, col);
+            grid.put(key, cell);
+        }
+        return cell;
     }
 
     /**
@@ -191,6 +1049,63 @@ public class GameBoard {
         return gridColumns;
     }
 
+    /**
+     * Gets the seed the mine layout was generated from.
+     *
+     * @return the seed, or 0 if the board was initialized with a predefined layout
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Checks whether the mine layout was generated from a seed rather than predefined.
+     *
+     * @return true if the board was initialized from a seed, false otherwise
+     */
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    /**
+     * Gets the number of cells revealed during play.
+     *
+     * @return the number of revealed cells
+     */
+    public int getRevealedCount() {
+        return revealedCount;
+    }
+
+    /**
+     * Gets a read-only view of the board that only exposes what a player can see.
+     *
+     * @return the read-only board view
+     */
+    public BoardView asView() {
+        if (view == null) {
+            view = new ReadOnlyView();
+        }
+        return view;
+    }
+
+    /**
+     * Gets the topology defining which cells neighbour each other.
+     *
+     * @return the board topology
+     */
+    public BoardTopology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Gets the layout defining where each cell is stored in memory.
+     *
+     * @return the cell layout
+     */
+    public CellLayout getCellLayout() {
+        return layout;
+    }
+
     /**
      * Gets the GameStats object representing the game statistics.
      *
@@ -208,4 +1123,289 @@ public class GameBoard {
     public int getTotalMines() {
         return totalMines;
     }
+
+    /**
+     * Gets the 3BV of the board, the minimum number of clicks needed to clear it.
+     *
+     * @return the 3BV of the board
+     */
+    public int getThreeBV() {
+        return threeBV;
+    }
+
+    /**
+     * Gets the number of zero-openings on the board.
+     *
+     * @return the number of openings
+     */
+    public int getOpeningCount() {
+        return openingCount;
+    }
+
+    /**
+     * Gets the id of the opening a cell belongs to. Numbered cells bordering an opening report that opening.
+     *
+     * @param row the row index of the cell
+     * @param col the column index of the cell
+     * @return the opening id, or {@link #NO_OPENING} for mines and isolated numbered cells
+     */
+    public int getOpeningId(int row, int col) {
+        return openingIds[getCellIndex(row, col)];
+    }
+
+    /**
+     * Gets the number of mines adjacent to a cell, whether or not the cell is visible. Players see the board
+     * through {@link #asView()}, which hides the counts of hidden cells; this is meant for tools and ratings.
+     *
+     * @param row the row index of the cell
+     * @param col the column index of the cell
+     * @return the number of adjacent mines
+     */
+    public int getAdjacentMineCount(int row, int col) {
+        return states[slotAt(row, col)] & ADJACENT_MASK;
+    }
+
+    /**
+     * One round of the parallel flood fill within a single tile: the cells to reveal or expand, the cells it
+     * revealed and the cells it reached in other tiles.
+     */
+    private final class TileFlood implements Callable<TileFlood> {
+        private final int rowStart;
+        private final int colStart;
+        private final Neighbourhood neighbours = new Neighbourhood();
+        private int[] queue;
+        private int queued;
+        private int[] seeds;
+        private int seedCount;
+        private int[] revealed;
+        private int revealedCount;
+        private int[] handoffs;
+        private int handoffCount;
+
+        private TileFlood(int tile, int tileColumns) {
+            this.rowStart = tile / tileColumns * parallelTileSize;
+            this.colStart = tile % tileColumns * parallelTileSize;
+        }
+
+        /**
+         * Adds an already revealed zero cell whose neighbours must be flooded.
+         */
+        private void expand(int index) {
+            queue = ensureCapacity(queue, queued + 1);
+            queue[queued++] = index;
+        }
+
+        /**
+         * Adds a cell of this tile reached from another tile, to be revealed unless it already is.
+         */
+        private void seed(int index) {
+            seeds = ensureCapacity(seeds, seedCount + 1);
+            seeds[seedCount++] = index;
+        }
+
+        @Override
+        public TileFlood call() {
+            for (int k = 0; k < seedCount; k++) {
+                visit(slotOf(seeds[k]), seeds[k]);
+            }
+            for (int head = 0; head < queued; head++) {
+                int index = queue[head];
+                neighbours.find(index, slotOf(index));
+                for (int k = 0; k < neighbours.count; k++) {
+                    int row = neighbours.positions[2 * k];
+                    int col = neighbours.positions[2 * k + 1];
+                    if (row >= rowStart && row < rowStart + parallelTileSize && col >= colStart && col < colStart + parallelTileSize) {
+                        visit(neighbours.slots[k], neighbours.indices[k]);
+                    } else {
+                        handoffs = ensureCapacity(handoffs, handoffCount + 1);
+                        handoffs[handoffCount++] = neighbours.indices[k];
+                    }
+                }
+            }
+            return this;
+        }
+
+        private void visit(int slot, int index) {
+            if ((states[slot] & REVEALED) != 0) {
+                return;
+            }
+            states[slot] |= REVEALED;
+            revealed = ensureCapacity(revealed, revealedCount + 1);
+            revealed[revealedCount++] = index;
+            if ((states[slot] & ADJACENT_MASK) == 0) {
+                expand(index);
+            }
+        }
+    }
+
+    /**
+     * The neighbours of one cell as positions, slots and cell indices, filled by {@link #find(int, int)}.
+     * Every flood fill keeps its own instance.
+     */
+    private final class Neighbourhood {
+        private final int[] positions = new int[2 * Math.max(topology.getMaxNeighbours(), RectangleTopology.ROW_OFFSETS.length)];
+        private final int[] slots = new int[Math.max(topology.getMaxNeighbours(), RectangleTopology.ROW_OFFSETS.length)];
+        private final int[] indices = new int[slots.length];
+        private int count;
+
+        private void find(int index, int slot) {
+            int row = index / gridColumns;
+            find(index, slot, row, index - row * gridColumns);
+        }
+
+        /**
+         * Finds the neighbours of a cell. On the rectangle topology the cell layout steps from the cell's own slot
+         * to its neighbours' slots and the cell indices move by fixed offsets; other topologies list the
+         * neighbours' positions, which are then mapped to slots one by one.
+         */
+        private void find(int index, int slot, int row, int col) {
+            if (!steppedNeighbours) {
+                count = topology.getNeighbours(row, col, gridRows, gridColumns, positions);
+                for (int k = 0; k < count; k++) {
+                    slots[k] = slotAt(positions[2 * k], positions[2 * k + 1]);
+                    indices[k] = getCellIndex(positions[2 * k], positions[2 * k + 1]);
+                }
+                return;
+            }
+            layout.getNeighbourSlots(slot, row, col, gridRows, gridColumns, slots);
+            count = 0;
+            for (int k = 0; k < neighbourIndexSteps.length; k++) {
+                if (slots[k] < 0) {
+                    continue;
+                }
+                slots[count] = slots[k];
+                indices[count] = index + neighbourIndexSteps[k];
+                positions[2 * count] = row + RectangleTopology.ROW_OFFSETS[k];
+                positions[2 * count + 1] = col + RectangleTopology.COL_OFFSETS[k];
+                count++;
+            }
+        }
+    }
+
+    /**
+     * A cell handed out by {@link #getGridCell(int, int)}, reading and writing its content in the board's state
+     * bytes. Like the plain cells the grid map held before, writing a cell changes what the board sees without
+     * going through a move, so the board's counters and the neighbours' adjacent mine counts are left as they are.
+     */
+    private final class BoardCell extends GridCell {
+        private final int slot;
+
+        private BoardCell(int row, int col) {
+            super(row, col);
+            this.slot = slotAt(row, col);
+        }
+
+        private int state() {
+            return states == null ? 0 : states[slot];
+        }
+
+        private void setBit(int bit, boolean set) {
+            if (states == null) {
+                throw new IllegalStateException("The game has not been initialized");
+            }
+            if (set) {
+                states[slot] |= bit;
+            } else {
+                states[slot] &= ~bit;
+            }
+        }
+
+        @Override
+        public boolean isMine() {
+            return (state() & MINE) != 0;
+        }
+
+        @Override
+        public void setMine(boolean mine) {
+            setBit(MINE, mine);
+        }
+
+        @Override
+        public boolean isRevealed() {
+            return (state() & REVEALED) != 0;
+        }
+
+        @Override
+        public void setRevealed(boolean revealed) {
+            setBit(REVEALED, revealed);
+        }
+
+        @Override
+        public int getAdjacentMines() {
+            return state() & ADJACENT_MASK;
+        }
+
+        @Override
+        public void incrementAdjacentMines() {
+            if (states == null) {
+                throw new IllegalStateException("The game has not been initialized");
+            }
+            if ((states[slot] & ADJACENT_MASK) == ADJACENT_MASK) {
+                throw new IllegalStateException("Cell already has the most adjacent mines a board can hold");
+            }
+            states[slot]++;
+        }
+
+        @Override
+        public boolean isFlagged() {
+            return (state() & FLAGGED) != 0;
+        }
+
+        @Override
+        public void setFlagged(boolean flagged) {
+            setBit(FLAGGED, flagged);
+        }
+    }
+
+    /**
+     * The read-only view handed out by {@link #asView()}.
+     */
+    private final class ReadOnlyView implements BoardView {
+        @Override
+        public int getGridRows() {
+            return gridRows;
+        }
+
+        @Override
+        public int getGridColumns() {
+            return gridColumns;
+        }
+
+        @Override
+        public int getTotalMines() {
+            return totalMines;
+        }
+
+        @Override
+        public BoardTopology getTopology() {
+            return topology;
+        }
+
+        @Override
+        public int getCellIndex(int row, int col) {
+            return GameBoard.this.getCellIndex(row, col);
+        }
+
+        @Override
+        public boolean isRevealed(int row, int col) {
+            return isCellVisible(row, col);
+        }
+
+        @Override
+        public boolean isFlagged(int row, int col) {
+            return (states[slotAt(row, col)] & FLAGGED) != 0;
+        }
+
+        @Override
+        public int getAdjacentMines(int row, int col) {
+            int state = states[slotAt(row, col)];
+            boolean visible = showingAll || (state & REVEALED) != 0;
+            return visible && (state & MINE) == 0 ? state & ADJACENT_MASK : HIDDEN;
+        }
+
+        @Override
+        public GameResult getGameResult() {
+            return gameStats.getGameResult();
+        }
+    }
 }
@@ -0,0 +1,209 @@
+package org.macan.minesweeper.game;
+
+import org.macan.minesweeper.common.LatencyHistogram;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.awt.event.InputEvent;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The GuiLatencyMonitor class is opt-in instrumentation for MinesweeperGUI. It traces the latency from a mouse
+ * event to the next paint of the grid, times the click handling phases, and runs a watchdog thread that reports
+ * Event Dispatch Thread stalls above a threshold together with the EDT's stack.
+ * Latencies are summarized as histograms in a log file, periodically and when the window closes.
+ * Enable it with {@code -Dminesweeper.latencyLog=<file>}; {@code -Dminesweeper.stallThresholdMillis} sets the
+ * stall threshold (100 ms by default). When disabled, every method returns immediately.
+ */
+public class GuiLatencyMonitor {
+    private static final long DEFAULT_STALL_THRESHOLD_MILLIS = 100;
+    private static final int SUMMARY_INTERVAL_MILLIS = 10_000;
+
+    /**
+     * The measured phases of handling user input.
+     */
+    public enum Phase {
+        INPUT_QUEUE,
+        CELL_CLICK,
+        UPDATE_GRID,
+        PAINT,
+        INPUT_TO_PAINT,
+        EDT_STALL
+    }
+
+    private final String logFile;
+    private final long stallThresholdNanos;
+    private final Map<Phase, LatencyHistogram> histograms = new EnumMap<>(Phase.class);
+    private PrintWriter log;
+    private long pendingInputNanos;
+    private volatile Thread edtThread;
+    private volatile long heartbeatSentNanos;
+    private volatile boolean heartbeatPending;
+
+    private GuiLatencyMonitor(String logFile, long stallThresholdMillis) {
+        this.logFile = logFile;
+        this.stallThresholdNanos = TimeUnit.MILLISECONDS.toNanos(stallThresholdMillis);
+        for (Phase phase : Phase.values()) {
+            histograms.put(phase, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Creates a monitor configured from system properties, disabled unless a log file is given.
+     *
+     * @return the monitor
+     */
+    public static GuiLatencyMonitor fromSystemProperties() {
+        return new GuiLatencyMonitor(System.getProperty("minesweeper.latencyLog"),
+                Long.getLong("minesweeper.stallThresholdMillis", DEFAULT_STALL_THRESHOLD_MILLIS));
+    }
+
+    /**
+     * Checks whether the monitor is recording.
+     *
+     * @return true if a log file was configured, false otherwise
+     */
+    public boolean isEnabled() {
+        return logFile != null;
+    }
+
+    /**
+     * Opens the log file and starts the summary timer and the EDT watchdog.
+     */
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            log = new PrintWriter(new FileWriter(logFile, true), true);
+        } catch (IOException e) {
+            System.err.println("Could not open latency log " + logFile + ": " + e.getMessage());
+            return;
+        }
+        SwingUtilities.invokeLater(() -> {
+            edtThread = Thread.currentThread();
+            Timer summaryTimer = new Timer(SUMMARY_INTERVAL_MILLIS, e -> writeSummary());
+            summaryTimer.start();
+            Thread watchdog = new Thread(this::watchEventDispatchThread, "edt-watchdog");
+            watchdog.setDaemon(true);
+            watchdog.start();
+        });
+    }
+
+    /**
+     * Records the arrival of an input event on the EDT. Must be called on the EDT.
+     *
+     * @param event the input event
+     */
+    public void inputReceived(InputEvent event) {
+        if (log == null) {
+            return;
+        }
+        pendingInputNanos = System.nanoTime();
+        histograms.get(Phase.INPUT_QUEUE).record(TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - event.getWhen()));
+    }
+
+    /**
+     * Starts timing a phase.
+     *
+     * @return the start timestamp to pass to {@link #record(Phase, long)}
+     */
+    public long startTiming() {
+        return log == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Records the time spent in a phase. Must be called on the EDT.
+     *
+     * @param phase the phase
+     * @param start the timestamp returned by {@link #startTiming()}
+     */
+    public void record(Phase phase, long start) {
+        if (log == null) {
+            return;
+        }
+        histograms.get(phase).record(System.nanoTime() - start);
+    }
+
+    /**
+     * Records a paint of the grid, completing the input-to-paint measurement of the last input. Must be called on the EDT.
+     *
+     * @param start the timestamp returned by {@link #startTiming()} before painting
+     */
+    public void painted(long start) {
+        if (log == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        histograms.get(Phase.PAINT).record(now - start);
+        if (pendingInputNanos != 0) {
+            histograms.get(Phase.INPUT_TO_PAINT).record(now - pendingInputNanos);
+            pendingInputNanos = 0;
+        }
+    }
+
+    /**
+     * Writes the latency histograms to the log file. Must be called on the EDT.
+     */
+    public void writeSummary() {
+        if (log == null) {
+            return;
+        }
+        StringBuilder summary = new StringBuilder(String.format("%tT latency summary (ms)%n", System.currentTimeMillis()));
+        for (Map.Entry<Phase, LatencyHistogram> entry : histograms.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            summary.append(String.format("  %-15s count=%d p50=%.2f p90=%.2f p99=%.2f max=%.2f%n", entry.getKey(), histogram.getCount(),
+                    histogram.getPercentile(50) / 1e6, histogram.getPercentile(90) / 1e6, histogram.getPercentile(99) / 1e6,
+                    histogram.getMax() / 1e6));
+        }
+        writeLog(summary.toString());
+    }
+
+    /**
+     * Posts heartbeats to the EDT and reports every heartbeat that is not handled within the stall threshold,
+     * with the EDT stack captured while it is stalled.
+     */
+    private void watchEventDispatchThread() {
+        long pollNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(1), stallThresholdNanos / 4);
+        boolean reported = false;
+        while (true) {
+            if (!heartbeatPending) {
+                reported = false;
+                heartbeatPending = true;
+                long sent = System.nanoTime();
+                heartbeatSentNanos = sent;
+                SwingUtilities.invokeLater(() -> {
+                    long stall = System.nanoTime() - sent;
+                    if (stall > stallThresholdNanos) {
+                        histograms.get(Phase.EDT_STALL).record(stall);
+                        writeLog(String.format("EDT stall ended after %.1f ms%n", stall / 1e6));
+                    }
+                    heartbeatPending = false;
+                });
+            } else if (!reported && System.nanoTime() - heartbeatSentNanos > stallThresholdNanos) {
+                reported = true;
+                StringBuilder message = new StringBuilder(String.format("EDT stalled for more than %d ms at:%n",
+                        TimeUnit.NANOSECONDS.toMillis(stallThresholdNanos)));
+                for (StackTraceElement element : edtThread.getStackTrace()) {
+                    message.append("    at ").append(element).append(System.lineSeparator());
+                }
+                writeLog(message.toString());
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(pollNanos);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private synchronized void writeLog(String message) {
+        log.print(message);
+        log.flush();
+    }
+}
@@ -0,0 +1,32 @@
+package org.macan.minesweeper.game;
+
+/**
+ * The HexTopology class lays the board out as a hexagonal grid where odd rows are shifted half a cell
+ * to the right, so that each cell touches up to six neighbours.
+ */
+public final class HexTopology implements BoardTopology {
+    private static final int[] ROW_OFFSETS = {-1, -1, 0, 0, 1, 1};
+    private static final int[] EVEN_ROW_COL_OFFSETS = {-1, 0, -1, 1, -1, 0};
+    private static final int[] ODD_ROW_COL_OFFSETS = {0, 1, -1, 1, 0, 1};
+
+    @Override
+    public int getMaxNeighbours() {
+        return ROW_OFFSETS.length;
+    }
+
+    @Override
+    public int getNeighbours(int row, int col, int rows, int cols, int[] buffer) {
+        int[] colOffsets = (row & 1) == 0 ? EVEN_ROW_COL_OFFSETS : ODD_ROW_COL_OFFSETS;
+        int count = 0;
+        for (int k = 0; k < ROW_OFFSETS.length; k++) {
+            int i = row + ROW_OFFSETS[k];
+            int j = col + colOffsets[k];
+            if (i >= 0 && i < rows && j >= 0 && j < cols) {
+                buffer[2 * count] = i;
+                buffer[2 * count + 1] = j;
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -2,6 +2,8 @@ package org.macan.minesweeper.game;
 
 import org.macan.minesweeper.common.*;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -17,6 +19,7 @@ public class MinesweeperCLI implements MinesweeperGame {
     private final Scanner scanner;
     private GameBoard board;
     private GameStats gameStats;
+    private final Deque<BoardSnapshot> undoStack = new ArrayDeque<>();
 
     /**
      * Constructs a MinesweeperCLI object and initializes the Scanner.
@@ -56,15 +59,25 @@ public class MinesweeperCLI implements MinesweeperGame {
 
             board = new GameBoard(gridSize, gridSize, mineCount, grid, mineKeys, gameStats);
             board.initializeGame();
+            undoStack.clear();
+            System.out.println("Board code: " + BoardCodec.encodeToString(board));
             displayBoard();
 
             while (gameStats.getGameResult() == GameResult.IN_PROGRESS) {
                 String move = makeMove();
-                int[] moveCoordinates = parseMove(move);
+                if ("U".equalsIgnoreCase(move.trim())) {
+                    undoMove();
+                    continue;
+                }
+                char action = 'R';
+                String target = move.trim();
+                if (target.length() > 2 && Character.isWhitespace(target.charAt(1))) {
+                    action = Character.toUpperCase(target.charAt(0));
+                    target = target.substring(2).trim();
+                }
+                int[] moveCoordinates = parseMove(target);
                 if (moveCoordinates != null) {
-                    board.revealCell(moveCoordinates[0], moveCoordinates[1]);
-                    gameStats.incrementMovesMade();
-                    displayBoard();
+                    applyMove(action, moveCoordinates[0], moveCoordinates[1]);
                 }
 
                 if (gameStats.getGameResult() == GameResult.LOST) {
@@ -135,10 +148,63 @@ public class MinesweeperCLI implements MinesweeperGame {
      * @return the move entered by the user.
      */
     private String makeMove() {
-        System.out.print("Enter your move (e.g., A1, B2): ");
+        System.out.print("Enter your move (e.g., A1, B2, F A1 to flag, C A1 to chord) or U to undo: ");
         return scanner.nextLine();
     }
 
+    /**
+     * Applies a reveal, flag or chord move and displays the board if it changed anything.
+     * @param action 'R' to reveal, 'F' to toggle a flag or 'C' to chord a revealed number.
+     * @param row the row index of the cell.
+     * @param col the column index of the cell.
+     */
+    private void applyMove(char action, int row, int col) {
+        BoardSnapshot snapshot = board.snapshot();
+        boolean changed;
+        switch (action) {
+            case 'R':
+                board.revealCell(row, col);
+                changed = true;
+                break;
+            case 'F':
+                changed = board.toggleFlag(row, col);
+                break;
+            case 'C':
+                changed = !board.chord(row, col).isEmpty();
+                if (!changed) {
+                    System.out.println("Chord needs a revealed number with exactly that many flagged neighbours.");
+                }
+                break;
+            default:
+                System.out.println("Unknown action '" + action + "'. Use F to flag or C to chord.");
+                board.release(snapshot);
+                return;
+        }
+        if (changed) {
+            undoStack.push(snapshot);
+            if (action != 'F') {
+                gameStats.incrementMovesMade();
+            }
+            displayBoard();
+        } else {
+            board.release(snapshot);
+        }
+    }
+
+    /**
+     * Undoes the last move, restoring the board to the state before it was made.
+     */
+    private void undoMove() {
+        if (undoStack.isEmpty()) {
+            System.out.println("Nothing to undo.");
+            return;
+        }
+        BoardSnapshot snapshot = undoStack.pop();
+        board.restore(snapshot);
+        board.release(snapshot);
+        displayBoard();
+    }
+
     /**
      * Displays the current state of the game board.
      */
@@ -156,7 +222,7 @@ public class MinesweeperCLI implements MinesweeperGame {
             System.out.print((char) ('A' + i) + " ");
             for (int j = 0; j < columns; j++) {
                 GridCell cell = board.getGridCell(i, j);
-                if (cell != null && cell.isRevealed()) {
+                if (board.isCellVisible(i, j)) {
                     if (cell.isMine()) {
                         System.out.print("X ");
                     } else if (cell.getAdjacentMines() > 0) {
@@ -164,6 +230,8 @@ public class MinesweeperCLI implements MinesweeperGame {
                     } else {
                         System.out.print("0 ");
                     }
+                } else if (cell.isFlagged()) {
+                    System.out.print("F ");
                 } else {
                     System.out.print("_ ");
                 }
@@ -179,7 +247,7 @@ public class MinesweeperCLI implements MinesweeperGame {
         System.out.println("Game Stats:");
         System.out.println("Moves made: " + gameStats.getMovesMade());
         System.out.println("Mines uncovered: " + gameStats.getMinesUncovered());
-        System.out.println("Total time: " + (gameStats.getTotalCurrentTime() / 1000) + " seconds");
+        System.out.println("Total time: " + (gameStats.getTotalTime() / 1000) + " seconds");
         System.out.println("Game result: " + gameStats.getGameResult());
     }
 
@@ -1,13 +1,34 @@
 package org.macan.minesweeper.game;
 
 import org.macan.minesweeper.common.*;
+import org.macan.minesweeper.leaderboard.GameRecord;
+import org.macan.minesweeper.leaderboard.StatsStore;
+import org.macan.minesweeper.library.BoardLibrary;
+import org.macan.minesweeper.library.LibraryBoard;
+import org.macan.minesweeper.solver.FrozenView;
+import org.macan.minesweeper.solver.ProbabilitySolver;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
 
 /**
  * The MinesweeperGUI class implements the Minesweeper game with a graphical user interface (GUI).
@@ -15,17 +36,35 @@ import java.util.HashSet;
  * user interactions, including clicking and flagging cells.
  */
 public class MinesweeperGUI extends JFrame implements MinesweeperGame {
-    private static final Color GREEN = new Color(192, 243, 97);
-    private static final Color LIGHT_GREEN = new Color(174, 218, 87);
+    static final Color GREEN = new Color(192, 243, 97);
+    static final Color LIGHT_GREEN = new Color(174, 218, 87);
     private static final Color HIGHLIGHT_GREEN = new Color(213, 239, 159);
-    private static final Color FLAG_COLOR = new Color(255, 165, 0);
+    static final Color FLAG_COLOR = new Color(255, 165, 0);
+    private static final Color HEATMAP_MINE_COLOR = new Color(220, 50, 47);
+    private static final double HEATMAP_EPSILON = 0.005;
+    private static final Path STATS_FILE = Paths.get(System.getProperty("user.home"), ".minesweeper", "stats.log");
+    private static final Path LIBRARY_FILE = Paths.get(System.getProperty("user.home"), ".minesweeper", "boards.lib");
+    private static final int LEADERBOARD_SIZE = 10;
+    private static final int STATS_COMPACTION_INTERVAL = 1000;
+    private static final int ROWS_PER_CHUNK = 4;
     private final JPanel gridPanel;
     private final JLabel statusLabel;
+    private final JProgressBar progressBar;
+    private int gameGeneration;
+    private boolean gridComplete;
     private GameBoard gameBoard;
     private Timer timer;
-    private int elapsedTime;
     private GameDifficulty currentGameDifficulty;
     private GridSize currentGridSize;
+    private final Deque<BoardSnapshot> undoStack = new ArrayDeque<>();
+    private final StatsStore statsStore;
+    private final BoardLibrary boardLibrary;
+    private final int boardBand;
+    private final Random boardPicker = new Random();
+    private final GuiLatencyMonitor latencyMonitor = GuiLatencyMonitor.fromSystemProperties();
+    private final JCheckBox heatmapToggle;
+    private double[] heatmap;
+    private HeatmapWorker heatmapWorker;
 
     /**
      * Constructs a MinesweeperGUI object and initializes the GUI components.
@@ -35,6 +74,31 @@ public class MinesweeperGUI extends JFrame implements MinesweeperGame {
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setSize(800, 600);
         setLayout(new BorderLayout());
+        statsStore = openStatsStore();
+        boardLibrary = openBoardLibrary();
+        boardBand = boardLibrary == null ? 0 : Math.max(0, Math.min(boardLibrary.getBandCount() - 1,
+                Integer.getInteger("minesweeper.boardBand", boardLibrary.getBandCount() / 2)));
+        latencyMonitor.start();
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                latencyMonitor.writeSummary();
+            }
+
+            @Override
+            public void windowIconified(WindowEvent e) {
+                if (gameBoard != null && gridComplete) {
+                    gameBoard.getGameStats().pause();
+                }
+            }
+
+            @Override
+            public void windowDeiconified(WindowEvent e) {
+                if (gameBoard != null && gridComplete) {
+                    gameBoard.getGameStats().resume();
+                }
+            }
+        });
 
         // Create the top bar with difficulty levels and grid sizes
         JPanel topBar = new JPanel();
@@ -57,16 +121,52 @@ public class MinesweeperGUI extends JFrame implements MinesweeperGame {
             startNewGame();
         });
 
+        JButton undoButton = new JButton("Undo");
+        undoButton.addActionListener(e -> undoMove());
+        getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+                .put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK), "undo");
+        getRootPane().getActionMap().put("undo", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                undoMove();
+            }
+        });
+
+        JButton leaderboardButton = new JButton("Leaderboard");
+        leaderboardButton.addActionListener(e -> showLeaderboard());
+        leaderboardButton.setEnabled(statsStore != null);
+
+        JButton shareButton = new JButton("Share");
+        shareButton.addActionListener(e -> showBoardCode());
+
+        heatmapToggle = new JCheckBox("Heatmap");
+        heatmapToggle.addActionListener(e -> refreshHeatmap());
+
         statusLabel = new JLabel("Time: 0s | Uncovered Mines: 0 | Total Mines: 0");
 
         topBar.add(gridSizeComboBox);
         topBar.add(difficultyComboBox);
+        topBar.add(undoButton);
+        topBar.add(leaderboardButton);
+        topBar.add(shareButton);
+        topBar.add(heatmapToggle);
         topBar.add(statusLabel);
 
+        progressBar = new JProgressBar();
+        progressBar.setVisible(false);
+        topBar.add(progressBar);
+
         add(topBar, BorderLayout.NORTH);
 
         // Initialize grid panel
-        gridPanel = new JPanel();
+        gridPanel = new JPanel() {
+            @Override
+            public void paint(Graphics g) {
+                long start = latencyMonitor.startTiming();
+                super.paint(g);
+                latencyMonitor.painted(start);
+            }
+        };
         add(gridPanel, BorderLayout.CENTER);
 
         startNewGame();
@@ -86,83 +186,207 @@ public class MinesweeperGUI extends JFrame implements MinesweeperGame {
 
     /**
      * Starts a new game with the current grid size and difficulty settings.
+     * The board is generated on a background worker so that the window stays responsive, and the grid panel
+     * is then built in chunks of rows, top rows first.
      */
     private void startNewGame() {
-        elapsedTime = 0;
+        int generation = ++gameGeneration;
         if (timer != null) {
             timer.stop();
         }
-        timer = new Timer(1000, e -> {
-            elapsedTime++;
-            updateStatusLabel();
-        });
-        timer.start();
+        gameBoard = null;
+        gridComplete = false;
+        heatmap = null;
+        undoStack.clear();
+        cancelHeatmap();
+        progressBar.setIndeterminate(true);
+        progressBar.setVisible(true);
+        statusLabel.setText("Generating board...");
 
-        int mines = (int) (currentGridSize.getRows() * currentGridSize.getCols() * currentGameDifficulty.getMineFactor());
-        gameBoard = new GameBoard(currentGridSize.getRows(), currentGridSize.getCols(), mines, new HashMap<>(), new HashSet<>(), new GameStats());
-        gameBoard.initializeGame();
-        updateStatusLabel();
+        GridSize gridSize = currentGridSize;
+        GameDifficulty difficulty = currentGameDifficulty;
+        LibraryBoard libraryBoard = boardLibrary == null ? null
+                : boardLibrary.getBoardInBand(gridSize, difficulty, boardBand, boardPicker.nextLong());
+        new SwingWorker<GameBoard, Void>() {
+            @Override
+            protected GameBoard doInBackground() {
+                GameBoard board;
+                if (libraryBoard != null) {
+                    board = libraryBoard.createBoard();
+                } else {
+                    int mines = (int) (gridSize.getRows() * gridSize.getCols() * difficulty.getMineFactor());
+                    board = new GameBoard(gridSize.getRows(), gridSize.getCols(), mines, new HashMap<>(), new HashSet<>(), new GameStats());
+                    board.initializeGame();
+                }
+                board.getGameStats().pause();
+                return board;
+            }
 
-        initializeGridPanel();
+            @Override
+            protected void done() {
+                if (generation != gameGeneration) {
+                    return;
+                }
+                try {
+                    showNewGame(get(), generation);
+                } catch (InterruptedException | ExecutionException e) {
+                    progressBar.setVisible(false);
+                    JOptionPane.showMessageDialog(MinesweeperGUI.this, "Could not generate board: " + e.getMessage(),
+                            "Minesweeper", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
     }
 
     /**
-     * Sets up the grid panel by creating the cell panels and adding mouse listeners to handle user interactions.
+     * Makes a freshly generated board the current game and starts building its grid panel.
+     *
+     * @param board      the generated board.
+     * @param generation the generation of the game, used to drop work for games that were replaced meanwhile.
      */
-    private void initializeGridPanel() {
-        gridPanel.removeAll();
-        gridPanel.setLayout(new GridLayout(currentGridSize.getRows(), currentGridSize.getCols()));
-
-        for (int row = 0; row < currentGridSize.getRows(); row++) {
-            for (int col = 0; col < currentGridSize.getCols(); col++) {
-                final int currentRow = row;
-                final int currentCol = col;
-                JPanel cellPanel = new JPanel();
-                cellPanel.setBackground((currentRow + currentCol) % 2 == 0 ? GREEN : LIGHT_GREEN);
-                cellPanel.setBorder(BorderFactory.createLineBorder(Color.BLACK));
-
-                cellPanel.addMouseListener(new MouseAdapter() {
-                    @Override
-                    public void mouseEntered(MouseEvent e) {
-                        if (!cellPanel.getBackground().equals(Color.GREEN) && !cellPanel.getBackground().equals(Color.RED) && !cellPanel.getBackground().equals(FLAG_COLOR)) {
-                            cellPanel.setBackground(HIGHLIGHT_GREEN);
-                        }
-                    }
-
-                    @Override
-                    public void mouseExited(MouseEvent e) {
-                        if (!cellPanel.getBackground().equals(Color.GREEN) && !cellPanel.getBackground().equals(Color.RED) && !cellPanel.getBackground().equals(FLAG_COLOR)) {
-                            cellPanel.setBackground((currentRow + currentCol) % 2 == 0 ? GREEN : LIGHT_GREEN);
-                        }
-                    }
+    private void showNewGame(GameBoard board, int generation) {
+        gameBoard = board;
+        updateStatusLabel();
 
-                    @Override
-                    public void mouseClicked(MouseEvent e) {
-                        if (SwingUtilities.isRightMouseButton(e)) {
-                            toggleFlagCell(currentRow, currentCol, cellPanel);
-                        } else {
-                            handleCellClick(currentRow, currentCol);
-                        }
-                    }
-                });
+        gridPanel.removeAll();
+        gridPanel.setLayout(new GridLayout(0, board.getGridColumns()));
+        progressBar.setIndeterminate(false);
+        progressBar.setMaximum(board.getGridRows());
+        progressBar.setValue(0);
+        addGridRows(0, generation);
+    }
 
-                gridPanel.add(cellPanel);
+    /**
+     * Adds the next chunk of rows to the grid panel, then yields to the event queue before adding the rest,
+     * so that input and painting are handled between chunks. Starts the game clock once the grid is complete.
+     *
+     * @param startRow   the first row of the chunk.
+     * @param generation the generation of the game the rows belong to.
+     */
+    private void addGridRows(int startRow, int generation) {
+        if (generation != gameGeneration) {
+            return;
+        }
+        int endRow = Math.min(startRow + ROWS_PER_CHUNK, gameBoard.getGridRows());
+        for (int row = startRow; row < endRow; row++) {
+            for (int col = 0; col < gameBoard.getGridColumns(); col++) {
+                gridPanel.add(createCellPanel(row, col));
             }
         }
-
         gridPanel.revalidate();
         gridPanel.repaint();
+        progressBar.setValue(endRow);
+
+        if (endRow < gameBoard.getGridRows()) {
+            SwingUtilities.invokeLater(() -> addGridRows(endRow, generation));
+        } else {
+            progressBar.setVisible(false);
+            if ((getExtendedState() & ICONIFIED) == 0) {
+                gameBoard.getGameStats().resume();
+            }
+            timer = new Timer(1000, e -> updateStatusLabel());
+            timer.start();
+            gridComplete = true;
+            refreshHeatmap();
+        }
+    }
+
+    /**
+     * Creates the panel of a single cell, with mouse listeners to handle user interactions.
+     *
+     * @param currentRow the row index of the cell.
+     * @param currentCol the column index of the cell.
+     * @return the cell panel.
+     */
+    private JPanel createCellPanel(int currentRow, int currentCol) {
+        JPanel cellPanel = new JPanel();
+        cellPanel.setBackground(hiddenCellColor(currentRow, currentCol));
+        cellPanel.setBorder(BorderFactory.createLineBorder(Color.BLACK));
+
+        cellPanel.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseEntered(MouseEvent e) {
+                if (!cellPanel.getBackground().equals(Color.GREEN) && !cellPanel.getBackground().equals(Color.RED) && !cellPanel.getBackground().equals(FLAG_COLOR)) {
+                    cellPanel.setBackground(HIGHLIGHT_GREEN);
+                }
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                if (!cellPanel.getBackground().equals(Color.GREEN) && !cellPanel.getBackground().equals(Color.RED) && !cellPanel.getBackground().equals(FLAG_COLOR)) {
+                    cellPanel.setBackground(hiddenCellColor(currentRow, currentCol));
+                }
+            }
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (SwingUtilities.isRightMouseButton(e)) {
+                    toggleFlagCell(currentRow, currentCol, cellPanel);
+                } else if (SwingUtilities.isMiddleMouseButton(e)) {
+                    latencyMonitor.inputReceived(e);
+                    handleChord(currentRow, currentCol);
+                } else {
+                    latencyMonitor.inputReceived(e);
+                    handleCellClick(currentRow, currentCol);
+                }
+            }
+        });
+        return cellPanel;
     }
 
     /**
      * Handles a cell click event, revealing the cell and updating the game state.
+     * Clicking an already revealed number chords it.
      *
      * @param row the row index of the clicked cell.
      * @param col the column index of the clicked cell.
      */
     private void handleCellClick(int row, int col) {
+        if (gameBoard == null || !gridComplete) {
+            return;
+        }
+        if (gameBoard.isCellVisible(row, col)) {
+            handleChord(row, col);
+            return;
+        }
+        long start = latencyMonitor.startTiming();
+        undoStack.push(gameBoard.snapshot());
         gameBoard.revealCell(row, col);
+        gameBoard.getGameStats().incrementMovesMade();
+        updateGrid();
+        latencyMonitor.record(GuiLatencyMonitor.Phase.CELL_CLICK, start);
+        refreshHeatmap();
+        checkGameEnd();
+    }
+
+    /**
+     * Handles a chord on a revealed number, revealing all its unflagged neighbours when its flags are satisfied.
+     *
+     * @param row the row index of the clicked cell.
+     * @param col the column index of the clicked cell.
+     */
+    private void handleChord(int row, int col) {
+        if (gameBoard == null || !gridComplete) {
+            return;
+        }
+        long start = latencyMonitor.startTiming();
+        BoardSnapshot snapshot = gameBoard.snapshot();
+        if (gameBoard.chord(row, col).isEmpty()) {
+            gameBoard.release(snapshot);
+            return;
+        }
+        undoStack.push(snapshot);
+        gameBoard.getGameStats().incrementMovesMade();
         updateGrid();
+        latencyMonitor.record(GuiLatencyMonitor.Phase.CELL_CLICK, start);
+        refreshHeatmap();
+        checkGameEnd();
+    }
+
+    /**
+     * Ends the game if the last move won or lost it.
+     */
+    private void checkGameEnd() {
         if (GameResult.LOST.equals(gameBoard.getGameStats().getGameResult())) {
             endGame("Game Over! Try Again?");
         } else if (GameResult.WON.equals(gameBoard.getGameStats().getGameResult())) {
@@ -174,6 +398,7 @@ public class MinesweeperGUI extends JFrame implements MinesweeperGame {
      * Updates the entire grid, refreshing the state of each cell.
      */
     private void updateGrid() {
+        long start = latencyMonitor.startTiming();
         for (Component comp : gridPanel.getComponents()) {
             if (comp instanceof JPanel) {
                 JPanel cellPanel = (JPanel) comp;
@@ -186,6 +411,7 @@ public class MinesweeperGUI extends JFrame implements MinesweeperGame {
         }
         gridPanel.revalidate();
         gridPanel.repaint();
+        latencyMonitor.record(GuiLatencyMonitor.Phase.UPDATE_GRID, start);
     }
 
     /**
@@ -196,19 +422,91 @@ public class MinesweeperGUI extends JFrame implements MinesweeperGame {
      * @param cellPanel the JPanel representing the cell.
      */
     private void toggleFlagCell(int row, int col, JPanel cellPanel) {
-        GridCell cell = gameBoard.getGridCell(row, col);
-        if (!cell.isRevealed()) {
-            if (cell.isFlagged()) {
-                cell.setFlagged(false);
-                cellPanel.setBackground((row + col) % 2 == 0 ? GREEN : LIGHT_GREEN);
-                gameBoard.getGameStats().decrementMinesUncovered();
-            } else {
-                cell.setFlagged(true);
+        if (gameBoard == null || !gridComplete) {
+            return;
+        }
+        BoardSnapshot snapshot = gameBoard.snapshot();
+        if (gameBoard.toggleFlag(row, col)) {
+            undoStack.push(snapshot);
+            if (gameBoard.getGridCell(row, col).isFlagged()) {
                 cellPanel.setBackground(FLAG_COLOR);
-                gameBoard.getGameStats().incrementMinesUncovered();
+            } else {
+                cellPanel.setBackground(hiddenCellColor(row, col));
             }
             updateStatusLabel();
+            refreshHeatmap();
+        } else {
+            gameBoard.release(snapshot);
+        }
+    }
+
+    /**
+     * Undoes the last reveal or flag change, restoring the board to the state before it was made.
+     */
+    private void undoMove() {
+        if (gameBoard == null || undoStack.isEmpty()) {
+            return;
         }
+        BoardSnapshot snapshot = undoStack.pop();
+        gameBoard.restore(snapshot);
+        gameBoard.release(snapshot);
+        updateGrid();
+        updateStatusLabel();
+        refreshHeatmap();
+    }
+
+    /**
+     * Recomputes the mine probability heatmap for the current position on a background worker, cancelling the
+     * computation for the previous position. Hides the heatmap if it is switched off.
+     */
+    private void refreshHeatmap() {
+        cancelHeatmap();
+        if (gameBoard == null || !gridComplete) {
+            return;
+        }
+        if (!heatmapToggle.isSelected() || gameBoard.isShowingAll()) {
+            if (heatmap != null) {
+                heatmap = null;
+                updateGrid();
+            }
+            return;
+        }
+        if (heatmap == null) {
+            heatmap = new double[gameBoard.getGridRows() * gameBoard.getGridColumns()];
+            Arrays.fill(heatmap, Double.NaN);
+        }
+        heatmapWorker = new HeatmapWorker(FrozenView.copyOf(gameBoard.asView()));
+        heatmapWorker.execute();
+    }
+
+    private void cancelHeatmap() {
+        if (heatmapWorker != null) {
+            heatmapWorker.cancel(true);
+            heatmapWorker = null;
+        }
+    }
+
+    /**
+     * Gets the background of a hidden, unflagged cell: the checkerboard green, tinted towards red by the cell's
+     * mine probability when the heatmap is shown.
+     *
+     * @param row the row index of the cell.
+     * @param col the column index of the cell.
+     * @return the background color.
+     */
+    private Color hiddenCellColor(int row, int col) {
+        Color base = (row + col) % 2 == 0 ? GREEN : LIGHT_GREEN;
+        if (heatmap == null) {
+            return base;
+        }
+        double probability = heatmap[row * gameBoard.getGridColumns() + col];
+        if (Double.isNaN(probability)) {
+            return base;
+        }
+        return new Color(
+                (int) Math.round(base.getRed() + (HEATMAP_MINE_COLOR.getRed() - base.getRed()) * probability),
+                (int) Math.round(base.getGreen() + (HEATMAP_MINE_COLOR.getGreen() - base.getGreen()) * probability),
+                (int) Math.round(base.getBlue() + (HEATMAP_MINE_COLOR.getBlue() - base.getBlue()) * probability));
     }
 
     /**
@@ -219,10 +517,11 @@ public class MinesweeperGUI extends JFrame implements MinesweeperGame {
      */
     private void updateCellPanel(JPanel cellPanel, GridCell cell) {
         cellPanel.removeAll();
-        if (cell.isMine() && cell.isRevealed()) {
+        boolean visible = gameBoard.isShowingAll() || cell.isRevealed();
+        if (cell.isMine() && visible) {
             cellPanel.setBackground(Color.RED);
             cellPanel.add(new JLabel("M"));
-        } else if (cell.isRevealed()) {
+        } else if (visible) {
             cellPanel.setBackground(Color.GREEN);
             if (cell.getAdjacentMines() > 0) {
                 cellPanel.add(new JLabel(String.valueOf(cell.getAdjacentMines())));
@@ -230,17 +529,19 @@ public class MinesweeperGUI extends JFrame implements MinesweeperGame {
         } else if (cell.isFlagged()) {
             cellPanel.setBackground(FLAG_COLOR);
         } else {
-            cellPanel.setBackground((cell.getRow() + cell.getCol()) % 2 == 0 ? GREEN : LIGHT_GREEN);
+            cellPanel.setBackground(hiddenCellColor(cell.getRow(), cell.getCol()));
         }
         cellPanel.revalidate();
         cellPanel.repaint();
     }
 
     /**
-     * Updates the status label with the current elapsed time and mine counts.
+     * Updates the status label with the time on the game clock and the mine counts.
      */
     private void updateStatusLabel() {
-        statusLabel.setText(String.format("Time: %ds | Uncovered Mines: %d | Total Mines: %d", elapsedTime, gameBoard.getGameStats().getMinesUncovered(), gameBoard.getTotalMines()));
+        GameStats stats = gameBoard.getGameStats();
+        statusLabel.setText(String.format("Time: %ds | Uncovered Mines: %d | Total Mines: %d", stats.getTotalTime() / 1000,
+                stats.getMinesUncovered(), gameBoard.getTotalMines()));
     }
 
     /**
@@ -249,11 +550,139 @@ public class MinesweeperGUI extends JFrame implements MinesweeperGame {
      * @param message the message to display to the user.
      */
     private void endGame(String message) {
-        timer.stop();
+        if (timer != null) {
+            timer.stop();
+        }
+        recordGame();
         JOptionPane.showMessageDialog(this, message);
         startNewGame(); // Restart with the current grid size and difficulty
     }
 
+    /**
+     * Opens the local stats store. The game still runs without a leaderboard if the store cannot be opened.
+     *
+     * @return the stats store, or null if it could not be opened
+     */
+    private static StatsStore openStatsStore() {
+        try {
+            return new StatsStore(STATS_FILE, LEADERBOARD_SIZE, STATS_COMPACTION_INTERVAL);
+        } catch (IOException e) {
+            System.err.println("Could not open stats store " + STATS_FILE + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Opens the pre-generated board library if there is one. Boards are generated at random without it.
+     *
+     * @return the board library, or null if there is none or it could not be opened
+     */
+    private static BoardLibrary openBoardLibrary() {
+        if (!Files.exists(LIBRARY_FILE)) {
+            return null;
+        }
+        try {
+            return new BoardLibrary(LIBRARY_FILE);
+        } catch (IOException e) {
+            System.err.println("Could not open board library " + LIBRARY_FILE + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Appends the finished game to the stats store.
+     */
+    private void recordGame() {
+        if (statsStore == null) {
+            return;
+        }
+        GameStats stats = gameBoard.getGameStats();
+        try {
+            statsStore.append(new GameRecord(gameBoard.getSeed(), currentGridSize, currentGameDifficulty, stats.getGameResult(),
+                    stats.getTotalTime(), stats.getMovesMade(), gameBoard.getThreeBV()));
+        } catch (IOException e) {
+            System.err.println("Could not record game: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Shows the fastest wins for the current grid size and difficulty.
+     */
+    private void showLeaderboard() {
+        List<GameRecord> top = statsStore.getTopRecords(currentGridSize, currentGameDifficulty);
+        StringBuilder message = new StringBuilder(String.format("%s, %s%nWon %d of %d games%n%n", currentGridSize, currentGameDifficulty,
+                statsStore.getGamesWon(currentGridSize, currentGameDifficulty), statsStore.getGamesPlayed(currentGridSize, currentGameDifficulty)));
+        for (int i = 0; i < top.size(); i++) {
+            message.append(i + 1).append(". ").append(top.get(i)).append(System.lineSeparator());
+        }
+        JOptionPane.showMessageDialog(this, message.toString(), "Leaderboard", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    /**
+     * Shows the code of the current board so that it can be shared.
+     */
+    private void showBoardCode() {
+        if (gameBoard == null) {
+            return;
+        }
+        JTextField codeField = new JTextField(BoardCodec.encodeToString(gameBoard));
+        codeField.setEditable(false);
+        JOptionPane.showMessageDialog(this, codeField, "Board code", JOptionPane.PLAIN_MESSAGE);
+    }
+
+    /**
+     * Computes the heatmap of one position with the probability solver. Results are published as each frontier
+     * component is solved, and only the cells whose probability changed visibly are repainted.
+     */
+    private final class HeatmapWorker extends SwingWorker<Void, HeatmapUpdate> {
+        private final FrozenView view;
+
+        private HeatmapWorker(FrozenView view) {
+            this.view = view;
+        }
+
+        @Override
+        protected Void doInBackground() {
+            new ProbabilitySolver().solve(view, (cells, probabilities) -> publish(new HeatmapUpdate(cells, probabilities)));
+            return null;
+        }
+
+        @Override
+        protected void process(List<HeatmapUpdate> updates) {
+            if (isCancelled() || heatmapWorker != this) {
+                return;
+            }
+            for (HeatmapUpdate update : updates) {
+                for (int k = 0; k < update.cells.length; k++) {
+                    int cell = update.cells[k];
+                    double previous = heatmap[cell];
+                    double probability = update.probabilities[k];
+                    if (!Double.isNaN(previous) && Math.abs(previous - probability) < HEATMAP_EPSILON) {
+                        continue;
+                    }
+                    heatmap[cell] = probability;
+                    GridCell gridCell = gameBoard.getGridCell(cell / view.getGridColumns(), cell % view.getGridColumns());
+                    if (!gridCell.isRevealed() && !gridCell.isFlagged()) {
+                        gridPanel.getComponent(cell).setBackground(hiddenCellColor(gridCell.getRow(), gridCell.getCol()));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A batch of probabilities published by the heatmap worker.
+     */
+    private static final class HeatmapUpdate {
+        private final int[] cells;
+        private final double[] probabilities;
+
+        private HeatmapUpdate(int[] cells, double[] probabilities) {
+            this.cells = cells;
+            this.probabilities = probabilities;
+        }
+    }
+
     /**
      * Launches the Minesweeper GUI game.
      */
@@ -0,0 +1,137 @@
+package org.macan.minesweeper.game;
+
+/**
+ * The MortonLayout class stores cells in square tiles whose side is a power of two. Tiles follow each other in
+ * row-major order and the cells inside a tile follow the Z-order (Morton) curve, interleaving the bits of the row
+ * and column within the tile. All eight neighbours of most cells then lie in the same tile, a few cache lines
+ * apart, however wide the board is. Tiles at the right and bottom edges are padded up to full size.
+ * Neighbours inside the same tile are found by stepping the interleaved coordinates of the cell's slot directly,
+ * with carries kept within the row or column bits; only cells on a tile edge compute their neighbours' slots.
+ */
+public final class MortonLayout implements CellLayout {
+    private static final int DEFAULT_TILE_BITS = 4;
+
+    private final int tileBits;
+    private final int tileMask;
+    private final int rowBits;
+    private final int colBits;
+    private final int[] spreadBits;
+
+    /**
+     * Constructor for creating a MortonLayout object with 16x16 tiles.
+     */
+    public MortonLayout() {
+        this(DEFAULT_TILE_BITS);
+    }
+
+    /**
+     * Constructor for creating a MortonLayout object.
+     *
+     * @param tileBits the base-two logarithm of the tile side, between 1 and 15
+     * @throws IllegalArgumentException if the tile size is out of range
+     */
+    public MortonLayout(int tileBits) {
+        if (tileBits < 1 || tileBits > 15) {
+            throw new IllegalArgumentException("Tile bits must be between 1 and 15: " + tileBits);
+        }
+        this.tileBits = tileBits;
+        this.tileMask = (1 << tileBits) - 1;
+        this.colBits = 0x55555555 & ((1 << 2 * tileBits) - 1);
+        this.rowBits = colBits << 1;
+        this.spreadBits = new int[1 << tileBits];
+        for (int value = 0; value < spreadBits.length; value++) {
+            spreadBits[value] = spread(value);
+        }
+    }
+
+    /**
+     * Gets the side length of a tile.
+     *
+     * @return the number of cells along each side of a tile
+     */
+    public int getTileSize() {
+        return 1 << tileBits;
+    }
+
+    @Override
+    public int getSlotCount(int rows, int cols) {
+        long slots = (long) tilesAcross(rows) * tilesAcross(cols) << 2 * tileBits;
+        if (slots > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Grid too large: " + rows + "x" + cols);
+        }
+        return (int) slots;
+    }
+
+    @Override
+    public int getSlot(int row, int col, int cols) {
+        int tile = (row >>> tileBits) * tilesAcross(cols) + (col >>> tileBits);
+        return tile << 2 * tileBits | spreadBits[row & tileMask] << 1 | spreadBits[col & tileMask];
+    }
+
+    @Override
+    public int getSlotRow(int slot, int cols) {
+        int tile = slot >>> 2 * tileBits;
+        return tile / tilesAcross(cols) << tileBits | compact(slot >>> 1);
+    }
+
+    @Override
+    public int getSlotCol(int slot, int cols) {
+        int tile = slot >>> 2 * tileBits;
+        return tile % tilesAcross(cols) << tileBits | compact(slot);
+    }
+
+    @Override
+    public void getNeighbourSlots(int slot, int row, int col, int rows, int cols, int[] slots) {
+        int tileRow = row & tileMask;
+        int tileCol = col & tileMask;
+        if (tileRow == 0 || tileCol == 0 || tileRow == tileMask || tileCol == tileMask || row == rows - 1 || col == cols - 1) {
+            CellLayout.super.getNeighbourSlots(slot, row, col, rows, cols, slots);
+            return;
+        }
+        int tile = slot & ~(rowBits | colBits);
+        int cell = slot & (rowBits | colBits);
+        int up = ((cell & rowBits) - 2 & rowBits) | cell & colBits;
+        int down = ((cell | colBits) + 2 & rowBits) | cell & colBits;
+        slots[0] = tile | left(up);
+        slots[1] = tile | up;
+        slots[2] = tile | right(up);
+        slots[3] = tile | left(cell);
+        slots[4] = tile | right(cell);
+        slots[5] = tile | left(down);
+        slots[6] = tile | down;
+        slots[7] = tile | right(down);
+    }
+
+    private int left(int cell) {
+        return ((cell & colBits) - 1 & colBits) | cell & rowBits;
+    }
+
+    private int right(int cell) {
+        return ((cell | rowBits) + 1 & colBits) | cell & rowBits;
+    }
+
+    private int tilesAcross(int cells) {
+        return (cells + tileMask) >>> tileBits;
+    }
+
+    /**
+     * Spreads the low 16 bits of a value to the even bit positions. Slot lookups read the result from a table.
+     */
+    private static int spread(int value) {
+        value = (value | value << 8) & 0x00FF00FF;
+        value = (value | value << 4) & 0x0F0F0F0F;
+        value = (value | value << 2) & 0x33333333;
+        return (value | value << 1) & 0x55555555;
+    }
+
+    /**
+     * Gathers the even bit positions of a value into its low 16 bits, undoing {@link #spread(int)}.
+     */
+    private int compact(int value) {
+        value &= 0x55555555 & ((1 << 2 * tileBits) - 1);
+        value = (value | value >>> 1) & 0x33333333;
+        value = (value | value >>> 2) & 0x0F0F0F0F;
+        value = (value | value >>> 4) & 0x00FF00FF;
+        return (value | value >>> 8) & 0x0000FFFF;
+    }
+}
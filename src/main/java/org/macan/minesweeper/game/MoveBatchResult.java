@@ -0,0 +1,46 @@
+package org.macan.minesweeper.game;
+
+import java.util.BitSet;
+
+/**
+ * The MoveBatchResult class holds the result of applying a batch of moves to a GameBoard:
+ * one outcome code per move (see {@link Moves}) and the combined set of cells changed by the batch.
+ */
+public final class MoveBatchResult {
+    private final byte[] outcomes;
+    private final BitSet changedCells;
+    private final int movesApplied;
+
+    MoveBatchResult(byte[] outcomes, BitSet changedCells, int movesApplied) {
+        this.outcomes = outcomes;
+        this.changedCells = changedCells;
+        this.movesApplied = movesApplied;
+    }
+
+    /**
+     * Gets the outcome codes, one per move in the batch.
+     *
+     * @return the outcome codes
+     */
+    public byte[] getOutcomes() {
+        return outcomes;
+    }
+
+    /**
+     * Gets the indices of every cell revealed or flagged by the batch.
+     *
+     * @return the set of changed cell indices
+     */
+    public BitSet getChangedCells() {
+        return changedCells;
+    }
+
+    /**
+     * Gets the number of moves that changed the board.
+     *
+     * @return the number of applied moves
+     */
+    public int getMovesApplied() {
+        return movesApplied;
+    }
+}
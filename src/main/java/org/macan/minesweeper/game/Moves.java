@@ -0,0 +1,60 @@
+package org.macan.minesweeper.game;
+
+/**
+ * The Moves class defines the compact encoding of moves used by {@link GameBoard#applyMoves(int[])}
+ * and the outcome codes reported for each of them.
+ * A move is a single int holding the move type in its two highest bits and the cell index in the remaining bits.
+ */
+public final class Moves {
+    public static final int REVEAL = 0;
+    public static final int FLAG = 1;
+    public static final int CHORD = 2;
+
+    public static final byte OUTCOME_NO_CHANGE = 0;
+    public static final byte OUTCOME_APPLIED = 1;
+    public static final byte OUTCOME_WON = 2;
+    public static final byte OUTCOME_LOST = 3;
+    public static final byte OUTCOME_INVALID = 4;
+    public static final byte OUTCOME_SKIPPED = 5;
+
+    private static final int TYPE_SHIFT = 30;
+    private static final int INDEX_MASK = (1 << TYPE_SHIFT) - 1;
+
+    private Moves() {
+    }
+
+    /**
+     * Encodes a move.
+     *
+     * @param type      the move type ({@link #REVEAL}, {@link #FLAG} or {@link #CHORD})
+     * @param cellIndex the index of the target cell, see {@link GameBoard#getCellIndex(int, int)}
+     * @return the encoded move
+     * @throws IllegalArgumentException if the type or cell index cannot be encoded
+     */
+    public static int encode(int type, int cellIndex) {
+        if (type < REVEAL || type > CHORD || cellIndex < 0 || cellIndex > INDEX_MASK) {
+            throw new IllegalArgumentException("Cannot encode move " + type + " on cell " + cellIndex);
+        }
+        return type << TYPE_SHIFT | cellIndex;
+    }
+
+    /**
+     * Gets the type of an encoded move.
+     *
+     * @param move the encoded move
+     * @return the move type
+     */
+    public static int getType(int move) {
+        return move >>> TYPE_SHIFT;
+    }
+
+    /**
+     * Gets the target cell index of an encoded move.
+     *
+     * @param move the encoded move
+     * @return the cell index
+     */
+    public static int getCellIndex(int move) {
+        return move & INDEX_MASK;
+    }
+}
@@ -0,0 +1,30 @@
+package org.macan.minesweeper.game;
+
+/**
+ * The RectangleTopology class is the classic Minesweeper topology: a bounded rectangle where each cell
+ * touches up to eight neighbours.
+ */
+public final class RectangleTopology implements BoardTopology {
+    static final int[] ROW_OFFSETS = {-1, -1, -1, 0, 0, 1, 1, 1};
+    static final int[] COL_OFFSETS = {-1, 0, 1, -1, 1, -1, 0, 1};
+
+    @Override
+    public int getMaxNeighbours() {
+        return ROW_OFFSETS.length;
+    }
+
+    @Override
+    public int getNeighbours(int row, int col, int rows, int cols, int[] buffer) {
+        int count = 0;
+        for (int k = 0; k < ROW_OFFSETS.length; k++) {
+            int i = row + ROW_OFFSETS[k];
+            int j = col + COL_OFFSETS[k];
+            if (i >= 0 && i < rows && j >= 0 && j < cols) {
+                buffer[2 * count] = i;
+                buffer[2 * count + 1] = j;
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,48 @@
+package org.macan.minesweeper.game;
+
+/**
+ * The RowMajorLayout class stores cells row after row, so that slots coincide with cell indices.
+ * Horizontal neighbours are adjacent in memory, but vertical neighbours are a whole row apart.
+ */
+public final class RowMajorLayout implements CellLayout {
+
+    @Override
+    public int getSlotCount(int rows, int cols) {
+        long slots = (long) rows * cols;
+        if (slots > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Grid too large: " + rows + "x" + cols);
+        }
+        return (int) slots;
+    }
+
+    @Override
+    public int getSlot(int row, int col, int cols) {
+        return row * cols + col;
+    }
+
+    @Override
+    public int getSlotRow(int slot, int cols) {
+        return slot / cols;
+    }
+
+    @Override
+    public int getSlotCol(int slot, int cols) {
+        return slot % cols;
+    }
+
+    @Override
+    public void getNeighbourSlots(int slot, int row, int col, int rows, int cols, int[] slots) {
+        if (row == 0 || col == 0 || row == rows - 1 || col == cols - 1) {
+            CellLayout.super.getNeighbourSlots(slot, row, col, rows, cols, slots);
+            return;
+        }
+        slots[0] = slot - cols - 1;
+        slots[1] = slot - cols;
+        slots[2] = slot - cols + 1;
+        slots[3] = slot - 1;
+        slots[4] = slot + 1;
+        slots[5] = slot + cols - 1;
+        slots[6] = slot + cols;
+        slots[7] = slot + cols + 1;
+    }
+}
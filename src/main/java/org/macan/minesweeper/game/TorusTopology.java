@@ -0,0 +1,49 @@
+package org.macan.minesweeper.game;
+
+/**
+ * The TorusTopology class wraps the board at its edges, so that every cell has eight neighbours
+ * and the leftmost column touches the rightmost one.
+ */
+public final class TorusTopology implements BoardTopology {
+    private static final int[] ROW_OFFSETS = {-1, -1, -1, 0, 0, 1, 1, 1};
+    private static final int[] COL_OFFSETS = {-1, 0, 1, -1, 1, -1, 0, 1};
+
+    @Override
+    public int getMaxNeighbours() {
+        return ROW_OFFSETS.length;
+    }
+
+    @Override
+    public int getNeighbours(int row, int col, int rows, int cols, int[] buffer) {
+        boolean narrow = rows < 3 || cols < 3;
+        int count = 0;
+        for (int k = 0; k < ROW_OFFSETS.length; k++) {
+            int i = wrap(row + ROW_OFFSETS[k], rows);
+            int j = wrap(col + COL_OFFSETS[k], cols);
+            if (narrow && (i == row && j == col || contains(buffer, count, i, j))) {
+                // On grids narrower than three cells, wrapping reaches the same cell more than once.
+                continue;
+            }
+            buffer[2 * count] = i;
+            buffer[2 * count + 1] = j;
+            count++;
+        }
+        return count;
+    }
+
+    private static int wrap(int value, int size) {
+        if (value < 0) {
+            return value + size;
+        }
+        return value >= size ? value - size : value;
+    }
+
+    private static boolean contains(int[] buffer, int count, int row, int col) {
+        for (int k = 0; k < count; k++) {
+            if (buffer[2 * k] == row && buffer[2 * k + 1] == col) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
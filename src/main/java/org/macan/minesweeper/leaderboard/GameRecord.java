@@ -0,0 +1,72 @@
+package org.macan.minesweeper.leaderboard;
+
+import org.macan.minesweeper.common.GameDifficulty;
+import org.macan.minesweeper.common.GameResult;
+import org.macan.minesweeper.common.GridSize;
+
+/**
+ * The GameRecord class is the immutable record of a finished game as stored in the {@link StatsStore}.
+ */
+public final class GameRecord {
+    private final long seed;
+    private final GridSize gridSize;
+    private final GameDifficulty difficulty;
+    private final GameResult result;
+    private final long timeMillis;
+    private final int moves;
+    private final int threeBV;
+
+    /**
+     * Constructor for creating a GameRecord object.
+     *
+     * @param seed       the seed the board was generated from
+     * @param gridSize   the size of the board
+     * @param difficulty the difficulty of the board
+     * @param result     the result of the game
+     * @param timeMillis the time the game took in milliseconds
+     * @param moves      the number of moves made
+     * @param threeBV    the 3BV of the board
+     */
+    public GameRecord(long seed, GridSize gridSize, GameDifficulty difficulty, GameResult result, long timeMillis, int moves, int threeBV) {
+        this.seed = seed;
+        this.gridSize = gridSize;
+        this.difficulty = difficulty;
+        this.result = result;
+        this.timeMillis = timeMillis;
+        this.moves = moves;
+        this.threeBV = threeBV;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public GridSize getGridSize() {
+        return gridSize;
+    }
+
+    public GameDifficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public GameResult getResult() {
+        return result;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public int getMoves() {
+        return moves;
+    }
+
+    public int getThreeBV() {
+        return threeBV;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.3fs | %d moves | 3BV %d | seed %d", timeMillis / 1000.0, moves, threeBV, seed);
+    }
+}
@@ -0,0 +1,270 @@
+package org.macan.minesweeper.leaderboard;
+
+import org.macan.minesweeper.common.GameDifficulty;
+import org.macan.minesweeper.common.GameResult;
+import org.macan.minesweeper.common.GridSize;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * The StatsStore class persists finished games in a local append-only log file and answers leaderboard queries.
+ * For every ({@link GridSize}, {@link GameDifficulty}) bucket it keeps the play counts and a bounded heap of the
+ * fastest wins in memory, rebuilt at startup by streaming the log once.
+ * Every {@code compactionInterval} appends the log is rewritten to hold only the bucket counts and the retained
+ * top records, so that startup cost stays bounded no matter how many games have been played.
+ */
+public class StatsStore implements Closeable {
+    private static final byte GAME_RECORD = 1;
+    private static final byte SUMMARY_RECORD = 2;
+    private static final int GAME_RECORD_LENGTH = 28;
+    private static final int SUMMARY_RECORD_LENGTH = 19;
+    private static final Comparator<GameRecord> FASTEST_FIRST =
+            Comparator.comparingLong(GameRecord::getTimeMillis).thenComparingInt(GameRecord::getMoves);
+
+    private final Path logFile;
+    private final int topN;
+    private final int compactionInterval;
+    private final Bucket[][] buckets;
+    private DataOutputStream output;
+    private int appendsSinceCompaction;
+
+    /**
+     * Constructor for creating a StatsStore object. Opens or creates the log file and loads it.
+     *
+     * @param logFile            the log file
+     * @param topN               the number of fastest wins kept per bucket
+     * @param compactionInterval the number of appends between compactions
+     * @throws IOException if the log file cannot be read, holds corrupt records or cannot be opened for writing
+     */
+    public StatsStore(Path logFile, int topN, int compactionInterval) throws IOException {
+        this.logFile = logFile;
+        this.topN = topN;
+        this.compactionInterval = compactionInterval;
+        this.buckets = new Bucket[GridSize.values().length][GameDifficulty.values().length];
+        for (Bucket[] row : buckets) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] = new Bucket();
+            }
+        }
+        if (logFile.getParent() != null) {
+            Files.createDirectories(logFile.getParent());
+        }
+        if (Files.exists(logFile)) {
+            load();
+        }
+        openOutput();
+    }
+
+    /**
+     * Appends a finished game to the log and updates the in-memory leaderboard.
+     *
+     * @param record the finished game
+     * @throws IOException if the record cannot be written
+     */
+    public synchronized void append(GameRecord record) throws IOException {
+        writeGameRecord(output, record);
+        output.flush();
+        add(record);
+        if (++appendsSinceCompaction >= compactionInterval) {
+            compact();
+        }
+    }
+
+    /**
+     * Gets the fastest wins for a bucket.
+     *
+     * @param gridSize   the size of the board
+     * @param difficulty the difficulty of the board
+     * @return the fastest wins, fastest first
+     */
+    public synchronized List<GameRecord> getTopRecords(GridSize gridSize, GameDifficulty difficulty) {
+        return bucket(gridSize, difficulty).sorted();
+    }
+
+    /**
+     * Gets the number of games played in a bucket.
+     *
+     * @param gridSize   the size of the board
+     * @param difficulty the difficulty of the board
+     * @return the number of games played
+     */
+    public synchronized long getGamesPlayed(GridSize gridSize, GameDifficulty difficulty) {
+        return bucket(gridSize, difficulty).played;
+    }
+
+    /**
+     * Gets the number of games won in a bucket.
+     *
+     * @param gridSize   the size of the board
+     * @param difficulty the difficulty of the board
+     * @return the number of games won
+     */
+    public synchronized long getGamesWon(GridSize gridSize, GameDifficulty difficulty) {
+        return bucket(gridSize, difficulty).won;
+    }
+
+    /**
+     * Rewrites the log so that it only holds the bucket counts and the retained top records.
+     *
+     * @throws IOException if the log cannot be rewritten
+     */
+    public synchronized void compact() throws IOException {
+        output.close();
+        Path compacted = logFile.resolveSibling(logFile.getFileName() + ".compact");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(compacted)))) {
+            for (GridSize gridSize : GridSize.values()) {
+                for (GameDifficulty difficulty : GameDifficulty.values()) {
+                    Bucket bucket = bucket(gridSize, difficulty);
+                    List<GameRecord> top = bucket.sorted();
+                    out.writeByte(SUMMARY_RECORD);
+                    out.writeByte(gridSize.ordinal());
+                    out.writeByte(difficulty.ordinal());
+                    out.writeLong(bucket.played - top.size());
+                    out.writeLong(bucket.won - top.size());
+                    for (GameRecord record : top) {
+                        writeGameRecord(out, record);
+                    }
+                }
+            }
+        }
+        Files.move(compacted, logFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        appendsSinceCompaction = 0;
+        openOutput();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        output.close();
+    }
+
+    /**
+     * Streams the log into memory. A record cut short by a crash at the end of the file is dropped and truncated
+     * from the file; anything else that is not a valid record is reported rather than truncated, so that records
+     * after it are never lost.
+     *
+     * @throws IOException if the log cannot be read or holds a corrupt record
+     */
+    private void load() throws IOException {
+        long validLength = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(logFile)))) {
+            while (true) {
+                int type = in.read();
+                if (type == -1) {
+                    break;
+                }
+                if (type == GAME_RECORD) {
+                    add(readGameRecord(in));
+                    validLength += GAME_RECORD_LENGTH;
+                } else if (type == SUMMARY_RECORD) {
+                    Bucket bucket = buckets[readOrdinal(in, GridSize.values().length)][readOrdinal(in, GameDifficulty.values().length)];
+                    long played = in.readLong();
+                    long won = in.readLong();
+                    bucket.played += played;
+                    bucket.won += won;
+                    validLength += SUMMARY_RECORD_LENGTH;
+                } else {
+                    throw new IOException("Corrupt stats log " + logFile + ": unknown record type " + type + " at offset " + validLength);
+                }
+            }
+        } catch (EOFException e) {
+            // The last record was only partially written.
+        }
+        if (validLength < Files.size(logFile)) {
+            try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+            }
+        }
+    }
+
+    private void openOutput() throws IOException {
+        output = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(logFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+    }
+
+    private void add(GameRecord record) {
+        Bucket bucket = bucket(record.getGridSize(), record.getDifficulty());
+        bucket.played++;
+        if (record.getResult() == GameResult.WON) {
+            bucket.won++;
+            bucket.offer(record, topN);
+        }
+    }
+
+    private Bucket bucket(GridSize gridSize, GameDifficulty difficulty) {
+        return buckets[gridSize.ordinal()][difficulty.ordinal()];
+    }
+
+    private static void writeGameRecord(DataOutputStream out, GameRecord record) throws IOException {
+        out.writeByte(GAME_RECORD);
+        out.writeLong(record.getSeed());
+        out.writeByte(record.getGridSize().ordinal());
+        out.writeByte(record.getDifficulty().ordinal());
+        out.writeByte(record.getResult().ordinal());
+        out.writeLong(record.getTimeMillis());
+        out.writeInt(record.getMoves());
+        out.writeInt(record.getThreeBV());
+    }
+
+    private static GameRecord readGameRecord(DataInputStream in) throws IOException {
+        long seed = in.readLong();
+        GridSize gridSize = GridSize.values()[readOrdinal(in, GridSize.values().length)];
+        GameDifficulty difficulty = GameDifficulty.values()[readOrdinal(in, GameDifficulty.values().length)];
+        GameResult result = GameResult.values()[readOrdinal(in, GameResult.values().length)];
+        return new GameRecord(seed, gridSize, difficulty, result, in.readLong(), in.readInt(), in.readInt());
+    }
+
+    private static int readOrdinal(DataInputStream in, int count) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        if (ordinal >= count) {
+            throw new IOException("Corrupt stats log: ordinal " + ordinal + " out of range");
+        }
+        return ordinal;
+    }
+
+    /**
+     * The play counts and fastest wins of one (size, difficulty) bucket.
+     */
+    private static final class Bucket {
+        private final PriorityQueue<GameRecord> slowestOnTop = new PriorityQueue<>(FASTEST_FIRST.reversed());
+        private long played;
+        private long won;
+        private List<GameRecord> sorted;
+
+        private void offer(GameRecord record, int topN) {
+            if (slowestOnTop.size() < topN) {
+                slowestOnTop.add(record);
+            } else if (FASTEST_FIRST.compare(record, slowestOnTop.peek()) < 0) {
+                slowestOnTop.poll();
+                slowestOnTop.add(record);
+            } else {
+                return;
+            }
+            sorted = null;
+        }
+
+        private List<GameRecord> sorted() {
+            if (sorted == null) {
+                List<GameRecord> records = new ArrayList<>(slowestOnTop);
+                records.sort(FASTEST_FIRST);
+                sorted = Collections.unmodifiableList(records);
+            }
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package org.macan.minesweeper.library;
+
+import org.macan.minesweeper.common.GameDifficulty;
+import org.macan.minesweeper.common.GridSize;
+import org.macan.minesweeper.game.GameBoard;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The BoardLibrary class serves pre-generated boards from a file written by {@link BoardLibraryBuilder}.
+ * The file is memory-mapped and read in place, so opening it costs no more than reading its header.
+ * For every ({@link GridSize}, {@link GameDifficulty}) bucket the file holds fixed-size entries of a seed, the
+ * number of guesses the reference solver needed, a 3BV and a solver-step count, sorted by guesses, then by 3BV
+ * and then by solver steps. A difficulty band is a fixed share of that order, so picking a board in a band is a
+ * constant-time read; boards in a 3BV range are found by binary search within each guess count.
+ * Boards are rebuilt from their seeds, and a file written by another version of the mine generator is rejected,
+ * so that every entry always produces the board it was rated on.
+ * The library is immutable and can be shared between threads.
+ */
+public class BoardLibrary {
+    static final int MAGIC = 0x4D53424C;
+    static final int FORMAT_VERSION = 2;
+    static final int HEADER_LENGTH = 20;
+    static final int BUCKET_LENGTH = 24;
+    static final int ENTRY_LENGTH = 20;
+
+    private static final int GUESSES = 8;
+    private static final int THREE_BV = 12;
+
+    private final MappedByteBuffer buffer;
+    private final int bandCount;
+    private final int[][] counts;
+    private final long[][] offsets;
+
+    /**
+     * Constructor for creating a BoardLibrary object. Maps the file and checks its header.
+     *
+     * @param file the library file
+     * @throws IOException if the file cannot be read, is not a board library, or does not match this version of
+     *                     the game
+     */
+    public BoardLibrary(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < HEADER_LENGTH || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a board library: " + file);
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION || buffer.getInt(8) != GameBoard.GENERATOR_VERSION) {
+            throw new IOException("Board library " + file + " was written by another version of the game");
+        }
+        bandCount = buffer.getInt(12);
+        GridSize[] gridSizes = GridSize.values();
+        GameDifficulty[] difficulties = GameDifficulty.values();
+        if (bandCount < 1 || buffer.getInt(16) != gridSizes.length * difficulties.length
+                || buffer.capacity() < HEADER_LENGTH + (long) gridSizes.length * difficulties.length * BUCKET_LENGTH) {
+            throw new IOException("Board library " + file + " does not match the board sizes and difficulties");
+        }
+        counts = new int[gridSizes.length][difficulties.length];
+        offsets = new long[gridSizes.length][difficulties.length];
+        int position = HEADER_LENGTH;
+        for (GridSize gridSize : gridSizes) {
+            for (GameDifficulty difficulty : difficulties) {
+                int count = buffer.getInt(position + 12);
+                long offset = buffer.getLong(position + 16);
+                if (buffer.getInt(position) != gridSize.getRows() || buffer.getInt(position + 4) != gridSize.getCols()
+                        || buffer.getInt(position + 8) != LibraryBoard.getMineCount(gridSize, difficulty)
+                        || count < 0 || offset + (long) count * ENTRY_LENGTH > buffer.capacity()) {
+                    throw new IOException("Board library " + file + " does not match the board sizes and difficulties");
+                }
+                counts[gridSize.ordinal()][difficulty.ordinal()] = count;
+                offsets[gridSize.ordinal()][difficulty.ordinal()] = offset;
+                position += BUCKET_LENGTH;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of difficulty bands each bucket is divided into.
+     *
+     * @return the number of bands
+     */
+    public int getBandCount() {
+        return bandCount;
+    }
+
+    /**
+     * Gets the number of boards in a bucket.
+     *
+     * @param gridSize   the size of the board
+     * @param difficulty the difficulty of the board
+     * @return the number of boards
+     */
+    public int getBoardCount(GridSize gridSize, GameDifficulty difficulty) {
+        return counts[gridSize.ordinal()][difficulty.ordinal()];
+    }
+
+    /**
+     * Gets a board by its position in the rating order of its bucket.
+     *
+     * @param gridSize   the size of the board
+     * @param difficulty the difficulty of the board
+     * @param index      the position, from 0 for the easiest board
+     * @return the board
+     * @throws IndexOutOfBoundsException if the bucket has no board at that position
+     */
+    public LibraryBoard getBoard(GridSize gridSize, GameDifficulty difficulty, int index) {
+        int count = getBoardCount(gridSize, difficulty);
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Board " + index + " of " + count);
+        }
+        int position = entryPosition(gridSize, difficulty, index);
+        return new LibraryBoard(gridSize, difficulty, buffer.getLong(position), buffer.getInt(position + GUESSES),
+                buffer.getInt(position + THREE_BV), buffer.getInt(position + 16));
+    }
+
+    /**
+     * Picks a board in a difficulty band. Band {@code b} holds the boards ranked between {@code b / bandCount}
+     * and {@code (b + 1) / bandCount} of their bucket, from easiest to hardest.
+     *
+     * @param gridSize   the size of the board
+     * @param difficulty the difficulty of the board
+     * @param band       the band, from 0 for the easiest boards to {@link #getBandCount()} - 1 for the hardest
+     * @param pick       any value, mapped to a board of the band; the same value always picks the same board
+     * @return the board, or null if the band is empty
+     * @throws IllegalArgumentException if the band is out of range
+     */
+    public LibraryBoard getBoardInBand(GridSize gridSize, GameDifficulty difficulty, int band, long pick) {
+        if (band < 0 || band >= bandCount) {
+            throw new IllegalArgumentException("Band must be between 0 and " + (bandCount - 1) + ": " + band);
+        }
+        long count = getBoardCount(gridSize, difficulty);
+        int start = (int) (count * band / bandCount);
+        int end = (int) (count * (band + 1) / bandCount);
+        return pick(gridSize, difficulty, start, end, pick);
+    }
+
+    /**
+     * Picks a board whose 3BV lies in a range.
+     *
+     * @param gridSize   the size of the board
+     * @param difficulty the difficulty of the board
+     * @param minThreeBV the lowest 3BV, inclusive
+     * @param maxThreeBV the highest 3BV, inclusive
+     * @param pick       any value, mapped to a board of the range; the same value always picks the same board
+     * @return the board, or null if no board lies in the range
+     */
+    public LibraryBoard findBoard(GridSize gridSize, GameDifficulty difficulty, int minThreeBV, int maxThreeBV, long pick) {
+        if (minThreeBV > maxThreeBV) {
+            return null;
+        }
+        int count = getBoardCount(gridSize, difficulty);
+        long matches = 0;
+        for (int group = 0; group < count; ) {
+            int groupEnd = endOfGuessGroup(gridSize, difficulty, group);
+            matches += firstAbove(gridSize, difficulty, group, groupEnd, maxThreeBV)
+                    - firstAtLeast(gridSize, difficulty, group, groupEnd, THREE_BV, minThreeBV);
+            group = groupEnd;
+        }
+        if (matches == 0) {
+            return null;
+        }
+        long target = Math.floorMod(pick, matches);
+        for (int group = 0; ; ) {
+            int groupEnd = endOfGuessGroup(gridSize, difficulty, group);
+            int start = firstAtLeast(gridSize, difficulty, group, groupEnd, THREE_BV, minThreeBV);
+            int end = firstAbove(gridSize, difficulty, group, groupEnd, maxThreeBV);
+            if (target < end - start) {
+                return getBoard(gridSize, difficulty, start + (int) target);
+            }
+            target -= end - start;
+            group = groupEnd;
+        }
+    }
+
+    private LibraryBoard pick(GridSize gridSize, GameDifficulty difficulty, int start, int end, long pick) {
+        if (start >= end) {
+            return null;
+        }
+        return getBoard(gridSize, difficulty, start + (int) Math.floorMod(pick, (long) (end - start)));
+    }
+
+    /**
+     * Gets the position after the boards needing as many guesses as the board at the start of a group.
+     */
+    private int endOfGuessGroup(GridSize gridSize, GameDifficulty difficulty, int group) {
+        int guesses = buffer.getInt(entryPosition(gridSize, difficulty, group) + GUESSES);
+        return firstAtLeast(gridSize, difficulty, group, getBoardCount(gridSize, difficulty), GUESSES, guesses + 1);
+    }
+
+    /**
+     * Finds the first position in a guess group whose 3BV is above a value.
+     */
+    private int firstAbove(GridSize gridSize, GameDifficulty difficulty, int low, int high, int maxThreeBV) {
+        if (maxThreeBV == Integer.MAX_VALUE) {
+            return high;
+        }
+        return firstAtLeast(gridSize, difficulty, low, high, THREE_BV, maxThreeBV + 1);
+    }
+
+    /**
+     * Finds the first position in a range of a bucket whose field is at least a value, given that the field is
+     * sorted within the range.
+     */
+    private int firstAtLeast(GridSize gridSize, GameDifficulty difficulty, int low, int high, int field, int value) {
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (buffer.getInt(entryPosition(gridSize, difficulty, middle) + field) < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int entryPosition(GridSize gridSize, GameDifficulty difficulty, int index) {
+        return (int) (offsets[gridSize.ordinal()][difficulty.ordinal()] + (long) index * ENTRY_LENGTH);
+    }
+}
@@ -0,0 +1,243 @@
+package org.macan.minesweeper.library;
+
+import org.macan.minesweeper.bot.SinglePointPlayer;
+import org.macan.minesweeper.common.GameDifficulty;
+import org.macan.minesweeper.common.GameResult;
+import org.macan.minesweeper.common.GridSize;
+import org.macan.minesweeper.game.BoardView;
+import org.macan.minesweeper.game.GameBoard;
+import org.macan.minesweeper.game.MoveBatchResult;
+import org.macan.minesweeper.game.Moves;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The BoardLibraryBuilder class is the offline tool that generates the boards of a {@link BoardLibrary}.
+ * For every ({@link GridSize}, {@link GameDifficulty}) bucket it draws board seeds from a master seed and rates
+ * each board with a deterministic single-point solver: it opens with a safe click, plays every move it can
+ * deduce, and when it is stuck counts a guess and is handed a safe cell, so that it finishes every board.
+ * Boards are rated by that number of guesses, then by their 3BV and by the number of move batches the solver
+ * needed, and written in that order. Rating runs on a thread pool; the file is written to a temporary sibling
+ * first and moved into place, so readers never see a partial library. The same arguments always produce the
+ * same file.
+ */
+public class BoardLibraryBuilder {
+    private static final Comparator<LibraryBoard> BY_RATING = Comparator.comparingInt(LibraryBoard::getGuesses)
+            .thenComparingInt(LibraryBoard::getThreeBV)
+            .thenComparingInt(LibraryBoard::getSolverSteps)
+            .thenComparingLong(LibraryBoard::getSeed);
+
+    private final int boardsPerBucket;
+    private final int bandCount;
+    private final int threads;
+    private final long seed;
+
+    /**
+     * Constructor for creating a BoardLibraryBuilder object.
+     *
+     * @param boardsPerBucket the number of boards generated for every size and difficulty
+     * @param bandCount       the number of difficulty bands each bucket is divided into
+     * @param threads         the number of threads rating boards
+     * @param seed            the master seed the board seeds are drawn from
+     */
+    public BoardLibraryBuilder(int boardsPerBucket, int bandCount, int threads, long seed) {
+        if (boardsPerBucket < 0 || bandCount < 1 || threads < 1) {
+            throw new IllegalArgumentException("Board count must not be negative, band and thread counts must be positive");
+        }
+        this.boardsPerBucket = boardsPerBucket;
+        this.bandCount = bandCount;
+        this.threads = threads;
+        this.seed = seed;
+    }
+
+    /**
+     * Generates and rates the boards and writes the library.
+     *
+     * @param file the library file, replaced if it exists
+     * @throws IOException          if the file cannot be written
+     * @throws InterruptedException if interrupted while rating boards
+     */
+    public void build(Path file) throws IOException, InterruptedException {
+        GridSize[] gridSizes = GridSize.values();
+        GameDifficulty[] difficulties = GameDifficulty.values();
+        List<LibraryBoard[]> buckets = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Random random = new Random(seed);
+            for (GridSize gridSize : gridSizes) {
+                for (GameDifficulty difficulty : difficulties) {
+                    List<Future<LibraryBoard>> futures = new ArrayList<>();
+                    for (int i = 0; i < boardsPerBucket; i++) {
+                        long boardSeed = random.nextLong();
+                        futures.add(executor.submit(() -> rate(gridSize, difficulty, boardSeed)));
+                    }
+                    LibraryBoard[] boards = new LibraryBoard[futures.size()];
+                    for (int i = 0; i < boards.length; i++) {
+                        try {
+                            boards[i] = futures.get(i).get();
+                        } catch (ExecutionException e) {
+                            throw new IllegalStateException("Rating a board failed", e.getCause());
+                        }
+                    }
+                    Arrays.sort(boards, BY_RATING);
+                    buckets.add(boards);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        write(file, buckets);
+    }
+
+    /**
+     * Rates a board by letting the single-point solver finish it. The solver first reveals a safe cell, opening
+     * an opening if there is one, then plays the flags and chords it can deduce. Whenever it cannot deduce
+     * anything, it counts a guess and is handed a safe cell next to the revealed area, so the rating never depends
+     * on luck and the same board always gets the same rating.
+     *
+     * @return the rated board
+     * @throws IllegalStateException if the solver lost the board, which would mean a deduction was wrong
+     */
+    static LibraryBoard rate(GridSize gridSize, GameDifficulty difficulty, long boardSeed) {
+        GameBoard board = LibraryBoard.createBoard(gridSize, difficulty, boardSeed);
+        BitSet mines = GameBoard.generateMineLayout(gridSize.getRows(), gridSize.getCols(),
+                LibraryBoard.getMineCount(gridSize, difficulty), boardSeed);
+        BoardView view = board.asView();
+        SinglePointPlayer solver = new SinglePointPlayer();
+        solver.startGame(view, boardSeed);
+        int steps = 0;
+        int guesses = 0;
+        int[] moves = {Moves.encode(Moves.REVEAL, firstClick(board, mines))};
+        while (true) {
+            MoveBatchResult result = board.applyMoves(moves);
+            steps++;
+            if (board.getGameStats().getGameResult() != GameResult.IN_PROGRESS) {
+                break;
+            }
+            moves = result.getMovesApplied() == 0 ? new int[0] : solver.deduceMoves(view);
+            if (moves.length == 0) {
+                guesses++;
+                moves = new int[]{Moves.encode(Moves.REVEAL, safeGuess(view, mines))};
+            }
+        }
+        if (board.getGameStats().getGameResult() != GameResult.WON) {
+            throw new IllegalStateException("Rating solver lost board " + boardSeed);
+        }
+        return new LibraryBoard(gridSize, difficulty, boardSeed, guesses, board.getThreeBV(), steps);
+    }
+
+    /**
+     * Picks the first click: the first cell without adjacent mines in row order, which opens an opening, or the
+     * first cell without a mine on boards that have no opening.
+     */
+    private static int firstClick(GameBoard board, BitSet mines) {
+        int cols = board.getGridColumns();
+        for (int index = 0; index < board.getGridRows() * cols; index++) {
+            if (!mines.get(index) && board.getAdjacentMineCount(index / cols, index % cols) == 0) {
+                return index;
+            }
+        }
+        return mines.nextClearBit(0);
+    }
+
+    /**
+     * Picks the cell revealed for a guess: the first hidden, unflagged cell without a mine in row order that
+     * borders a revealed cell, as a player would guess next to what is known, or the first such cell anywhere if
+     * none borders a revealed cell.
+     */
+    private static int safeGuess(BoardView view, BitSet mines) {
+        int rows = view.getGridRows();
+        int cols = view.getGridColumns();
+        int[] neighbours = new int[2 * view.getTopology().getMaxNeighbours()];
+        int fallback = -1;
+        for (int index = 0; index < rows * cols; index++) {
+            int row = index / cols;
+            int col = index % cols;
+            if (mines.get(index) || view.isRevealed(row, col) || view.isFlagged(row, col)) {
+                continue;
+            }
+            int count = view.getTopology().getNeighbours(row, col, rows, cols, neighbours);
+            for (int k = 0; k < count; k++) {
+                if (view.isRevealed(neighbours[2 * k], neighbours[2 * k + 1])) {
+                    return index;
+                }
+            }
+            if (fallback < 0) {
+                fallback = index;
+            }
+        }
+        return fallback;
+    }
+
+    private void write(Path file, List<LibraryBoard[]> buckets) throws IOException {
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(BoardLibrary.MAGIC);
+            out.writeInt(BoardLibrary.FORMAT_VERSION);
+            out.writeInt(GameBoard.GENERATOR_VERSION);
+            out.writeInt(bandCount);
+            out.writeInt(buckets.size());
+            long offset = BoardLibrary.HEADER_LENGTH + (long) buckets.size() * BoardLibrary.BUCKET_LENGTH;
+            GameDifficulty[] difficulties = GameDifficulty.values();
+            for (int b = 0; b < buckets.size(); b++) {
+                GridSize gridSize = GridSize.values()[b / difficulties.length];
+                GameDifficulty difficulty = difficulties[b % difficulties.length];
+                out.writeInt(gridSize.getRows());
+                out.writeInt(gridSize.getCols());
+                out.writeInt(LibraryBoard.getMineCount(gridSize, difficulty));
+                out.writeInt(buckets.get(b).length);
+                out.writeLong(offset);
+                offset += (long) buckets.get(b).length * BoardLibrary.ENTRY_LENGTH;
+            }
+            for (LibraryBoard[] boards : buckets) {
+                for (LibraryBoard board : boards) {
+                    out.writeLong(board.getSeed());
+                    out.writeInt(board.getGuesses());
+                    out.writeInt(board.getThreeBV());
+                    out.writeInt(board.getSolverSteps());
+                }
+            }
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Main method to build a board library.
+     *
+     * @param args optional arguments: the library file, the number of boards per size and difficulty, the number
+     *             of difficulty bands, the number of threads and the master seed
+     * @throws IOException          if the library cannot be written
+     * @throws InterruptedException if interrupted while rating boards
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path file = Paths.get(args.length > 0 ? args[0] : "boards.lib");
+        int boardsPerBucket = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        int bandCount = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42;
+
+        long start = System.nanoTime();
+        new BoardLibraryBuilder(boardsPerBucket, bandCount, threads, seed).build(file);
+        System.out.printf("Wrote %d boards per bucket in %d bands to %s in %.1f s%n", boardsPerBucket, bandCount,
+                file.toAbsolutePath(), (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,99 @@
+package org.macan.minesweeper.library;
+
+import org.macan.minesweeper.common.GameDifficulty;
+import org.macan.minesweeper.common.GameStats;
+import org.macan.minesweeper.common.GridSize;
+import org.macan.minesweeper.game.GameBoard;
+
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * The LibraryBoard class is an immutable entry of a {@link BoardLibrary}: the seed of a board with its ratings.
+ */
+public final class LibraryBoard {
+    private final GridSize gridSize;
+    private final GameDifficulty difficulty;
+    private final long seed;
+    private final int guesses;
+    private final int threeBV;
+    private final int solverSteps;
+
+    LibraryBoard(GridSize gridSize, GameDifficulty difficulty, long seed, int guesses, int threeBV, int solverSteps) {
+        this.gridSize = gridSize;
+        this.difficulty = difficulty;
+        this.seed = seed;
+        this.guesses = guesses;
+        this.threeBV = threeBV;
+        this.solverSteps = solverSteps;
+    }
+
+    /**
+     * Gets the number of mines on boards of a size and difficulty, as the game places them.
+     *
+     * @param gridSize   the size of the board
+     * @param difficulty the difficulty of the board
+     * @return the number of mines
+     */
+    public static int getMineCount(GridSize gridSize, GameDifficulty difficulty) {
+        return (int) (gridSize.getRows() * gridSize.getCols() * difficulty.getMineFactor());
+    }
+
+    /**
+     * Creates the board, with new game statistics. The same entry always produces the same board.
+     *
+     * @return the initialized board
+     */
+    public GameBoard createBoard() {
+        return createBoard(gridSize, difficulty, seed);
+    }
+
+    static GameBoard createBoard(GridSize gridSize, GameDifficulty difficulty, long seed) {
+        GameBoard board = new GameBoard(gridSize.getRows(), gridSize.getCols(), getMineCount(gridSize, difficulty),
+                new HashMap<>(), new HashSet<>(), new GameStats());
+        board.initializeGame(seed);
+        return board;
+    }
+
+    public GridSize getGridSize() {
+        return gridSize;
+    }
+
+    public GameDifficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the number of times the reference solver ran out of single-point deductions after its safe first click
+     * and had to guess.
+     *
+     * @return the number of guesses
+     */
+    public int getGuesses() {
+        return guesses;
+    }
+
+    public int getThreeBV() {
+        return threeBV;
+    }
+
+    /**
+     * Gets the number of move batches the reference single-point solver needed to finish the board, counting its
+     * first click and its guesses.
+     *
+     * @return the number of solver steps
+     */
+    public int getSolverSteps() {
+        return solverSteps;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s, %s | %d guesses | 3BV %d | %d solver steps | seed %d", gridSize, difficulty, guesses,
+                threeBV, solverSteps, seed);
+    }
+}
@@ -0,0 +1,166 @@
+package org.macan.minesweeper.loadtest;
+
+import org.macan.minesweeper.common.GameStats;
+import org.macan.minesweeper.common.LatencyHistogram;
+import org.macan.minesweeper.game.BoardSnapshot;
+import org.macan.minesweeper.game.BoardView;
+import org.macan.minesweeper.game.CellLayout;
+import org.macan.minesweeper.game.GameBoard;
+import org.macan.minesweeper.game.MortonLayout;
+import org.macan.minesweeper.game.RectangleTopology;
+import org.macan.minesweeper.game.RowMajorLayout;
+
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * The LayoutBenchmark class compares the row-major and Morton cell layouts of {@link GameBoard} on square boards
+ * of growing size. For every layout and size it times three operations, each repeated after a warm-up:
+ * initializing a seeded board (placing mines, counting adjacent mines and grouping openings), revealing the
+ * board's largest opening from a fresh state (undone with a snapshot between repetitions), and a rendering pass
+ * reading every cell through the board view in row order. The median of each operation is printed in
+ * milliseconds. Board sizes are limited by the heap, since the board keeps a string key for every mine.
+ */
+public class LayoutBenchmark {
+    private static final double MINE_DENSITY = 0.08;
+    private static final long SEED = 42;
+
+    private final int warmups;
+    private final int iterations;
+    private long checksum;
+
+    /**
+     * Constructor for creating a LayoutBenchmark object.
+     *
+     * @param warmups    the number of untimed repetitions of each operation
+     * @param iterations the number of timed repetitions of each operation
+     */
+    public LayoutBenchmark(int warmups, int iterations) {
+        if (warmups < 0 || iterations < 1) {
+            throw new IllegalArgumentException("Warm-ups must not be negative and iterations must be positive");
+        }
+        this.warmups = warmups;
+        this.iterations = iterations;
+    }
+
+    /**
+     * Measures one layout on one board size.
+     *
+     * @param layout the cell layout
+     * @param side   the number of rows and columns of the board
+     * @return the median initialize, reveal and render times in nanoseconds
+     */
+    public long[] measure(CellLayout layout, int side) {
+        LatencyHistogram initialize = new LatencyHistogram();
+        LatencyHistogram reveal = new LatencyHistogram();
+        LatencyHistogram render = new LatencyHistogram();
+        GameBoard board = null;
+        for (int i = 0; i < warmups + iterations; i++) {
+            long start = System.nanoTime();
+            board = createBoard(layout, side);
+            record(initialize, i, System.nanoTime() - start);
+        }
+        int opening = largestOpeningCell(board);
+        for (int i = 0; i < warmups + iterations; i++) {
+            BoardSnapshot snapshot = board.snapshot();
+            long start = System.nanoTime();
+            board.revealCell(opening / side, opening % side);
+            record(reveal, i, System.nanoTime() - start);
+            checksum += board.getRevealedCount();
+            board.restore(snapshot);
+        }
+        board.revealCell(opening / side, opening % side);
+        BoardView view = board.asView();
+        for (int i = 0; i < warmups + iterations; i++) {
+            long start = System.nanoTime();
+            checksum += renderPass(view);
+            record(render, i, System.nanoTime() - start);
+        }
+        return new long[]{initialize.getPercentile(50), reveal.getPercentile(50), render.getPercentile(50)};
+    }
+
+    private void record(LatencyHistogram histogram, int iteration, long nanos) {
+        if (iteration >= warmups) {
+            histogram.record(nanos);
+        }
+    }
+
+    private static GameBoard createBoard(CellLayout layout, int side) {
+        int mines = (int) ((long) side * side * MINE_DENSITY);
+        GameBoard board = new GameBoard(side, side, mines, new HashMap<>(), new HashSet<>(), new GameStats(),
+                new RectangleTopology(), layout);
+        board.initializeGame(SEED);
+        return board;
+    }
+
+    /**
+     * Gets the sum of the revealed counts and rendered values seen so far, which keeps the JIT from discarding
+     * the measured work.
+     *
+     * @return the checksum
+     */
+    public long getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * Finds a zero cell of the largest opening, so that revealing it floods as much of the board as possible.
+     */
+    private static int largestOpeningCell(GameBoard board) {
+        int rows = board.getGridRows();
+        int cols = board.getGridColumns();
+        int[] sizes = new int[board.getOpeningCount()];
+        for (int index = rows * cols - 1; index >= 0; index--) {
+            int opening = board.getOpeningId(index / cols, index % cols);
+            if (opening != GameBoard.NO_OPENING) {
+                sizes[opening]++;
+            }
+        }
+        int largest = 0;
+        for (int opening = 1; opening < sizes.length; opening++) {
+            if (sizes[opening] > sizes[largest]) {
+                largest = opening;
+            }
+        }
+        for (int index = 0; index < rows * cols; index++) {
+            int row = index / cols;
+            int col = index % cols;
+            if (board.getOpeningId(row, col) == largest && board.getAdjacentMineCount(row, col) == 0) {
+                return index;
+            }
+        }
+        return 0;
+    }
+
+    private static long renderPass(BoardView view) {
+        long sum = 0;
+        for (int row = 0; row < view.getGridRows(); row++) {
+            for (int col = 0; col < view.getGridColumns(); col++) {
+                sum += view.isRevealed(row, col) ? view.getAdjacentMines(row, col) + 1 : 0;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Main method to compare the cell layouts.
+     *
+     * @param args optional arguments: the board sizes in cells, each rounded to a square board, separated by
+     *             commas, and the number of timed iterations
+     */
+    public static void main(String[] args) {
+        String[] sizes = (args.length > 0 ? args[0] : "10000,100000,1000000").split(",");
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        LayoutBenchmark benchmark = new LayoutBenchmark(3, iterations);
+        CellLayout[] layouts = {new RowMajorLayout(), new MortonLayout()};
+        System.out.printf("%-12s %-14s %14s %14s %14s%n", "cells", "layout", "initialize ms", "reveal ms", "render ms");
+        for (String size : sizes) {
+            int side = (int) Math.round(Math.sqrt(Double.parseDouble(size.trim())));
+            for (CellLayout layout : layouts) {
+                long[] medians = benchmark.measure(layout, side);
+                System.out.printf("%-12d %-14s %14.3f %14.3f %14.3f%n", (long) side * side,
+                        layout.getClass().getSimpleName(), medians[0] / 1e6, medians[1] / 1e6, medians[2] / 1e6);
+            }
+        }
+    }
+}
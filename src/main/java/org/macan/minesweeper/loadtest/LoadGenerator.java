@@ -0,0 +1,281 @@
+package org.macan.minesweeper.loadtest;
+
+import org.macan.minesweeper.bot.Player;
+import org.macan.minesweeper.bot.RandomPlayer;
+import org.macan.minesweeper.bot.SinglePointPlayer;
+import org.macan.minesweeper.common.GameDifficulty;
+import org.macan.minesweeper.common.GameResult;
+import org.macan.minesweeper.common.GameStats;
+import org.macan.minesweeper.common.GridSize;
+import org.macan.minesweeper.common.LatencyHistogram;
+import org.macan.minesweeper.game.GameBoard;
+import org.macan.minesweeper.game.MoveBatchResult;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The LoadGenerator class measures how many concurrent games one JVM sustains. It keeps a number of independent
+ * game sessions busy for a fixed duration, each playing seeded boards back to back with a random or solver player,
+ * and reports the move throughput, the latency of applying moves to the engine, the allocation rate of the whole
+ * process and the garbage collection time. The sessions are divided between a number of worker threads, which are virtual threads
+ * when requested and the running JVM supports them, and platform threads otherwise.
+ */
+public class LoadGenerator {
+    private final GridSize gridSize;
+    private final GameDifficulty difficulty;
+    private final int sessions;
+    private final int threads;
+    private final boolean virtualThreads;
+    private final boolean solverMoves;
+    private final long durationNanos;
+    private final long seed;
+
+    /**
+     * Constructor for creating a LoadGenerator object.
+     *
+     * @param gridSize       the size of the boards
+     * @param difficulty     the difficulty of the boards
+     * @param sessions       the number of concurrent game sessions
+     * @param threads        the number of worker threads driving the sessions
+     * @param virtualThreads whether to use virtual threads when the JVM supports them
+     * @param solverMoves    whether moves come from the single-point solver instead of random guesses
+     * @param durationMillis how long to run
+     * @param seed           the seed the boards and players are generated from
+     */
+    public LoadGenerator(GridSize gridSize, GameDifficulty difficulty, int sessions, int threads, boolean virtualThreads,
+                         boolean solverMoves, long durationMillis, long seed) {
+        if (sessions < 1 || threads < 1) {
+            throw new IllegalArgumentException("Sessions and threads must be positive");
+        }
+        this.gridSize = gridSize;
+        this.difficulty = difficulty;
+        this.sessions = sessions;
+        this.threads = Math.min(threads, sessions);
+        this.virtualThreads = virtualThreads;
+        this.solverMoves = solverMoves;
+        this.durationNanos = TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        this.seed = seed;
+    }
+
+    /**
+     * Runs the load test.
+     *
+     * @return the report of the run
+     * @throws InterruptedException if interrupted while waiting for the workers to finish
+     */
+    public LoadReport run() throws InterruptedException {
+        ExecutorService executor = virtualThreads ? newVirtualThreadExecutor() : null;
+        boolean usedVirtualThreads = executor != null;
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(threads);
+        }
+        Random random = new Random(seed);
+        List<List<Session>> assignments = new ArrayList<>();
+        for (int worker = 0; worker < threads; worker++) {
+            assignments.add(new ArrayList<>());
+        }
+        for (int session = 0; session < sessions; session++) {
+            assignments.get(session % threads).add(new Session(random.nextLong()));
+        }
+
+        long gcCountBefore = 0;
+        long gcTimeBefore = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCountBefore += Math.max(0, collector.getCollectionCount());
+            gcTimeBefore += Math.max(0, collector.getCollectionTime());
+        }
+        Map<Long, Long> allocatedBefore = allocatedBytesByThread();
+        long start = System.nanoTime();
+        long deadline = start + durationNanos;
+        List<Future<WorkerResult>> futures = new ArrayList<>();
+        try {
+            for (List<Session> assigned : assignments) {
+                futures.add(executor.submit(() -> drive(assigned, deadline)));
+            }
+            LatencyHistogram latencies = new LatencyHistogram();
+            long moves = 0;
+            long games = 0;
+            for (Future<WorkerResult> future : futures) {
+                WorkerResult result;
+                try {
+                    result = future.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Load test worker failed", e.getCause());
+                }
+                latencies.merge(result.latencies);
+                moves += result.moves;
+                games += result.games;
+            }
+            long elapsedNanos = System.nanoTime() - start;
+            long allocatedBytes = allocatedSince(allocatedBefore);
+            long gcCount = -gcCountBefore;
+            long gcTimeMillis = -gcTimeBefore;
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                gcCount += Math.max(0, collector.getCollectionCount());
+                gcTimeMillis += Math.max(0, collector.getCollectionTime());
+            }
+            return new LoadReport(gridSize, difficulty, sessions, threads, usedVirtualThreads, solverMoves, seed,
+                    elapsedNanos, moves, games, latencies, allocatedBytes, gcCount, gcTimeMillis);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays the sessions of one worker in turns, one move batch per session, until the deadline.
+     *
+     * @param assigned the sessions of the worker
+     * @param deadline the {@link System#nanoTime()} at which to stop
+     * @return the measurements of the worker
+     */
+    private WorkerResult drive(List<Session> assigned, long deadline) {
+        WorkerResult result = new WorkerResult();
+        while (System.nanoTime() < deadline) {
+            for (Session session : assigned) {
+                if (session.board == null) {
+                    session.startGame();
+                }
+                int[] moves = session.player.nextMoves(session.board.asView());
+                long moveStart = System.nanoTime();
+                MoveBatchResult moveResult = session.board.applyMoves(moves);
+                result.latencies.record(System.nanoTime() - moveStart);
+                result.moves += moveResult.getMovesApplied();
+                if (moveResult.getMovesApplied() == 0 || session.stats.getGameResult() != GameResult.IN_PROGRESS) {
+                    session.board = null;
+                    result.games++;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of bytes allocated so far by every live platform thread, if the JVM can tell. Virtual
+     * threads allocate on the platform threads carrying them, so the counts cover the workers in both modes.
+     *
+     * @return the allocated bytes by thread id, or null if the JVM cannot measure them
+     */
+    private static Map<Long, Long> allocatedBytesByThread() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        if (!allocationBean.isThreadAllocatedMemorySupported() || !allocationBean.isThreadAllocatedMemoryEnabled()) {
+            return null;
+        }
+        long[] threadIds = allocationBean.getAllThreadIds();
+        long[] allocated = allocationBean.getThreadAllocatedBytes(threadIds);
+        Map<Long, Long> allocatedByThread = new HashMap<>();
+        for (int i = 0; i < threadIds.length; i++) {
+            if (allocated[i] >= 0) {
+                allocatedByThread.put(threadIds[i], allocated[i]);
+            }
+        }
+        return allocatedByThread;
+    }
+
+    /**
+     * Gets the number of bytes the process allocated since earlier per-thread counts were taken. Threads started
+     * since then count in full; the allocations of threads that have ended since are no longer known.
+     *
+     * @param before the earlier counts, or null if the JVM cannot measure them
+     * @return the allocated bytes, or -1 if the JVM cannot measure them
+     */
+    private static long allocatedSince(Map<Long, Long> before) {
+        Map<Long, Long> after = allocatedBytesByThread();
+        if (before == null || after == null) {
+            return -1;
+        }
+        long allocated = 0;
+        for (Map.Entry<Long, Long> thread : after.entrySet()) {
+            allocated += thread.getValue() - before.getOrDefault(thread.getKey(), 0L);
+        }
+        return allocated;
+    }
+
+    /**
+     * Creates a virtual-thread-per-task executor. It is looked up reflectively because the project targets Java 8.
+     *
+     * @return the executor, or null if the JVM has no virtual threads
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * One game session, playing a new board whenever its game ends.
+     */
+    private final class Session {
+        private final Random random;
+        private GameBoard board;
+        private GameStats stats;
+        private Player player;
+
+        private Session(long sessionSeed) {
+            this.random = new Random(sessionSeed);
+        }
+
+        private void startGame() {
+            int mines = (int) (gridSize.getRows() * gridSize.getCols() * difficulty.getMineFactor());
+            stats = new GameStats();
+            board = new GameBoard(gridSize.getRows(), gridSize.getCols(), mines, new HashMap<>(), new HashSet<>(), stats);
+            board.initializeGame(random.nextLong());
+            player = solverMoves ? new SinglePointPlayer() : new RandomPlayer();
+            player.startGame(board.asView(), random.nextLong());
+        }
+    }
+
+    /**
+     * The measurements of one worker.
+     */
+    private static final class WorkerResult {
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private long moves;
+        private long games;
+    }
+
+    /**
+     * Main method to run a load test and write its report.
+     *
+     * @param args optional arguments: sessions, threads, {@code platform} or {@code virtual},
+     *             {@code random} or {@code solver}, duration in seconds and report file.
+     * @throws InterruptedException if interrupted while the load test runs
+     * @throws IOException          if the report cannot be written
+     */
+    public static void main(String[] args) throws InterruptedException, IOException {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        boolean virtual = args.length > 2 && "virtual".equalsIgnoreCase(args[2]);
+        boolean solver = args.length > 3 && "solver".equalsIgnoreCase(args[3]);
+        long seconds = args.length > 4 ? Long.parseLong(args[4]) : 30;
+        Path reportFile = Paths.get(args.length > 5 ? args[5] : "loadtest-" + System.currentTimeMillis() + ".txt");
+
+        LoadGenerator generator = new LoadGenerator(GridSize.LARGE, GameDifficulty.EASY, sessions, threads, virtual, solver,
+                TimeUnit.SECONDS.toMillis(seconds), 42);
+        LoadReport report = generator.run();
+        report.writeTo(reportFile);
+        System.out.print(report);
+        System.out.println("Report written to " + reportFile.toAbsolutePath());
+    }
+}
@@ -0,0 +1,132 @@
+package org.macan.minesweeper.loadtest;
+
+import org.macan.minesweeper.common.GameDifficulty;
+import org.macan.minesweeper.common.GridSize;
+import org.macan.minesweeper.common.LatencyHistogram;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * The LoadReport class holds the configuration and measurements of one {@link LoadGenerator} run.
+ * It is written as a fixed list of {@code key=value} lines so that reports of different runs can be diffed.
+ */
+public class LoadReport {
+    private final GridSize gridSize;
+    private final GameDifficulty difficulty;
+    private final int sessions;
+    private final int threads;
+    private final boolean virtualThreads;
+    private final boolean solverMoves;
+    private final long seed;
+    private final long elapsedNanos;
+    private final long moves;
+    private final long games;
+    private final LatencyHistogram moveLatencies;
+    private final long allocatedBytes;
+    private final long gcCount;
+    private final long gcTimeMillis;
+
+    LoadReport(GridSize gridSize, GameDifficulty difficulty, int sessions, int threads, boolean virtualThreads,
+               boolean solverMoves, long seed, long elapsedNanos, long moves, long games, LatencyHistogram moveLatencies,
+               long allocatedBytes, long gcCount, long gcTimeMillis) {
+        this.gridSize = gridSize;
+        this.difficulty = difficulty;
+        this.sessions = sessions;
+        this.threads = threads;
+        this.virtualThreads = virtualThreads;
+        this.solverMoves = solverMoves;
+        this.seed = seed;
+        this.elapsedNanos = elapsedNanos;
+        this.moves = moves;
+        this.games = games;
+        this.moveLatencies = moveLatencies;
+        this.allocatedBytes = allocatedBytes;
+        this.gcCount = gcCount;
+        this.gcTimeMillis = gcTimeMillis;
+    }
+
+    public long getMoves() {
+        return moves;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public LatencyHistogram getMoveLatencies() {
+        return moveLatencies;
+    }
+
+    /**
+     * Gets the number of moves applied per second.
+     *
+     * @return the move throughput
+     */
+    public double getMovesPerSecond() {
+        return moves / (elapsedNanos / 1e9);
+    }
+
+    /**
+     * Gets the number of bytes the process allocated per second while the workers ran.
+     *
+     * @return the allocation rate, or -1 if the JVM cannot measure thread allocations
+     */
+    public double getAllocationBytesPerSecond() {
+        return allocatedBytes < 0 ? -1 : allocatedBytes / (elapsedNanos / 1e9);
+    }
+
+    public long getGcTimeMillis() {
+        return gcTimeMillis;
+    }
+
+    /**
+     * Writes the report to a file, replacing it if it exists.
+     *
+     * @param file the report file
+     * @throws IOException if the file cannot be written
+     */
+    public void writeTo(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.write(file, toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        line(report, "java.version", System.getProperty("java.version"));
+        line(report, "processors", Runtime.getRuntime().availableProcessors());
+        line(report, "grid", gridSize.getRows() + "x" + gridSize.getCols());
+        line(report, "difficulty", difficulty.name());
+        line(report, "sessions", sessions);
+        line(report, "threads", threads);
+        line(report, "thread.kind", virtualThreads ? "virtual" : "platform");
+        line(report, "moves.source", solverMoves ? "solver" : "random");
+        line(report, "seed", seed);
+        line(report, "elapsed.seconds", format(elapsedNanos / 1e9));
+        line(report, "moves", moves);
+        line(report, "games", games);
+        line(report, "moves.per.second", format(getMovesPerSecond()));
+        line(report, "latency.p50.micros", format(moveLatencies.getPercentile(50) / 1e3));
+        line(report, "latency.p99.micros", format(moveLatencies.getPercentile(99) / 1e3));
+        line(report, "latency.p999.micros", format(moveLatencies.getPercentile(99.9) / 1e3));
+        line(report, "latency.max.micros", format(moveLatencies.getMax() / 1e3));
+        line(report, "allocation.mb.per.second", allocatedBytes < 0 ? "unavailable" : format(getAllocationBytesPerSecond() / (1 << 20)));
+        line(report, "gc.count", gcCount);
+        line(report, "gc.time.millis", gcTimeMillis);
+        return report.toString();
+    }
+
+    private static void line(StringBuilder report, String key, Object value) {
+        report.append(key).append('=').append(value).append(System.lineSeparator());
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
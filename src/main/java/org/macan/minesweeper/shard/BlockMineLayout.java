@@ -0,0 +1,153 @@
+package org.macan.minesweeper.shard;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+/**
+ * The BlockMineLayout class places the mines of a sharded board so that any rectangle of the board can be
+ * generated from the seed alone, without materialising the rest of the board.
+ * The board is split recursively along its longer side into blocks of at most {@link #LEAF_CELLS} cells. Every
+ * split divides the mines of a block between its two halves with a draw seeded by the block, and the mines of a
+ * leaf block are placed with Floyd's sampling algorithm, so the layout always has exactly the requested number of
+ * mines. Splits of up to 256 mines are exact hypergeometric draws, so boards with at most that many mines are
+ * uniformly random; larger splits use a normal approximation, which makes larger boards only approximately
+ * uniform. Generating a region only visits the blocks overlapping it, which keeps the time and memory of a shard
+ * worker proportional to its own shard.
+ */
+final class BlockMineLayout {
+    /**
+     * Largest number of cells of a block whose mines are placed directly.
+     */
+    static final int LEAF_CELLS = 1 << 12;
+
+    private static final int EXACT_SPLIT_MINES = 256;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final int rows;
+    private final int columns;
+    private final int mines;
+    private final long seed;
+
+    /**
+     * Constructor for creating a BlockMineLayout object.
+     *
+     * @param rows    the number of rows in the grid
+     * @param columns the number of columns in the grid
+     * @param mines   the number of mines on the board
+     * @param seed    the seed of the mine layout
+     * @throws IllegalArgumentException if the dimensions are not positive or the mines do not fit on the board
+     */
+    BlockMineLayout(int rows, int columns, int mines, long seed) {
+        if (rows < 1 || columns < 1 || mines < 0 || mines > (long) rows * columns) {
+            throw new IllegalArgumentException("Invalid board dimensions " + rows + "x" + columns + " with " + mines + " mines");
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.mines = mines;
+        this.seed = seed;
+    }
+
+    /**
+     * Generates the mines inside a rectangle of the board.
+     *
+     * @param rowStart the first row of the rectangle
+     * @param rowEnd   the row after the last row of the rectangle
+     * @param colStart the first column of the rectangle
+     * @param colEnd   the column after the last column of the rectangle
+     * @return the mines of the rectangle, each stored as {@code (row - rowStart) * (colEnd - colStart) + col - colStart}
+     * @throws IllegalArgumentException if the rectangle is empty, outside the board or has too many cells
+     */
+    BitSet generate(int rowStart, int rowEnd, int colStart, int colEnd) {
+        if (rowStart < 0 || rowEnd > rows || rowStart >= rowEnd || colStart < 0 || colEnd > columns || colStart >= colEnd) {
+            throw new IllegalArgumentException("Invalid region " + rowStart + ".." + rowEnd + " x " + colStart + ".." + colEnd);
+        }
+        if ((long) (rowEnd - rowStart) * (colEnd - colStart) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Region has too many cells");
+        }
+        Region region = new Region(rowStart, rowEnd, colStart, colEnd);
+        fill(0, rows, 0, columns, mines, 1, region);
+        return region.mines;
+    }
+
+    private void fill(int r0, int r1, int c0, int c1, long blockMines, long blockId, Region region) {
+        if (blockMines == 0 || r1 <= region.rowStart || r0 >= region.rowEnd || c1 <= region.colStart || c0 >= region.colEnd) {
+            return;
+        }
+        long cells = (long) (r1 - r0) * (c1 - c0);
+        SplittableRandom random = new SplittableRandom(seed + blockId * GOLDEN_GAMMA);
+        if (cells <= LEAF_CELLS) {
+            placeLeaf(r0, r1, c0, c1, (int) blockMines, random, region);
+            return;
+        }
+        if (r1 - r0 >= c1 - c0) {
+            int middle = (r0 + r1) >>> 1;
+            long firstMines = split(blockMines, (long) (middle - r0) * (c1 - c0), cells, random);
+            fill(r0, middle, c0, c1, firstMines, 2 * blockId, region);
+            fill(middle, r1, c0, c1, blockMines - firstMines, 2 * blockId + 1, region);
+        } else {
+            int middle = (c0 + c1) >>> 1;
+            long firstMines = split(blockMines, (long) (r1 - r0) * (middle - c0), cells, random);
+            fill(r0, r1, c0, middle, firstMines, 2 * blockId, region);
+            fill(r0, r1, middle, c1, blockMines - firstMines, 2 * blockId + 1, region);
+        }
+    }
+
+    /**
+     * Draws how many of a block's mines fall into its first part. Small counts are drawn exactly mine by mine;
+     * larger ones use the normal approximation of the hypergeometric distribution, clamped to the possible range.
+     */
+    private static long split(long blockMines, long firstCells, long cells, SplittableRandom random) {
+        long low = Math.max(0, blockMines - (cells - firstCells));
+        long high = Math.min(blockMines, firstCells);
+        if (blockMines <= EXACT_SPLIT_MINES) {
+            long first = 0;
+            for (long placed = 0; placed < blockMines; placed++) {
+                if (random.nextDouble() * (cells - placed) < firstCells - first) {
+                    first++;
+                }
+            }
+            return first;
+        }
+        double share = (double) firstCells / cells;
+        double variance = blockMines * share * (1 - share) * (cells - blockMines) / (cells - 1);
+        double gaussian = Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+        long first = Math.round(blockMines * share + Math.sqrt(variance) * gaussian);
+        return Math.max(low, Math.min(high, first));
+    }
+
+    private static void placeLeaf(int r0, int r1, int c0, int c1, int blockMines, SplittableRandom random, Region region) {
+        int width = c1 - c0;
+        int cells = (r1 - r0) * width;
+        BitSet chosen = new BitSet(cells);
+        for (int j = cells - blockMines; j < cells; j++) {
+            int candidate = random.nextInt(j + 1);
+            chosen.set(chosen.get(candidate) ? j : candidate);
+        }
+        int regionWidth = region.colEnd - region.colStart;
+        for (int cell = chosen.nextSetBit(0); cell >= 0; cell = chosen.nextSetBit(cell + 1)) {
+            int row = r0 + cell / width;
+            int col = c0 + cell % width;
+            if (row >= region.rowStart && row < region.rowEnd && col >= region.colStart && col < region.colEnd) {
+                region.mines.set((row - region.rowStart) * regionWidth + col - region.colStart);
+            }
+        }
+    }
+
+    /**
+     * The rectangle being generated and the mines found in it so far.
+     */
+    private static final class Region {
+        private final int rowStart;
+        private final int rowEnd;
+        private final int colStart;
+        private final int colEnd;
+        private final BitSet mines = new BitSet();
+
+        private Region(int rowStart, int rowEnd, int colStart, int colEnd) {
+            this.rowStart = rowStart;
+            this.rowEnd = rowEnd;
+            this.colStart = colStart;
+            this.colEnd = colEnd;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.macan.minesweeper.shard;
+
+/**
+ * The ShardProtocol class defines the commands exchanged between a {@link ShardedBoard} coordinator and its
+ * {@link ShardWorker} processes over local sockets, and the cell states reported by workers.
+ * All coordinates on the wire are global board coordinates.
+ */
+final class ShardProtocol {
+    /**
+     * INIT rows cols mines seed rowStart rowEnd colStart colEnd; no response.
+     */
+    static final byte INIT = 1;
+    /**
+     * REVEAL count (row col)*; responds with revealedCount mineHit handoffCount (row col)*.
+     */
+    static final byte REVEAL = 2;
+    /**
+     * STATES rowStart rowEnd colStart colEnd, a rectangle inside the shard; responds with one state byte per cell
+     * of the rectangle in row-major order.
+     */
+    static final byte STATES = 3;
+    /**
+     * SHUTDOWN; no response, the worker exits.
+     */
+    static final byte SHUTDOWN = 4;
+
+    /**
+     * State of a cell that has not been revealed. Revealed cells report their adjacent mine count,
+     * or {@link #MINE} for a revealed mine.
+     */
+    static final byte HIDDEN = -1;
+    static final byte MINE = 9;
+
+    /**
+     * Line printed by a worker on its standard output once it listens, followed by its port.
+     */
+    static final String READY = "SHARD-PORT ";
+
+    private ShardProtocol() {
+    }
+}
@@ -0,0 +1,199 @@
+package org.macan.minesweeper.shard;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The ShardWorker class owns one rectangular shard of a huge board and runs in its own JVM.
+ * It listens on a local socket, generates the seeded mine layout of its shard and the cells bordering it to
+ * compute the adjacency of its own cells, and reveals cells on request. Memory is proportional to the shard, never
+ * to the whole board. Flood fills stop at the shard edge: neighbours outside the shard are returned
+ * to the coordinator as a batch of border cells to hand off to the shards owning them.
+ */
+public class ShardWorker {
+    private int rows;
+    private int columns;
+    private int rowStart;
+    private int colStart;
+    private int height;
+    private int width;
+    private byte[] adjacentMines;
+    private boolean[] revealed;
+    private int[] queue;
+
+    /**
+     * Main method to start a worker. Prints the port it listens on, then serves a single coordinator connection.
+     *
+     * @param args command-line arguments (not used).
+     * @throws IOException if the socket fails
+     */
+    public static void main(String[] args) throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            System.out.println(ShardProtocol.READY + serverSocket.getLocalPort());
+            System.out.flush();
+            try (Socket socket = serverSocket.accept()) {
+                socket.setTcpNoDelay(true);
+                new ShardWorker().serve(new DataInputStream(new BufferedInputStream(socket.getInputStream())),
+                        new DataOutputStream(new BufferedOutputStream(socket.getOutputStream())));
+            }
+        }
+    }
+
+    private void serve(DataInputStream in, DataOutputStream out) throws IOException {
+        while (true) {
+            byte command = in.readByte();
+            switch (command) {
+                case ShardProtocol.INIT:
+                    initialize(in.readInt(), in.readInt(), in.readInt(), in.readLong(), in.readInt(), in.readInt(), in.readInt(), in.readInt());
+                    break;
+                case ShardProtocol.REVEAL:
+                    reveal(in, out);
+                    out.flush();
+                    break;
+                case ShardProtocol.STATES:
+                    writeStates(in.readInt(), in.readInt(), in.readInt(), in.readInt(), out);
+                    out.flush();
+                    break;
+                case ShardProtocol.SHUTDOWN:
+                    return;
+                default:
+                    throw new IOException("Unknown shard command " + command);
+            }
+        }
+    }
+
+    private void initialize(int rows, int columns, int mines, long seed, int rowStart, int rowEnd, int colStart, int colEnd) {
+        this.rows = rows;
+        this.columns = columns;
+        this.rowStart = rowStart;
+        this.colStart = colStart;
+        this.height = rowEnd - rowStart;
+        this.width = colEnd - colStart;
+        this.adjacentMines = new byte[height * width];
+        this.revealed = new boolean[height * width];
+        this.queue = new int[16];
+
+        int top = Math.max(0, rowStart - 1);
+        int left = Math.max(0, colStart - 1);
+        int marginWidth = Math.min(columns, colEnd + 1) - left;
+        BitSet layout = new BlockMineLayout(rows, columns, mines, seed)
+                .generate(top, Math.min(rows, rowEnd + 1), left, left + marginWidth);
+        for (int row = rowStart; row < rowEnd; row++) {
+            for (int col = colStart; col < colEnd; col++) {
+                int count = 0;
+                if (layout.get((row - top) * marginWidth + col - left)) {
+                    count = ShardProtocol.MINE;
+                } else {
+                    for (int i = Math.max(0, row - 1); i <= Math.min(rows - 1, row + 1); i++) {
+                        for (int j = Math.max(0, col - 1); j <= Math.min(columns - 1, col + 1); j++) {
+                            if (layout.get((i - top) * marginWidth + j - left)) {
+                                count++;
+                            }
+                        }
+                    }
+                }
+                adjacentMines[localIndex(row, col)] = (byte) count;
+            }
+        }
+    }
+
+    /**
+     * Reveals a batch of cells, flooding through zero cells inside the shard.
+     */
+    private void reveal(DataInputStream in, DataOutputStream out) throws IOException {
+        int count = in.readInt();
+        int revealedCount = 0;
+        boolean mineHit = false;
+        BitSet handoffSeen = new BitSet();
+        int[] handoff = new int[16];
+        int handoffCount = 0;
+
+        for (int n = 0; n < count; n++) {
+            int local = localIndex(in.readInt(), in.readInt());
+            if (revealed[local]) {
+                continue;
+            }
+            revealed[local] = true;
+            revealedCount++;
+            if (adjacentMines[local] == ShardProtocol.MINE) {
+                mineHit = true;
+                continue;
+            }
+            if (adjacentMines[local] != 0) {
+                continue;
+            }
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = local;
+            while (head < tail) {
+                int index = queue[head++];
+                int row = rowStart + index / width;
+                int col = colStart + index % width;
+                for (int i = row - 1; i <= row + 1; i++) {
+                    for (int j = col - 1; j <= col + 1; j++) {
+                        if (i < 0 || i >= rows || j < 0 || j >= columns || (i == row && j == col)) {
+                            continue;
+                        }
+                        if (i < rowStart || i >= rowStart + height || j < colStart || j >= colStart + width) {
+                            int border = (i - rowStart + 1) * (width + 2) + j - colStart + 1;
+                            if (!handoffSeen.get(border)) {
+                                handoffSeen.set(border);
+                                if (2 * handoffCount + 2 > handoff.length) {
+                                    handoff = Arrays.copyOf(handoff, handoff.length * 2);
+                                }
+                                handoff[2 * handoffCount] = i;
+                                handoff[2 * handoffCount + 1] = j;
+                                handoffCount++;
+                            }
+                            continue;
+                        }
+                        int neighbour = localIndex(i, j);
+                        if (!revealed[neighbour]) {
+                            revealed[neighbour] = true;
+                            revealedCount++;
+                            if (adjacentMines[neighbour] == 0) {
+                                if (tail == queue.length) {
+                                    queue = Arrays.copyOf(queue, queue.length * 2);
+                                }
+                                queue[tail++] = neighbour;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        out.writeInt(revealedCount);
+        out.writeBoolean(mineHit);
+        out.writeInt(handoffCount);
+        for (int k = 0; k < 2 * handoffCount; k++) {
+            out.writeInt(handoff[k]);
+        }
+    }
+
+    /**
+     * Writes the states of the cells of a rectangle, which must lie inside the shard, in row-major order.
+     */
+    private void writeStates(int fromRow, int toRow, int fromCol, int toCol, DataOutputStream out) throws IOException {
+        byte[] states = new byte[toCol - fromCol];
+        for (int row = fromRow; row < toRow; row++) {
+            for (int col = fromCol; col < toCol; col++) {
+                int local = localIndex(row, col);
+                states[col - fromCol] = revealed[local] ? adjacentMines[local] : ShardProtocol.HIDDEN;
+            }
+            out.write(states);
+        }
+    }
+
+    private int localIndex(int row, int col) {
+        return (row - rowStart) * width + (col - colStart);
+    }
+}
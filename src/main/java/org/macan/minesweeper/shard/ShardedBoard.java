@@ -0,0 +1,310 @@
+package org.macan.minesweeper.shard;
+
+import org.macan.minesweeper.common.GameResult;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The ShardedBoard class coordinates a seeded board split into a grid of rectangular shards, each owned by a
+ * {@link ShardWorker} running in a separate local JVM and reached over a loopback socket.
+ * Moves are routed to the shard owning the cell. A flood fill that reaches a shard edge comes back as a batch of
+ * border cells, which are handed to the neighbouring shards in the next round until no shard has work left.
+ * Every round sends all batches before reading any reply, so the shards flood concurrently.
+ * Mines are placed by a {@link BlockMineLayout}, which lets every worker generate its own shard from the seed,
+ * so neither the workers nor the coordinator ever hold state for the whole board.
+ * Only the classic rectangle topology is supported.
+ */
+public class ShardedBoard implements Closeable {
+    private static final int MAX_SHARD_CELLS = Integer.MAX_VALUE - 8;
+
+    private final int rows;
+    private final int columns;
+    private final int mines;
+    private final int[] rowBounds;
+    private final int[] colBounds;
+    private final Shard[] shards;
+    private long revealedCount;
+    private GameResult gameResult = GameResult.IN_PROGRESS;
+
+    /**
+     * Constructor for creating a ShardedBoard object. Starts one worker process per shard and initializes it.
+     *
+     * @param rows        the number of rows in the grid
+     * @param columns     the number of columns in the grid
+     * @param mines       the number of mines on the board
+     * @param seed        the seed of the mine layout
+     * @param shardRows   the number of shards along the rows
+     * @param shardCols   the number of shards along the columns
+     * @throws IOException              if a worker cannot be started or reached
+     * @throws IllegalArgumentException if the mines do not fit on the board or a shard has too many cells
+     */
+    public ShardedBoard(int rows, int columns, int mines, long seed, int shardRows, int shardCols) throws IOException {
+        if (mines < 0 || mines > (long) rows * columns) {
+            throw new IllegalArgumentException("Cannot place " + mines + " mines on " + rows + "x" + columns + " cells");
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.mines = mines;
+        this.rowBounds = split(rows, shardRows);
+        this.colBounds = split(columns, shardCols);
+        long shardHeight = (rows + shardRows - 1) / shardRows;
+        long shardWidth = (columns + shardCols - 1) / shardCols;
+        if ((shardHeight + 2) * (shardWidth + 2) > MAX_SHARD_CELLS) {
+            throw new IllegalArgumentException("Shards of " + shardHeight + "x" + shardWidth + " cells are too large");
+        }
+        this.shards = new Shard[shardRows * shardCols];
+        try {
+            for (int i = 0; i < shardRows; i++) {
+                for (int j = 0; j < shardCols; j++) {
+                    Shard shard = Shard.start(rowBounds[i], rowBounds[i + 1], colBounds[j], colBounds[j + 1]);
+                    shards[i * shardCols + j] = shard;
+                    shard.out.writeByte(ShardProtocol.INIT);
+                    shard.out.writeInt(rows);
+                    shard.out.writeInt(columns);
+                    shard.out.writeInt(mines);
+                    shard.out.writeLong(seed);
+                    shard.out.writeInt(shard.rowStart);
+                    shard.out.writeInt(shard.rowEnd);
+                    shard.out.writeInt(shard.colStart);
+                    shard.out.writeInt(shard.colEnd);
+                    shard.out.flush();
+                }
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reveals a cell, following the flood fill across shard borders until it is complete.
+     *
+     * @param row the row index of the cell to reveal
+     * @param col the column index of the cell to reveal
+     * @throws IOException if a worker cannot be reached
+     */
+    public void revealCell(int row, int col) throws IOException {
+        if (gameResult != GameResult.IN_PROGRESS || row < 0 || row >= rows || col < 0 || col >= columns) {
+            return;
+        }
+        shardOf(row, col).pending(row, col);
+        boolean mineHit = false;
+        while (true) {
+            boolean sent = false;
+            for (Shard shard : shards) {
+                sent |= shard.sendPending();
+            }
+            if (!sent) {
+                break;
+            }
+            for (Shard shard : shards) {
+                if (!shard.awaitingReply) {
+                    continue;
+                }
+                shard.awaitingReply = false;
+                revealedCount += shard.in.readInt();
+                mineHit |= shard.in.readBoolean();
+                int handoffCount = shard.in.readInt();
+                for (int k = 0; k < handoffCount; k++) {
+                    int r = shard.in.readInt();
+                    int c = shard.in.readInt();
+                    shardOf(r, c).pending(r, c);
+                }
+            }
+        }
+        if (mineHit) {
+            gameResult = GameResult.LOST;
+        } else if (revealedCount == (long) rows * columns - mines) {
+            gameResult = GameResult.WON;
+        }
+    }
+
+    /**
+     * Gathers the state of the cells of a rectangle from the shards overlapping it.
+     *
+     * @param rowStart the first row of the rectangle
+     * @param rowEnd   the row after the last row of the rectangle
+     * @param colStart the first column of the rectangle
+     * @param colEnd   the column after the last column of the rectangle
+     * @return one state per cell of the rectangle in row-major order: -1 for hidden cells, 9 for a revealed mine,
+     * otherwise the adjacent mine count of the revealed cell
+     * @throws IOException              if a worker cannot be reached
+     * @throws IllegalArgumentException if the rectangle is empty, outside the board or has too many cells
+     */
+    public byte[] getCellStates(int rowStart, int rowEnd, int colStart, int colEnd) throws IOException {
+        if (rowStart < 0 || rowEnd > rows || rowStart >= rowEnd || colStart < 0 || colEnd > columns || colStart >= colEnd) {
+            throw new IllegalArgumentException("Invalid region " + rowStart + ".." + rowEnd + " x " + colStart + ".." + colEnd);
+        }
+        int width = colEnd - colStart;
+        if ((long) (rowEnd - rowStart) * width > MAX_SHARD_CELLS) {
+            throw new IllegalArgumentException("Region has too many cells");
+        }
+        byte[] states = new byte[(rowEnd - rowStart) * width];
+        for (Shard shard : shards) {
+            if (shard.overlaps(rowStart, rowEnd, colStart, colEnd)) {
+                shard.out.writeByte(ShardProtocol.STATES);
+                shard.out.writeInt(Math.max(rowStart, shard.rowStart));
+                shard.out.writeInt(Math.min(rowEnd, shard.rowEnd));
+                shard.out.writeInt(Math.max(colStart, shard.colStart));
+                shard.out.writeInt(Math.min(colEnd, shard.colEnd));
+                shard.out.flush();
+            }
+        }
+        for (Shard shard : shards) {
+            if (shard.overlaps(rowStart, rowEnd, colStart, colEnd)) {
+                int fromCol = Math.max(colStart, shard.colStart);
+                int toCol = Math.min(colEnd, shard.colEnd);
+                for (int row = Math.max(rowStart, shard.rowStart); row < Math.min(rowEnd, shard.rowEnd); row++) {
+                    shard.in.readFully(states, (row - rowStart) * width + fromCol - colStart, toCol - fromCol);
+                }
+            }
+        }
+        return states;
+    }
+
+    public long getRevealedCount() {
+        return revealedCount;
+    }
+
+    public GameResult getGameResult() {
+        return gameResult;
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Shuts all workers down.
+     */
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            if (shard != null) {
+                shard.close();
+            }
+        }
+    }
+
+    private Shard shardOf(int row, int col) {
+        int i = Arrays.binarySearch(rowBounds, row);
+        int j = Arrays.binarySearch(colBounds, col);
+        i = i >= 0 ? i : -i - 2;
+        j = j >= 0 ? j : -j - 2;
+        return shards[i * (colBounds.length - 1) + j];
+    }
+
+    private static int[] split(int size, int parts) {
+        if (parts < 1 || parts > size) {
+            throw new IllegalArgumentException("Cannot split " + size + " cells into " + parts + " shards");
+        }
+        int[] bounds = new int[parts + 1];
+        for (int part = 0; part <= parts; part++) {
+            bounds[part] = (int) ((long) size * part / parts);
+        }
+        return bounds;
+    }
+
+    /**
+     * The coordinator's side of one worker: its process, connection and pending batch of cells.
+     */
+    private static final class Shard {
+        private final Process process;
+        private final Socket socket;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+        private final int rowStart;
+        private final int rowEnd;
+        private final int colStart;
+        private final int colEnd;
+        private int[] pendingCells = new int[16];
+        private int pendingCount;
+        private boolean awaitingReply;
+
+        private Shard(Process process, Socket socket, int rowStart, int rowEnd, int colStart, int colEnd) throws IOException {
+            this.process = process;
+            this.socket = socket;
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            this.rowStart = rowStart;
+            this.rowEnd = rowEnd;
+            this.colStart = colStart;
+            this.colEnd = colEnd;
+        }
+
+        private static Shard start(int rowStart, int rowEnd, int colStart, int colEnd) throws IOException {
+            String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+            Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), ShardWorker.class.getName())
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+            try {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+                String line = reader.readLine();
+                if (line == null || !line.startsWith(ShardProtocol.READY)) {
+                    throw new IOException("Shard worker failed to start: " + line);
+                }
+                int port = Integer.parseInt(line.substring(ShardProtocol.READY.length()).trim());
+                Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+                socket.setTcpNoDelay(true);
+                return new Shard(process, socket, rowStart, rowEnd, colStart, colEnd);
+            } catch (IOException | RuntimeException e) {
+                process.destroyForcibly();
+                throw e;
+            }
+        }
+
+        private boolean overlaps(int fromRow, int toRow, int fromCol, int toCol) {
+            return rowStart < toRow && fromRow < rowEnd && colStart < toCol && fromCol < colEnd;
+        }
+
+        private void pending(int row, int col) {
+            if (2 * pendingCount + 2 > pendingCells.length) {
+                pendingCells = Arrays.copyOf(pendingCells, pendingCells.length * 2);
+            }
+            pendingCells[2 * pendingCount] = row;
+            pendingCells[2 * pendingCount + 1] = col;
+            pendingCount++;
+        }
+
+        private boolean sendPending() throws IOException {
+            if (pendingCount == 0) {
+                return false;
+            }
+            out.writeByte(ShardProtocol.REVEAL);
+            out.writeInt(pendingCount);
+            for (int k = 0; k < 2 * pendingCount; k++) {
+                out.writeInt(pendingCells[k]);
+            }
+            out.flush();
+            pendingCount = 0;
+            awaitingReply = true;
+            return true;
+        }
+
+        private void close() {
+            try {
+                out.writeByte(ShardProtocol.SHUTDOWN);
+                out.flush();
+                socket.close();
+                process.waitFor();
+            } catch (IOException e) {
+                process.destroyForcibly();
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
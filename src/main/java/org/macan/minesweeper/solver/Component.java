@@ -0,0 +1,30 @@
+package org.macan.minesweeper.solver;
+
+/**
+ * The Component class is an independent part of the frontier: hidden cells bordering revealed numbers, linked by
+ * the numbers they share. Its mine arrangements do not depend on any cell outside it.
+ */
+final class Component {
+    final int[] cells;
+    final int[][] constraints;
+    final int[] needs;
+    final int[] origins;
+    final int columns;
+
+    /**
+     * Constructor for creating a Component object.
+     *
+     * @param cells       the cell indices of the hidden cells
+     * @param constraints for every number, the positions in {@code cells} of its hidden neighbours
+     * @param needs       for every number, the mines still missing around it
+     * @param origins     for every number, the cell index of the number itself
+     * @param columns     the number of columns of the board the cell indices refer to
+     */
+    Component(int[] cells, int[][] constraints, int[] needs, int[] origins, int columns) {
+        this.cells = cells;
+        this.constraints = constraints;
+        this.needs = needs;
+        this.origins = origins;
+        this.columns = columns;
+    }
+}
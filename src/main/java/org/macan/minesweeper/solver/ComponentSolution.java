@@ -0,0 +1,37 @@
+package org.macan.minesweeper.solver;
+
+/**
+ * The ComponentSolution class counts the mine arrangements of a {@link Component}: for every number of mines m,
+ * how many arrangements place exactly m mines, and in how many of those each cell holds a mine.
+ */
+final class ComponentSolution {
+    final double[] weights;
+    final double[][] cellWeights;
+
+    ComponentSolution(double[] weights, double[][] cellWeights) {
+        this.weights = weights;
+        this.cellWeights = cellWeights;
+    }
+
+    /**
+     * Gets the mine probability of every cell of the component, ignoring the total mine count of the board.
+     *
+     * @return the probabilities by position in the component, or null if the component has no arrangement
+     */
+    double[] localProbabilities() {
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        if (total == 0) {
+            return null;
+        }
+        double[] probabilities = new double[cellWeights[0].length];
+        for (double[] byCell : cellWeights) {
+            for (int i = 0; i < byCell.length; i++) {
+                probabilities[i] += byCell[i] / total;
+            }
+        }
+        return probabilities;
+    }
+}
@@ -0,0 +1,96 @@
+package org.macan.minesweeper.solver;
+
+import org.macan.minesweeper.common.GameResult;
+import org.macan.minesweeper.game.BoardTopology;
+import org.macan.minesweeper.game.BoardView;
+
+import java.util.BitSet;
+
+/**
+ * The FrozenView class is an immutable copy of a BoardView, so that a board can be analysed on a background thread
+ * while the game goes on.
+ */
+public final class FrozenView implements BoardView {
+    private final int rows;
+    private final int columns;
+    private final int totalMines;
+    private final BoardTopology topology;
+    private final GameResult gameResult;
+    private final BitSet revealed;
+    private final BitSet flagged;
+    private final byte[] adjacentMines;
+
+    private FrozenView(BoardView view) {
+        this.rows = view.getGridRows();
+        this.columns = view.getGridColumns();
+        this.totalMines = view.getTotalMines();
+        this.topology = view.getTopology();
+        this.gameResult = view.getGameResult();
+        this.revealed = new BitSet(rows * columns);
+        this.flagged = new BitSet(rows * columns);
+        this.adjacentMines = new byte[rows * columns];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                int index = row * columns + col;
+                revealed.set(index, view.isRevealed(row, col));
+                flagged.set(index, view.isFlagged(row, col));
+                adjacentMines[index] = (byte) view.getAdjacentMines(row, col);
+            }
+        }
+    }
+
+    /**
+     * Copies the current state of a board view.
+     *
+     * @param view the view to copy
+     * @return the copy
+     */
+    public static FrozenView copyOf(BoardView view) {
+        return new FrozenView(view);
+    }
+
+    @Override
+    public int getGridRows() {
+        return rows;
+    }
+
+    @Override
+    public int getGridColumns() {
+        return columns;
+    }
+
+    @Override
+    public int getTotalMines() {
+        return totalMines;
+    }
+
+    @Override
+    public BoardTopology getTopology() {
+        return topology;
+    }
+
+    @Override
+    public int getCellIndex(int row, int col) {
+        return row * columns + col;
+    }
+
+    @Override
+    public boolean isRevealed(int row, int col) {
+        return revealed.get(row * columns + col);
+    }
+
+    @Override
+    public boolean isFlagged(int row, int col) {
+        return flagged.get(row * columns + col);
+    }
+
+    @Override
+    public int getAdjacentMines(int row, int col) {
+        return adjacentMines[row * columns + col];
+    }
+
+    @Override
+    public GameResult getGameResult() {
+        return gameResult;
+    }
+}
@@ -0,0 +1,501 @@
+package org.macan.minesweeper.solver;
+
+import org.macan.minesweeper.game.BoardTopology;
+import org.macan.minesweeper.game.BoardView;
+import org.macan.minesweeper.game.RectangleTopology;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * The ProbabilitySolver class computes the probability that each hidden cell holds a mine, given what a player can see.
+ * Flags are trusted. The frontier of hidden cells bordering revealed numbers is split into independent components
+ * whose mine arrangements are enumerated exactly; the components are then combined with the remaining cells,
+ * weighting every arrangement by the number of ways to place the leftover mines elsewhere.
+ * Components too large to enumerate within the node budget are treated like cells away from the frontier.
+ * The solver checks the interrupt flag of its thread and stops with a {@link CancellationException} when set.
+ */
+public class ProbabilitySolver {
+    private static final int MAX_COMPONENT_CELLS = 64;
+    private static final long MAX_ENUMERATION_NODES = 1L << 22;
+    private static final int CANCEL_CHECK_INTERVAL = 4096;
+
+    private final SolverCache cache;
+
+    /**
+     * Constructor for creating a ProbabilitySolver object that enumerates every component.
+     */
+    public ProbabilitySolver() {
+        this(null);
+    }
+
+    /**
+     * Constructor for creating a ProbabilitySolver object that looks components up in a cache before enumerating
+     * them. The cache is only used on boards with the rectangle topology.
+     *
+     * @param cache the cache, which may be shared with other solvers and threads, or null
+     */
+    public ProbabilitySolver(SolverCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * The ProbabilitySolver.Listener interface receives results as they become ready.
+     */
+    public interface Listener {
+        /**
+         * Called with the probabilities of a set of cells. Cells may be reported again with refined values;
+         * the last report of a cell is final.
+         *
+         * @param cells         the cell indices
+         * @param probabilities the mine probability of each cell
+         */
+        void solved(int[] cells, double[] probabilities);
+    }
+
+    /**
+     * Computes the mine probability of every hidden cell.
+     *
+     * @param view the board as the player sees it
+     * @return the probability by cell index, or NaN for revealed and flagged cells
+     */
+    public double[] solve(BoardView view) {
+        return solve(view, null);
+    }
+
+    /**
+     * Computes the mine probability of every hidden cell, reporting each frontier component's local probabilities
+     * as soon as it is enumerated and then the final probabilities of all hidden cells.
+     *
+     * @param view     the board as the player sees it
+     * @param listener the listener receiving partial and final results, or null
+     * @return the probability by cell index, or NaN for revealed and flagged cells
+     * @throws CancellationException if the thread is interrupted
+     */
+    public double[] solve(BoardView view, Listener listener) {
+        int rows = view.getGridRows();
+        int cols = view.getGridColumns();
+        int cellCount = rows * cols;
+        BoardTopology topology = view.getTopology();
+        int[] neighbours = new int[2 * topology.getMaxNeighbours()];
+
+        boolean[] unknown = new boolean[cellCount];
+        int flags = 0;
+        for (int index = 0; index < cellCount; index++) {
+            int row = index / cols;
+            int col = index % cols;
+            if (view.isFlagged(row, col)) {
+                flags++;
+            } else if (!view.isRevealed(row, col)) {
+                unknown[index] = true;
+            }
+        }
+
+        List<int[]> constraintCells = new ArrayList<>();
+        List<Integer> constraintNeeds = new ArrayList<>();
+        List<Integer> constraintOrigins = new ArrayList<>();
+        int[] parent = new int[cellCount];
+        for (int index = 0; index < cellCount; index++) {
+            parent[index] = index;
+        }
+        boolean[] frontier = new boolean[cellCount];
+        for (int index = 0; index < cellCount; index++) {
+            int adjacentMines = view.getAdjacentMines(index / cols, index % cols);
+            if (adjacentMines <= 0) {
+                continue;
+            }
+            int count = topology.getNeighbours(index / cols, index % cols, rows, cols, neighbours);
+            int[] hidden = new int[count];
+            int hiddenCount = 0;
+            int flagged = 0;
+            for (int k = 0; k < count; k++) {
+                int neighbour = neighbours[2 * k] * cols + neighbours[2 * k + 1];
+                if (unknown[neighbour]) {
+                    hidden[hiddenCount++] = neighbour;
+                } else if (view.isFlagged(neighbours[2 * k], neighbours[2 * k + 1])) {
+                    flagged++;
+                }
+            }
+            if (hiddenCount == 0) {
+                continue;
+            }
+            for (int k = 0; k < hiddenCount; k++) {
+                frontier[hidden[k]] = true;
+                union(parent, hidden[0], hidden[k]);
+            }
+            constraintCells.add(Arrays.copyOf(hidden, hiddenCount));
+            constraintNeeds.add(adjacentMines - flagged);
+            constraintOrigins.add(index);
+        }
+
+        List<Component> components = buildComponents(cellCount, cols, frontier, parent, constraintCells, constraintNeeds,
+                constraintOrigins);
+        boolean cacheable = cache != null && topology instanceof RectangleTopology;
+        List<Component> solvedComponents = new ArrayList<>();
+        List<ComponentSolution> solutions = new ArrayList<>();
+        boolean[] treatedAsUnconstrained = new boolean[cellCount];
+        for (Component component : components) {
+            ComponentSolution solution = cacheable ? cache.solve(component) : enumerate(component);
+            if (solution == null) {
+                for (int cell : component.cells) {
+                    treatedAsUnconstrained[cell] = true;
+                }
+                continue;
+            }
+            solvedComponents.add(component);
+            solutions.add(solution);
+            double[] local = solution.localProbabilities();
+            if (listener != null && local != null) {
+                listener.solved(component.cells, local);
+            }
+        }
+
+        int unconstrained = 0;
+        for (int index = 0; index < cellCount; index++) {
+            if (unknown[index] && (!frontier[index] || treatedAsUnconstrained[index])) {
+                unconstrained++;
+            }
+        }
+        double[] probabilities = new double[cellCount];
+        Arrays.fill(probabilities, Double.NaN);
+        double unconstrainedProbability = combine(solvedComponents, solutions, unconstrained,
+                Math.max(0, view.getTotalMines() - flags), probabilities);
+        int reported = 0;
+        int[] cells = new int[cellCount];
+        double[] values = new double[cellCount];
+        for (int index = 0; index < cellCount; index++) {
+            if (!unknown[index]) {
+                probabilities[index] = Double.NaN;
+                continue;
+            }
+            if (!frontier[index] || treatedAsUnconstrained[index]) {
+                probabilities[index] = unconstrainedProbability;
+            }
+            cells[reported] = index;
+            values[reported++] = probabilities[index];
+        }
+        if (listener != null) {
+            listener.solved(Arrays.copyOf(cells, reported), Arrays.copyOf(values, reported));
+        }
+        return probabilities;
+    }
+
+    private static List<Component> buildComponents(int cellCount, int columns, boolean[] frontier, int[] parent,
+                                                   List<int[]> constraintCells, List<Integer> constraintNeeds,
+                                                   List<Integer> constraintOrigins) {
+        int[] componentOf = new int[cellCount];
+        int[] positionOf = new int[cellCount];
+        int[] rootComponent = new int[cellCount];
+        Arrays.fill(rootComponent, -1);
+        List<List<Integer>> cellsByComponent = new ArrayList<>();
+        for (int index = 0; index < cellCount; index++) {
+            if (!frontier[index]) {
+                continue;
+            }
+            int root = find(parent, index);
+            if (rootComponent[root] < 0) {
+                rootComponent[root] = cellsByComponent.size();
+                cellsByComponent.add(new ArrayList<>());
+            }
+            componentOf[index] = rootComponent[root];
+            positionOf[index] = cellsByComponent.get(componentOf[index]).size();
+            cellsByComponent.get(componentOf[index]).add(index);
+        }
+        List<List<int[]>> constraintsByComponent = new ArrayList<>();
+        List<List<Integer>> needsByComponent = new ArrayList<>();
+        List<List<Integer>> originsByComponent = new ArrayList<>();
+        for (int c = 0; c < cellsByComponent.size(); c++) {
+            constraintsByComponent.add(new ArrayList<>());
+            needsByComponent.add(new ArrayList<>());
+            originsByComponent.add(new ArrayList<>());
+        }
+        for (int k = 0; k < constraintCells.size(); k++) {
+            int[] hidden = constraintCells.get(k);
+            int[] positions = new int[hidden.length];
+            for (int i = 0; i < hidden.length; i++) {
+                positions[i] = positionOf[hidden[i]];
+            }
+            int component = componentOf[hidden[0]];
+            constraintsByComponent.get(component).add(positions);
+            needsByComponent.get(component).add(constraintNeeds.get(k));
+            originsByComponent.get(component).add(constraintOrigins.get(k));
+        }
+        List<Component> components = new ArrayList<>();
+        for (int c = 0; c < cellsByComponent.size(); c++) {
+            int[] cells = cellsByComponent.get(c).stream().mapToInt(Integer::intValue).toArray();
+            int[][] constraints = constraintsByComponent.get(c).toArray(new int[0][]);
+            int[] needs = needsByComponent.get(c).stream().mapToInt(Integer::intValue).toArray();
+            int[] origins = originsByComponent.get(c).stream().mapToInt(Integer::intValue).toArray();
+            components.add(new Component(cells, constraints, needs, origins, columns));
+        }
+        return components;
+    }
+
+    /**
+     * Counts the mine arrangements of a component with a backtracking search that assigns cells in the order they
+     * are reached from the first constraint, pruning as soon as a number can no longer be satisfied.
+     *
+     * @param component the component
+     * @return the solution, or null if the component has more than 64 cells or exceeds the node budget
+     */
+    static ComponentSolution enumerate(Component component) {
+        int n = component.cells.length;
+        if (n > MAX_COMPONENT_CELLS) {
+            return null;
+        }
+        Enumeration enumeration = new Enumeration(component);
+        if (!enumeration.search(0, 0)) {
+            return null;
+        }
+        return new ComponentSolution(enumeration.weights, enumeration.cellWeights);
+    }
+
+    /**
+     * Combines the component solutions with the unconstrained cells under the board's remaining mine count.
+     * Writes the probability of each component cell into {@code probabilities}.
+     *
+     * @return the mine probability of an unconstrained cell, or NaN if there are none
+     */
+    private static double combine(List<Component> components, List<ComponentSolution> solutions, int unconstrained,
+                                int remainingMines, double[] probabilities) {
+        int count = solutions.size();
+        double[][] weights = new double[count][];
+        double[][][] cellWeights = new double[count][][];
+        for (int c = 0; c < count; c++) {
+            ComponentSolution solution = solutions.get(c);
+            double max = 0;
+            for (double weight : solution.weights) {
+                max = Math.max(max, weight);
+            }
+            double scale = max > 0 ? 1 / max : 1;
+            weights[c] = scale(solution.weights, scale);
+            cellWeights[c] = new double[solution.cellWeights.length][];
+            for (int m = 0; m < solution.cellWeights.length; m++) {
+                cellWeights[c][m] = scale(solution.cellWeights[m], scale);
+            }
+        }
+
+        double[][] prefix = new double[count + 1][];
+        double[][] suffix = new double[count + 1][];
+        prefix[0] = new double[]{1};
+        suffix[count] = new double[]{1};
+        for (int c = 0; c < count; c++) {
+            prefix[c + 1] = convolve(prefix[c], weights[c]);
+        }
+        for (int c = count - 1; c >= 0; c--) {
+            suffix[c] = convolve(weights[c], suffix[c + 1]);
+        }
+        double[] total = prefix[count];
+
+        double[] logFactorials = new double[unconstrained + 1];
+        for (int i = 1; i <= unconstrained; i++) {
+            logFactorials[i] = logFactorials[i - 1] + Math.log(i);
+        }
+        double maxLog = Double.NEGATIVE_INFINITY;
+        double[] logTail = new double[total.length];
+        for (int k = 0; k < total.length; k++) {
+            int rest = remainingMines - k;
+            logTail[k] = rest < 0 || rest > unconstrained ? Double.NEGATIVE_INFINITY
+                    : logFactorials[unconstrained] - logFactorials[rest] - logFactorials[unconstrained - rest];
+            maxLog = Math.max(maxLog, logTail[k]);
+        }
+        double[] tail = new double[total.length];
+        double normalizer = 0;
+        double unconstrainedMines = 0;
+        for (int k = 0; k < total.length; k++) {
+            tail[k] = maxLog == Double.NEGATIVE_INFINITY ? 0 : Math.exp(logTail[k] - maxLog);
+            normalizer += total[k] * tail[k];
+            unconstrainedMines += total[k] * tail[k] * (remainingMines - k);
+        }
+
+        if (!(normalizer > 0)) {
+            // The visible numbers contradict the mine count (for example because of a wrong flag): fall back to
+            // the local probabilities of each component and the plain mine density elsewhere.
+            for (int c = 0; c < count; c++) {
+                double[] local = solutions.get(c).localProbabilities();
+                int[] cells = components.get(c).cells;
+                for (int i = 0; i < cells.length; i++) {
+                    probabilities[cells[i]] = local == null ? Double.NaN : local[i];
+                }
+            }
+            return unconstrained > 0 ? Math.min(1, (double) remainingMines / unconstrained) : Double.NaN;
+        }
+
+        for (int c = 0; c < count; c++) {
+            double[] others = convolve(prefix[c], suffix[c + 1]);
+            double[] g = new double[weights[c].length];
+            for (int m = 0; m < g.length; m++) {
+                for (int j = 0; j < others.length && m + j < tail.length; j++) {
+                    g[m] += others[j] * tail[m + j];
+                }
+            }
+            int[] cells = components.get(c).cells;
+            for (int i = 0; i < cells.length; i++) {
+                double weight = 0;
+                for (int m = 0; m < g.length; m++) {
+                    weight += cellWeights[c][m][i] * g[m];
+                }
+                probabilities[cells[i]] = Math.min(1, Math.max(0, weight / normalizer));
+            }
+        }
+        return unconstrained > 0 ? Math.min(1, Math.max(0, unconstrainedMines / normalizer / unconstrained)) : Double.NaN;
+    }
+
+    private static double[] scale(double[] values, double factor) {
+        double[] scaled = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            scaled[i] = values[i] * factor;
+        }
+        return scaled;
+    }
+
+    private static double[] convolve(double[] a, double[] b) {
+        double[] result = new double[a.length + b.length - 1];
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == 0) {
+                continue;
+            }
+            for (int j = 0; j < b.length; j++) {
+                result[i + j] += a[i] * b[j];
+            }
+        }
+        return result;
+    }
+
+    private static int find(int[] parent, int index) {
+        while (parent[index] != index) {
+            parent[index] = parent[parent[index]];
+            index = parent[index];
+        }
+        return index;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+
+    /**
+     * The state of the backtracking search over one component.
+     */
+    private static final class Enumeration {
+        private final int[][] constraintsOfCell;
+        private final int[] order;
+        private final int[] needLeft;
+        private final int[] unassignedLeft;
+        private final boolean[] mine;
+        private final double[] weights;
+        private final double[][] cellWeights;
+        private long nodes;
+
+        private Enumeration(Component component) {
+            int n = component.cells.length;
+            int[] constraintCounts = new int[n];
+            for (int[] constraint : component.constraints) {
+                for (int position : constraint) {
+                    constraintCounts[position]++;
+                }
+            }
+            this.constraintsOfCell = new int[n][];
+            for (int i = 0; i < n; i++) {
+                constraintsOfCell[i] = new int[constraintCounts[i]];
+                constraintCounts[i] = 0;
+            }
+            for (int k = 0; k < component.constraints.length; k++) {
+                for (int position : component.constraints[k]) {
+                    constraintsOfCell[position][constraintCounts[position]++] = k;
+                }
+            }
+            this.order = searchOrder(component, constraintsOfCell);
+            this.needLeft = component.needs.clone();
+            this.unassignedLeft = new int[component.constraints.length];
+            for (int k = 0; k < unassignedLeft.length; k++) {
+                unassignedLeft[k] = component.constraints[k].length;
+            }
+            this.mine = new boolean[n];
+            this.weights = new double[n + 1];
+            this.cellWeights = new double[n + 1][n];
+        }
+
+        /**
+         * Orders the cells breadth-first through shared numbers, so that numbers are completed early and prune.
+         */
+        private static int[] searchOrder(Component component, int[][] constraintsOfCell) {
+            int n = component.cells.length;
+            int[] order = new int[n];
+            boolean[] queued = new boolean[n];
+            int tail = 0;
+            for (int start = 0; start < n; start++) {
+                if (queued[start]) {
+                    continue;
+                }
+                queued[start] = true;
+                order[tail++] = start;
+                for (int head = tail - 1; head < tail; head++) {
+                    for (int k : constraintsOfCell[order[head]]) {
+                        for (int position : component.constraints[k]) {
+                            if (!queued[position]) {
+                                queued[position] = true;
+                                order[tail++] = position;
+                            }
+                        }
+                    }
+                }
+            }
+            return order;
+        }
+
+        /**
+         * Assigns the cell at a position of the search order and recurses.
+         *
+         * @return false if the node budget was exhausted
+         */
+        private boolean search(int depth, int mines) {
+            if (++nodes > MAX_ENUMERATION_NODES) {
+                return false;
+            }
+            if (nodes % CANCEL_CHECK_INTERVAL == 0 && Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Probability computation cancelled");
+            }
+            if (depth == order.length) {
+                weights[mines]++;
+                for (int i = 0; i < mine.length; i++) {
+                    if (mine[i]) {
+                        cellWeights[mines][i]++;
+                    }
+                }
+                return true;
+            }
+            int cell = order[depth];
+            for (int value = 0; value <= 1; value++) {
+                boolean feasible = true;
+                for (int k : constraintsOfCell[cell]) {
+                    unassignedLeft[k]--;
+                    needLeft[k] -= value;
+                    if (needLeft[k] < 0 || needLeft[k] > unassignedLeft[k]) {
+                        feasible = false;
+                    }
+                }
+                boolean completed = true;
+                if (feasible) {
+                    mine[cell] = value == 1;
+                    completed = search(depth + 1, mines + value);
+                    mine[cell] = false;
+                }
+                for (int k : constraintsOfCell[cell]) {
+                    unassignedLeft[k]++;
+                    needLeft[k] += value;
+                }
+                if (!completed) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
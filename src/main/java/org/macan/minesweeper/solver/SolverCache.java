@@ -0,0 +1,242 @@
+package org.macan.minesweeper.solver;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The SolverCache class is a bounded least-recently-used cache of frontier component solutions, shareable between
+ * solvers on any number of threads.
+ * A component on a rectangle board is fully described by the positions of its hidden cells and of its numbers with
+ * the mines they still need, so it is keyed by that layout, translated to the origin and normalized over the eight
+ * rotations and reflections of the grid. The same pattern anywhere on any board, in any orientation, shares one entry.
+ * The cache is bounded by the estimated memory of its entries rather than their number, since the solution of a
+ * component grows with the square of its size.
+ */
+public class SolverCache {
+    private static final ComponentSolution UNSOLVABLE = new ComponentSolution(new double[0], new double[0][]);
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, ComponentSolution> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long sizeBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructor for creating a SolverCache object.
+     *
+     * @param maxBytes the maximum estimated memory of the cached entries
+     */
+    public SolverCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Solves a component, enumerating it only if no component with the same canonical layout is cached.
+     * Enumeration runs outside the lock, so concurrent misses on the same layout may both enumerate it.
+     *
+     * @param component the component, from a board with the rectangle topology
+     * @return the solution, or null if the component is too large to enumerate
+     */
+    ComponentSolution solve(Component component) {
+        Canonical canonical = new Canonical(component);
+        ComponentSolution cached;
+        synchronized (this) {
+            cached = entries.get(canonical.key);
+            if (cached != null) {
+                hits++;
+            } else {
+                misses++;
+            }
+        }
+        if (cached != null) {
+            return cached == UNSOLVABLE ? null : canonical.fromCanonical(cached);
+        }
+        ComponentSolution solution = ProbabilitySolver.enumerate(component);
+        put(canonical.key, solution == null ? UNSOLVABLE : canonical.toCanonical(solution));
+        return solution;
+    }
+
+    private synchronized void put(Key key, ComponentSolution solution) {
+        ComponentSolution previous = entries.put(key, solution);
+        if (previous != null) {
+            sizeBytes -= estimateBytes(key, previous);
+        }
+        sizeBytes += estimateBytes(key, solution);
+        Iterator<Map.Entry<Key, ComponentSolution>> eldest = entries.entrySet().iterator();
+        while (sizeBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<Key, ComponentSolution> entry = eldest.next();
+            sizeBytes -= estimateBytes(entry.getKey(), entry.getValue());
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private static long estimateBytes(Key key, ComponentSolution solution) {
+        long cells = solution.cellWeights.length == 0 ? 0 : solution.cellWeights[0].length;
+        return ENTRY_OVERHEAD_BYTES + 4L * key.layout.length + 8L * solution.weights.length
+                + solution.cellWeights.length * (16 + 8 * cells);
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public synchronized long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    /**
+     * Gets the share of lookups answered from the cache.
+     *
+     * @return the hit rate between 0 and 1, or 0 if there were no lookups
+     */
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("SolverCache entries: %d | size: %d KB | hit rate: %.1f%% (%d hits, %d misses) | evictions: %d",
+                entries.size(), sizeBytes / 1024, getHitRate() * 100, hits, misses, evictions);
+    }
+
+    /**
+     * The canonical layout of a component and the mapping between its cells and the canonical cell order.
+     */
+    private static final class Canonical {
+        private final Key key;
+        private final int[] canonicalPosition;
+
+        /**
+         * Encodes the component under each of the eight symmetries as a sorted list of (row, column, value) triples,
+         * with value -1 for a hidden cell and the missing mine count for a number, and keeps the smallest encoding.
+         */
+        private Canonical(Component component) {
+            int cellCount = component.cells.length;
+            int elementCount = cellCount + component.origins.length;
+            int[] rows = new int[elementCount];
+            int[] cols = new int[elementCount];
+            int[] values = new int[elementCount];
+            for (int i = 0; i < cellCount; i++) {
+                rows[i] = component.cells[i] / component.columns;
+                cols[i] = component.cells[i] % component.columns;
+                values[i] = -1;
+            }
+            for (int k = 0; k < component.origins.length; k++) {
+                rows[cellCount + k] = component.origins[k] / component.columns;
+                cols[cellCount + k] = component.origins[k] % component.columns;
+                values[cellCount + k] = component.needs[k];
+            }
+
+            int[] best = null;
+            int[] bestPositions = null;
+            long[] sortKeys = new long[elementCount];
+            int[] transformedRows = new int[elementCount];
+            int[] transformedCols = new int[elementCount];
+            for (int symmetry = 0; symmetry < 8; symmetry++) {
+                int minRow = Integer.MAX_VALUE;
+                int minCol = Integer.MAX_VALUE;
+                for (int e = 0; e < elementCount; e++) {
+                    int r = (symmetry & 1) == 0 ? rows[e] : -rows[e];
+                    int c = (symmetry & 2) == 0 ? cols[e] : -cols[e];
+                    transformedRows[e] = (symmetry & 4) == 0 ? r : c;
+                    transformedCols[e] = (symmetry & 4) == 0 ? c : r;
+                    minRow = Math.min(minRow, transformedRows[e]);
+                    minCol = Math.min(minCol, transformedCols[e]);
+                }
+                for (int e = 0; e < elementCount; e++) {
+                    long position = (long) (transformedRows[e] - minRow) << 20 | (transformedCols[e] - minCol);
+                    sortKeys[e] = position << 20 | e;
+                }
+                Arrays.sort(sortKeys);
+                int[] layout = new int[3 * elementCount];
+                int[] positions = new int[cellCount];
+                int cellOrder = 0;
+                for (int s = 0; s < elementCount; s++) {
+                    int e = (int) (sortKeys[s] & 0xFFFFF);
+                    layout[3 * s] = transformedRows[e] - minRow;
+                    layout[3 * s + 1] = transformedCols[e] - minCol;
+                    layout[3 * s + 2] = values[e];
+                    if (e < cellCount) {
+                        positions[e] = cellOrder++;
+                    }
+                }
+                if (best == null || compare(layout, best) < 0) {
+                    best = layout;
+                    bestPositions = positions;
+                }
+            }
+            this.key = new Key(best);
+            this.canonicalPosition = bestPositions;
+        }
+
+        private ComponentSolution toCanonical(ComponentSolution solution) {
+            double[][] cellWeights = new double[solution.cellWeights.length][canonicalPosition.length];
+            for (int m = 0; m < cellWeights.length; m++) {
+                for (int i = 0; i < canonicalPosition.length; i++) {
+                    cellWeights[m][canonicalPosition[i]] = solution.cellWeights[m][i];
+                }
+            }
+            return new ComponentSolution(solution.weights, cellWeights);
+        }
+
+        private ComponentSolution fromCanonical(ComponentSolution solution) {
+            double[][] cellWeights = new double[solution.cellWeights.length][canonicalPosition.length];
+            for (int m = 0; m < cellWeights.length; m++) {
+                for (int i = 0; i < canonicalPosition.length; i++) {
+                    cellWeights[m][i] = solution.cellWeights[m][canonicalPosition[i]];
+                }
+            }
+            return new ComponentSolution(solution.weights, cellWeights);
+        }
+
+        private static int compare(int[] a, int[] b) {
+            for (int i = 0; i < a.length; i++) {
+                if (a[i] != b[i]) {
+                    return Integer.compare(a[i], b[i]);
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * A canonical component layout with a precomputed hash.
+     */
+    private static final class Key {
+        private final int[] layout;
+        private final int hash;
+
+        private Key(int[] layout) {
+            this.layout = layout;
+            this.hash = Arrays.hashCode(layout);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && hash == ((Key) other).hash && Arrays.equals(layout, ((Key) other).layout);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
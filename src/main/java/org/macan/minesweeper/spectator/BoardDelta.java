@@ -0,0 +1,79 @@
+package org.macan.minesweeper.spectator;
+
+import org.macan.minesweeper.common.GameResult;
+
+/**
+ * The BoardDelta class is one message of a spectator stream: the new visible state of the cells that changed
+ * since the previous message delivered to the same spectator, or of every cell when it is a keyframe.
+ * States are encoded as one byte per cell: {@link #HIDDEN}, {@link #FLAGGED}, {@link #MINE} or the adjacent mine
+ * count of a revealed cell.
+ */
+public final class BoardDelta {
+    public static final byte HIDDEN = -1;
+    public static final byte FLAGGED = -2;
+    public static final byte MINE = 9;
+
+    private final long version;
+    private final int[] cellIndices;
+    private final byte[] states;
+    private final GameResult gameResult;
+
+    BoardDelta(long version, int[] cellIndices, byte[] states, GameResult gameResult) {
+        this.version = version;
+        this.cellIndices = cellIndices;
+        this.states = states;
+        this.gameResult = gameResult;
+    }
+
+    /**
+     * Gets the version of the board this delta brings the spectator up to. Versions count the changes made to the
+     * board since the feed was created.
+     *
+     * @return the board version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Checks whether this delta holds the state of every cell rather than only the changed ones.
+     *
+     * @return true if this is a keyframe, false otherwise
+     */
+    public boolean isKeyframe() {
+        return cellIndices == null;
+    }
+
+    /**
+     * Gets the number of cells in this delta.
+     *
+     * @return the number of cells
+     */
+    public int size() {
+        return states.length;
+    }
+
+    /**
+     * Gets the index of the k-th cell of this delta.
+     *
+     * @param k the position in this delta
+     * @return the cell index
+     */
+    public int getCellIndex(int k) {
+        return cellIndices == null ? k : cellIndices[k];
+    }
+
+    /**
+     * Gets the state of the k-th cell of this delta.
+     *
+     * @param k the position in this delta
+     * @return the encoded cell state
+     */
+    public byte getState(int k) {
+        return states[k];
+    }
+
+    public GameResult getGameResult() {
+        return gameResult;
+    }
+}
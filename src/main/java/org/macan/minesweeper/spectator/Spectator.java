@@ -0,0 +1,28 @@
+package org.macan.minesweeper.spectator;
+
+/**
+ * The Spectator interface receives the change stream of a game from a {@link SpectatorFeed}.
+ * It follows the protocol of {@code java.util.concurrent.Flow.Subscriber}, which is not available on Java 8:
+ * nothing is delivered until demand is signalled through the subscription, and calls to one spectator never overlap.
+ * A local board cannot fail, so there is no error signal.
+ */
+public interface Spectator {
+    /**
+     * Called once, on the subscribing thread, before any delta is delivered.
+     *
+     * @param subscription the subscription used to request deltas and keyframes
+     */
+    void onSubscribe(SpectatorSubscription subscription);
+
+    /**
+     * Called for every requested delta. The first delta after subscribing is a keyframe.
+     *
+     * @param delta the changes since the previous delta
+     */
+    void onNext(BoardDelta delta);
+
+    /**
+     * Called when the feed is closed. No delta follows.
+     */
+    void onComplete();
+}
@@ -0,0 +1,301 @@
+package org.macan.minesweeper.spectator;
+
+import org.macan.minesweeper.common.GameResult;
+import org.macan.minesweeper.game.BoardChangeListener;
+import org.macan.minesweeper.game.BoardView;
+import org.macan.minesweeper.game.GameBoard;
+
+import java.io.Closeable;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+/**
+ * The SpectatorFeed class fans the changes of one GameBoard out to any number of spectators.
+ * The feed keeps a copy of the visible state of every cell, updated on the player's thread in time proportional to
+ * the cells a move changed. Each move's changed cells are published once to a shared change log; the player's thread
+ * only signals the spectators, and each spectator's delivery task merges the log entries it has not seen into its own
+ * set of pending cells when it has demand. A slow spectator therefore never blocks the player: the changes it has not
+ * asked for yet are coalesced into one delta holding their latest state. A spectator without demand that falls more
+ * than a board's worth of changed cells behind drops its place in the log and gets a keyframe next, so the log never
+ * grows beyond what a keyframe would cost.
+ */
+public class SpectatorFeed implements BoardChangeListener, Closeable {
+    private final GameBoard board;
+    private final Executor executor;
+    private final byte[] states;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private long version;
+    private ChangeEntry tail = new ChangeEntry(new int[0]);
+    private GameResult gameResult;
+    private boolean closed;
+
+    /**
+     * Constructor for creating a SpectatorFeed object. Registers the feed as a change listener of the board,
+     * which must be done on the thread making moves.
+     *
+     * @param board    the board to publish
+     * @param executor the executor delivering deltas to spectators
+     */
+    public SpectatorFeed(GameBoard board, Executor executor) {
+        this.board = board;
+        this.executor = executor;
+        this.states = new byte[board.getGridRows() * board.getGridColumns()];
+        for (int index = 0; index < states.length; index++) {
+            states[index] = stateOf(board.asView(), index);
+        }
+        this.gameResult = board.getGameStats().getGameResult();
+        board.addChangeListener(this);
+    }
+
+    /**
+     * Subscribes a spectator. Its first delta is a keyframe.
+     *
+     * @param spectator the spectator
+     */
+    public void subscribe(Spectator spectator) {
+        Subscription subscription = new Subscription(spectator);
+        spectator.onSubscribe(subscription);
+        boolean open;
+        synchronized (this) {
+            open = !closed;
+            if (open) {
+                subscriptions.add(subscription);
+            }
+        }
+        if (open) {
+            subscription.signal();
+        } else {
+            subscription.complete();
+        }
+    }
+
+    /**
+     * Gets the number of active subscriptions.
+     *
+     * @return the number of subscriptions
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    @Override
+    public void boardChanged(GameBoard changedBoard, BitSet changed) {
+        BoardView view = changedBoard.asView();
+        ChangeEntry entry = new ChangeEntry(changed.stream().toArray());
+        synchronized (this) {
+            for (int index : entry.cells) {
+                states[index] = stateOf(view, index);
+            }
+            gameResult = view.getGameResult();
+            version++;
+            tail.next = entry;
+            tail = entry;
+        }
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(entry.cells.length);
+        }
+    }
+
+    /**
+     * Unregisters the feed from the board and completes every subscription once its pending deliveries are done.
+     */
+    @Override
+    public void close() {
+        board.removeChangeListener(this);
+        synchronized (this) {
+            closed = true;
+        }
+        for (Subscription subscription : subscriptions) {
+            subscription.complete();
+        }
+    }
+
+    /**
+     * Builds the next delta of a subscription. A keyframe moves the subscription's place in the change log to the
+     * latest entry, since it already holds every change up to it.
+     */
+    private synchronized BoardDelta createDelta(Subscription subscription, boolean keyframe, BitSet cells) {
+        if (keyframe) {
+            subscription.cursor = tail;
+            return new BoardDelta(version, null, states.clone(), gameResult);
+        }
+        int[] cellIndices = new int[cells.cardinality()];
+        byte[] cellStates = new byte[cellIndices.length];
+        int k = 0;
+        for (int index = cells.nextSetBit(0); index >= 0; index = cells.nextSetBit(index + 1)) {
+            cellIndices[k] = index;
+            cellStates[k++] = states[index];
+        }
+        return new BoardDelta(version, cellIndices, cellStates, gameResult);
+    }
+
+    private static byte stateOf(BoardView view, int index) {
+        int row = index / view.getGridColumns();
+        int col = index % view.getGridColumns();
+        if (view.isRevealed(row, col)) {
+            int adjacentMines = view.getAdjacentMines(row, col);
+            return adjacentMines == BoardView.HIDDEN ? BoardDelta.MINE : (byte) adjacentMines;
+        }
+        return view.isFlagged(row, col) ? BoardDelta.FLAGGED : BoardDelta.HIDDEN;
+    }
+
+    /**
+     * The cells changed by one move, published once for every spectator and linked to the next move's entry.
+     * Entries no spectator still points to are garbage collected.
+     */
+    private static final class ChangeEntry {
+        private final int[] cells;
+        private volatile ChangeEntry next;
+
+        private ChangeEntry(int[] cells) {
+            this.cells = cells;
+        }
+    }
+
+    /**
+     * The delivery state of one spectator. At most one drain task per spectator is scheduled at a time,
+     * which keeps its calls sequential.
+     */
+    private final class Subscription implements SpectatorSubscription {
+        private final Spectator spectator;
+        private BitSet pending = new BitSet();
+        private ChangeEntry cursor;
+        private long backlogCells;
+        private boolean keyframePending = true;
+        private long demand;
+        private boolean scheduled;
+        private boolean cancelled;
+        private boolean completing;
+
+        private Subscription(Spectator spectator) {
+            this.spectator = spectator;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                throw new IllegalArgumentException("Demand must be positive: " + n);
+            }
+            synchronized (this) {
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            }
+            signal();
+        }
+
+        @Override
+        public void requestKeyframe() {
+            synchronized (this) {
+                keyframePending = true;
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                cancelled = true;
+                pending = new BitSet();
+                cursor = null;
+            }
+            subscriptions.remove(this);
+        }
+
+        /**
+         * Signals a published move. Runs on the player's thread in constant time.
+         */
+        private void offer(int changedCells) {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                if (!keyframePending) {
+                    backlogCells += changedCells;
+                    if (demand == 0 && backlogCells > states.length) {
+                        keyframePending = true;
+                        pending = new BitSet();
+                        cursor = null;
+                    }
+                }
+            }
+            signal();
+        }
+
+        /**
+         * Merges the log entries published since the last delta into the pending cells.
+         */
+        private void mergeBacklog() {
+            if (keyframePending || cursor == null) {
+                return;
+            }
+            for (ChangeEntry entry = cursor.next; entry != null; entry = entry.next) {
+                for (int index : entry.cells) {
+                    pending.set(index);
+                }
+                cursor = entry;
+            }
+            backlogCells = 0;
+        }
+
+        private void complete() {
+            synchronized (this) {
+                completing = true;
+            }
+            signal();
+        }
+
+        private void signal() {
+            synchronized (this) {
+                if (scheduled || cancelled || !(hasDelta() || completing)) {
+                    return;
+                }
+                scheduled = true;
+            }
+            executor.execute(this::drain);
+        }
+
+        private boolean hasDelta() {
+            return demand > 0 && (keyframePending || !pending.isEmpty() || cursor != null && cursor.next != null);
+        }
+
+        private void drain() {
+            while (true) {
+                BoardDelta delta;
+                synchronized (this) {
+                    if (cancelled) {
+                        scheduled = false;
+                        return;
+                    }
+                    if (!hasDelta()) {
+                        scheduled = false;
+                        if (!completing) {
+                            return;
+                        }
+                        cancelled = true;
+                    }
+                    if (!cancelled) {
+                        demand--;
+                        mergeBacklog();
+                        delta = createDelta(this, keyframePending, pending);
+                        keyframePending = false;
+                        pending = new BitSet();
+                    } else {
+                        delta = null;
+                    }
+                }
+                if (delta == null) {
+                    subscriptions.remove(this);
+                    spectator.onComplete();
+                    return;
+                }
+                try {
+                    spectator.onNext(delta);
+                } catch (RuntimeException e) {
+                    cancel();
+                    return;
+                }
+            }
+        }
+    }
+}
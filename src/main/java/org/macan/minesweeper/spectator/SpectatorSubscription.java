@@ -0,0 +1,24 @@
+package org.macan.minesweeper.spectator;
+
+/**
+ * The SpectatorSubscription interface is a spectator's handle on a {@link SpectatorFeed}.
+ */
+public interface SpectatorSubscription {
+    /**
+     * Requests up to {@code n} more deltas. Changes made while there is no demand are coalesced into the next delta.
+     *
+     * @param n the number of deltas, which must be positive
+     * @throws IllegalArgumentException if n is not positive
+     */
+    void request(long n);
+
+    /**
+     * Requests that the next delta is a keyframe holding the state of every cell.
+     */
+    void requestKeyframe();
+
+    /**
+     * Stops delivery to the spectator.
+     */
+    void cancel();
+}
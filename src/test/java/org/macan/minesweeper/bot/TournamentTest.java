@@ -0,0 +1,57 @@
+package org.macan.minesweeper.bot;
+
+import org.junit.jupiter.api.Test;
+import org.macan.minesweeper.common.GameDifficulty;
+import org.macan.minesweeper.common.GridSize;
+import org.macan.minesweeper.game.BoardView;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TournamentTest {
+
+    @Test
+    void testRankingIsReproducibleForSameSeed() throws InterruptedException {
+        List<TournamentResult> first = runTournament();
+        List<TournamentResult> second = runTournament();
+
+        assertEquals(2, first.size());
+        assertEquals("SinglePoint", first.get(0).getPlayerName());
+        assertTrue(first.get(0).getWins() > first.get(1).getWins());
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.get(i).getPlayerName(), second.get(i).getPlayerName());
+            assertEquals(first.get(i).getWins(), second.get(i).getWins());
+            assertEquals(50, first.get(i).getGamesPlayed());
+        }
+    }
+
+    @Test
+    void testHangingPlayerForfeitsWhenBudgetRunsOut() throws InterruptedException {
+        Tournament tournament = new Tournament(GridSize.SMALL, GameDifficulty.EASY, 3, 7, 2, 50);
+        tournament.register(() -> new RandomPlayer() {
+            @Override
+            public int[] nextMoves(BoardView view) {
+                try {
+                    Thread.sleep(Long.MAX_VALUE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new int[0];
+            }
+        });
+
+        List<TournamentResult> results = tournament.run();
+
+        assertEquals(3, results.get(0).getForfeits());
+        assertEquals(0, results.get(0).getWins());
+    }
+
+    private static List<TournamentResult> runTournament() throws InterruptedException {
+        Tournament tournament = new Tournament(GridSize.SMALL, GameDifficulty.EASY, 50, 7, 4, 1000);
+        tournament.register(RandomPlayer::new);
+        tournament.register(SinglePointPlayer::new);
+        return tournament.run();
+    }
+}
@@ -0,0 +1,58 @@
+package org.macan.minesweeper.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameStatsTest {
+
+    @Test
+    void testClockRunsBeforeGameEndsAndStopsAtEnd() throws InterruptedException {
+        GameStats stats = new GameStats();
+        Thread.sleep(20);
+        assertTrue(stats.getTotalTime() >= 20);
+
+        stats.endGame(GameResult.WON);
+        long total = stats.getElapsedNanos();
+        Thread.sleep(20);
+        assertEquals(total, stats.getElapsedNanos());
+    }
+
+    @Test
+    void testPausedTimeIsNotCounted() throws InterruptedException {
+        GameStats stats = new GameStats();
+        stats.pause();
+        long paused = stats.getElapsedNanos();
+        Thread.sleep(50);
+        assertEquals(paused, stats.getElapsedNanos());
+
+        stats.resume();
+        Thread.sleep(20);
+        long elapsed = stats.getElapsedNanos() - paused;
+        assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    void testSplitTimesFollowMovesAndUndo() throws InterruptedException {
+        GameStats stats = new GameStats();
+        for (int move = 0; move < 40; move++) {
+            stats.incrementMovesMade();
+        }
+        Thread.sleep(5);
+        stats.incrementMovesMade();
+        for (int move = 1; move < 41; move++) {
+            assertTrue(stats.getSplitNanos(move) >= stats.getSplitNanos(move - 1));
+        }
+        assertTrue(stats.getMoveNanos(40) >= TimeUnit.MILLISECONDS.toNanos(5));
+
+        stats.endGame(GameResult.LOST);
+        stats.restore(10, 0, GameResult.IN_PROGRESS);
+        assertThrows(IndexOutOfBoundsException.class, () -> stats.getSplitNanos(10));
+        stats.incrementMovesMade();
+        assertTrue(stats.getSplitNanos(10) >= stats.getSplitNanos(9));
+    }
+}
@@ -0,0 +1,78 @@
+package org.macan.minesweeper.game;
+
+import org.junit.jupiter.api.Test;
+import org.macan.minesweeper.common.GameStats;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoardCodecTest {
+
+    @Test
+    void testSeededBoardRoundTripsThroughToken() {
+        GameBoard board = new GameBoard(14, 18, 63, new HashMap<>(), new HashSet<>(), new GameStats());
+        board.initializeGame(123456789L);
+
+        byte[] token = BoardCodec.encode(board);
+        String code = BoardCodec.encodeToString(board);
+        assertEquals(BoardCodec.TOKEN_LENGTH, token.length);
+        assertEquals(22, code.length());
+
+        GameBoard decoded = BoardCodec.decode(code);
+        assertTrue(decoded.isSeeded());
+        assertEquals(board.getSeed(), decoded.getSeed());
+        assertSameLayout(board, decoded);
+    }
+
+    @Test
+    void testPredefinedLayoutRoundTrips() {
+        GameBoard board = new GameBoard(4, 5, 4, new HashMap<>(), new HashSet<>(), new GameStats(), new TorusTopology());
+        board.initializeGame(Arrays.asList("0_0", "0_1", "2_4", "3_4"));
+
+        GameBoard decoded = BoardCodec.decode(BoardCodec.encodeToString(board));
+        assertFalse(decoded.isSeeded());
+        assertTrue(decoded.getTopology() instanceof TorusTopology);
+        assertSameLayout(board, decoded);
+    }
+
+    @Test
+    void testRejectsUnknownGeneratorVersion() {
+        GameBoard board = new GameBoard(8, 10, 12, new HashMap<>(), new HashSet<>(), new GameStats());
+        board.initializeGame(1L);
+        byte[] token = BoardCodec.toToken(board);
+        token[0] = (byte) (token[0] & 0xF0 | (GameBoard.GENERATOR_VERSION + 1));
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.decode(token));
+    }
+
+    @Test
+    void testRejectsOversizedBoards() {
+        GameBoard board = new GameBoard(8, 10, 12, new HashMap<>(), new HashSet<>(), new GameStats());
+        board.initializeGame(1L);
+        byte[] token = BoardCodec.toToken(board);
+        for (int i = 1; i <= 4; i++) {
+            token[i] = (byte) 0xFF;
+        }
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.decode(token));
+
+        byte[] layout = {(byte) 0x80, (byte) 0xFF, (byte) 0xFF, 0x03, (byte) 0xFF, (byte) 0xFF, 0x03, 0x01, 0x00, 0x01};
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.decode(layout));
+    }
+
+    private static void assertSameLayout(GameBoard expected, GameBoard actual) {
+        assertEquals(expected.getGridRows(), actual.getGridRows());
+        assertEquals(expected.getGridColumns(), actual.getGridColumns());
+        assertEquals(expected.getTotalMines(), actual.getTotalMines());
+        for (int row = 0; row < expected.getGridRows(); row++) {
+            for (int col = 0; col < expected.getGridColumns(); col++) {
+                assertEquals(expected.getGridCell(row, col).isMine(), actual.getGridCell(row, col).isMine());
+                assertEquals(expected.getGridCell(row, col).getAdjacentMines(), actual.getGridCell(row, col).getAdjacentMines());
+            }
+        }
+    }
+}
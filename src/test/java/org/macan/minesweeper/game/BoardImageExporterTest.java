@@ -0,0 +1,89 @@
+package org.macan.minesweeper.game;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.macan.minesweeper.common.GameStats;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoardImageExporterTest {
+
+    @Test
+    void testTilesCoverTheBoardWithGuiColors(@TempDir Path directory) throws IOException, InterruptedException {
+        GameBoard board = new GameBoard(50, 70, 2, new HashMap<>(), new HashSet<>(), new GameStats());
+        board.initializeGame(Arrays.asList("0_0", "49_69"));
+        board.toggleFlag(0, 0);
+        board.revealCell(0, 1);
+
+        int tiles = new BoardImageExporter(5, 16, 1000, 3).export(board.asView(), directory);
+        assertEquals(20, tiles);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(21, files.count());
+        }
+
+        BufferedImage first = ImageIO.read(directory.resolve("tile-0-0.png").toFile());
+        assertEquals(80, first.getWidth());
+        assertEquals(MinesweeperGUI.FLAG_COLOR.getRGB(), first.getRGB(2, 2));
+        assertEquals(Color.GREEN.getRGB(), first.getRGB(7, 2));
+        assertEquals(Color.BLACK.getRGB(), first.getRGB(5, 2));
+
+        BufferedImage last = ImageIO.read(directory.resolve("tile-3-4.png").toFile());
+        assertEquals(6 * 5, last.getWidth());
+        assertEquals(2 * 5, last.getHeight());
+        Color hidden = (49 + 69) % 2 == 0 ? MinesweeperGUI.GREEN : MinesweeperGUI.LIGHT_GREEN;
+        assertEquals(hidden.getRGB(), last.getRGB(27, 7));
+    }
+
+    @Test
+    void testOverviewIsDownsampledForLargeBoards(@TempDir Path directory) throws IOException, InterruptedException {
+        GameBoard board = new GameBoard(300, 500, 0, new HashMap<>(), new HashSet<>(), new GameStats());
+        board.initializeGame(7L);
+
+        new BoardImageExporter(2, 128, 125, 2).export(board.asView(), directory);
+        BufferedImage overview = ImageIO.read(directory.resolve(BoardImageExporter.OVERVIEW_FILE).toFile());
+        assertEquals(125, overview.getWidth());
+        assertEquals(75, overview.getHeight());
+
+        Color average = new Color((MinesweeperGUI.GREEN.getRed() + MinesweeperGUI.LIGHT_GREEN.getRed()) / 2,
+                (MinesweeperGUI.GREEN.getGreen() + MinesweeperGUI.LIGHT_GREEN.getGreen()) / 2,
+                (MinesweeperGUI.GREEN.getBlue() + MinesweeperGUI.LIGHT_GREEN.getBlue()) / 2);
+        assertEquals(average.getRGB(), overview.getRGB(10, 10));
+    }
+
+    @Test
+    void testExportReplacesTilesOfALargerBoard(@TempDir Path directory) throws IOException, InterruptedException {
+        GameBoard large = new GameBoard(40, 40, 0, new HashMap<>(), new HashSet<>(), new GameStats());
+        large.initializeGame(1L);
+        BoardImageExporter exporter = new BoardImageExporter(2, 10, 100, 2);
+        assertEquals(16, exporter.export(large.asView(), directory));
+        Files.write(directory.resolve("notes.txt"), new byte[]{1});
+
+        GameBoard small = new GameBoard(15, 15, 0, new HashMap<>(), new HashSet<>(), new GameStats());
+        small.initializeGame(1L);
+        assertEquals(4, exporter.export(small.asView(), directory));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(6, files.count());
+        }
+        assertFalse(Files.exists(directory.resolve("tile-3-3.png")));
+        assertTrue(Files.exists(directory.resolve("notes.txt")));
+    }
+
+    @Test
+    void testRejectsOversizedTiles() {
+        assertThrows(IllegalArgumentException.class, () -> new BoardImageExporter(64, 1024, 2048, 1));
+    }
+}
@@ -0,0 +1,70 @@
+package org.macan.minesweeper.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DifferentialFuzzTest {
+
+    @Test
+    void testAlternativeEnginesMatchReference() {
+        DifferentialFuzzer fuzzer = new DifferentialFuzzer();
+        fuzzer.addAlternative("single-move", DifferentialFuzzer::singleMoves);
+        fuzzer.addAlternative("batch", board -> engine(board, move -> board.applyMoves(new int[]{move})));
+        fuzzer.addAlternative("parallel", board -> {
+            board.setParallelRevealTileSize(1 + board.getGridRows() % 5);
+            return DifferentialFuzzer.singleMoves(board);
+        });
+        fuzzer.addAlternative("undo-replay", board -> {
+            DifferentialFuzzer.Engine singleMoves = DifferentialFuzzer.singleMoves(board);
+            return engine(board, move -> {
+                BoardSnapshot snapshot = board.snapshot();
+                singleMoves.apply(move);
+                board.restore(snapshot);
+                singleMoves.apply(move);
+            });
+        });
+
+        DifferentialFuzzer.Failure failure = fuzzer.fuzz(2024, 500, 60);
+
+        assertNull(failure, () -> String.valueOf(failure));
+    }
+
+    @Test
+    void testFailureIsShrunkToMinimalReproducer() {
+        DifferentialFuzzer fuzzer = new DifferentialFuzzer();
+        fuzzer.addAlternative("no-chord", board -> {
+            DifferentialFuzzer.Engine singleMoves = DifferentialFuzzer.singleMoves(board);
+            return engine(board, move -> {
+                if (Moves.getType(move) != Moves.CHORD) {
+                    singleMoves.apply(move);
+                }
+            });
+        });
+
+        DifferentialFuzzer.Failure failure = fuzzer.fuzz(7, 200, 60);
+
+        assertNotNull(failure);
+        assertEquals(Moves.CHORD, Moves.getType(failure.moves[failure.moves.length - 1]));
+        assertTrue(failure.moves.length <= 10, failure::toString);
+    }
+
+    private static DifferentialFuzzer.Engine engine(GameBoard board, IntConsumer apply) {
+        return new DifferentialFuzzer.Engine() {
+            @Override
+            public void apply(int move) {
+                apply.accept(move);
+            }
+
+            @Override
+            public GameBoard getBoard() {
+                return board;
+            }
+        };
+    }
+}
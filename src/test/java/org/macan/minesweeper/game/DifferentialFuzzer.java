@@ -0,0 +1,461 @@
+package org.macan.minesweeper.game;
+
+import org.macan.minesweeper.common.GameResult;
+import org.macan.minesweeper.common.GameStats;
+import org.macan.minesweeper.common.GridCell;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * The DifferentialFuzzer class checks GameBoard engines against an independent naive reference board.
+ * Every case is a random board and a random move sequence derived from a seed. The reference plays the moves on a
+ * {@link NaiveBoard}, which shares no move code with GameBoard, each alternative plays them on its own GameBoard,
+ * and the complete cell state, revealed count, game result and flag count are compared after every move.
+ * Cases run in parallel; the first failing case is shrunk to a minimal move sequence that still fails.
+ */
+final class DifferentialFuzzer {
+    private static final BoardTopology[] TOPOLOGIES = {new RectangleTopology(), new TorusTopology(), new HexTopology()};
+
+    /**
+     * A board engine under test, applying moves encoded with {@link Moves#encode(int, int)}.
+     */
+    interface Engine {
+        void apply(int move);
+
+        GameBoard getBoard();
+    }
+
+    private final Map<String, Function<GameBoard, Engine>> alternatives = new LinkedHashMap<>();
+
+    /**
+     * Registers an alternative engine.
+     *
+     * @param name    the name used in failure reports
+     * @param factory creates the engine around a freshly initialized board
+     */
+    void addAlternative(String name, Function<GameBoard, Engine> factory) {
+        alternatives.put(name, factory);
+    }
+
+    /**
+     * Runs a number of seeded cases against every alternative engine.
+     *
+     * @param seed         the seed of the run
+     * @param cases        the number of cases
+     * @param movesPerCase the number of moves in each case
+     * @return the shrunk failure of the first failing case, or null if every engine matched the reference
+     */
+    Failure fuzz(long seed, int cases, int movesPerCase) {
+        Optional<Failure> failure = IntStream.range(0, cases).parallel()
+                .mapToObj(c -> runCase(seed * 1_000_003L + c, movesPerCase))
+                .filter(Objects::nonNull)
+                .findFirst();
+        return failure.map(this::shrink).orElse(null);
+    }
+
+    private Failure runCase(long caseSeed, int moveCount) {
+        Random random = new Random(caseSeed);
+        BoardSpec spec = BoardSpec.random(random);
+        int[] moves = generateMoves(spec, random, moveCount);
+        for (Map.Entry<String, Function<GameBoard, Engine>> alternative : alternatives.entrySet()) {
+            String mismatch = replay(spec, moves, alternative.getValue());
+            if (mismatch != null) {
+                return new Failure(alternative.getKey(), spec, moves, mismatch);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Generates moves by playing them on a scratch reference board, so that chords target revealed numbers and
+     * flags usually land on mines. Moves continue after the game ends to cover the behaviour of finished games.
+     */
+    private static int[] generateMoves(BoardSpec spec, Random random, int count) {
+        NaiveBoard board = new NaiveBoard(spec);
+        int[] moves = new int[count];
+        for (int m = 0; m < count; m++) {
+            int roll = random.nextInt(10);
+            int move;
+            if (roll < 5) {
+                move = Moves.encode(Moves.REVEAL, pickCell(board, random, false, false));
+            } else if (roll < 7) {
+                move = Moves.encode(Moves.FLAG, pickCell(board, random, random.nextInt(4) != 0, false));
+            } else {
+                move = Moves.encode(Moves.CHORD, pickCell(board, random, false, true));
+            }
+            moves[m] = move;
+            board.apply(move);
+        }
+        return moves;
+    }
+
+    private static int pickCell(NaiveBoard board, Random random, boolean mine, boolean revealed) {
+        int cellCount = board.rows * board.columns;
+        int cell = random.nextInt(cellCount);
+        for (int attempt = 0; attempt < 20; attempt++) {
+            GridCell gridCell = board.grid[cell / board.columns][cell % board.columns];
+            if ((!mine || gridCell.isMine()) && gridCell.isRevealed() == revealed) {
+                return cell;
+            }
+            cell = random.nextInt(cellCount);
+        }
+        return cell;
+    }
+
+    /**
+     * Plays a move sequence on the reference engine and an alternative.
+     *
+     * @return a description of the first difference, or null if the engines agreed after every move
+     */
+    private static String replay(BoardSpec spec, int[] moves, Function<GameBoard, Engine> alternative) {
+        NaiveBoard expected = new NaiveBoard(spec);
+        Engine actual = alternative.apply(spec.create());
+        for (int m = 0; m < moves.length; m++) {
+            String mismatch;
+            try {
+                expected.apply(moves[m]);
+                actual.apply(moves[m]);
+                mismatch = compare(expected, actual.getBoard());
+            } catch (RuntimeException e) {
+                mismatch = e.toString();
+            }
+            if (mismatch != null) {
+                return "after move " + m + " (" + describe(moves[m]) + "): " + mismatch;
+            }
+        }
+        return null;
+    }
+
+    private static String compare(NaiveBoard expected, GameBoard actual) {
+        for (int row = 0; row < expected.rows; row++) {
+            for (int col = 0; col < expected.columns; col++) {
+                GridCell e = expected.grid[row][col];
+                GridCell a = actual.getGridCell(row, col);
+                if (e.isRevealed() != a.isRevealed() || e.isFlagged() != a.isFlagged()) {
+                    return "cell " + row + "_" + col + " expected revealed=" + e.isRevealed() + " flagged=" + e.isFlagged()
+                            + " but was revealed=" + a.isRevealed() + " flagged=" + a.isFlagged();
+                }
+            }
+        }
+        GameStats a = actual.getGameStats();
+        if (expected.revealedCount != actual.getRevealedCount()) {
+            return "revealed count expected " + expected.revealedCount + " but was " + actual.getRevealedCount();
+        }
+        if (expected.gameResult != a.getGameResult() || expected.showingAll != actual.isShowingAll()) {
+            return "result expected " + expected.gameResult + " but was " + a.getGameResult();
+        }
+        if (expected.minesUncovered != a.getMinesUncovered()) {
+            return "mines uncovered expected " + expected.minesUncovered + " but was " + a.getMinesUncovered();
+        }
+        return null;
+    }
+
+    /**
+     * Removes chunks of moves, halving the chunk size down to single moves, as long as the case keeps failing.
+     */
+    private Failure shrink(Failure failure) {
+        Function<GameBoard, Engine> alternative = alternatives.get(failure.engine);
+        int[] moves = failure.moves;
+        String mismatch = failure.mismatch;
+        for (int chunk = Math.max(1, moves.length / 2); chunk >= 1; chunk /= 2) {
+            boolean removed = true;
+            while (removed) {
+                removed = false;
+                for (int start = 0; start < moves.length; start += chunk) {
+                    int[] candidate = remove(moves, start, Math.min(moves.length, start + chunk));
+                    String candidateMismatch = replay(failure.spec, candidate, alternative);
+                    if (candidateMismatch != null) {
+                        moves = candidate;
+                        mismatch = candidateMismatch;
+                        removed = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return new Failure(failure.engine, failure.spec, moves, mismatch);
+    }
+
+    private static int[] remove(int[] moves, int from, int to) {
+        int[] result = new int[moves.length - (to - from)];
+        System.arraycopy(moves, 0, result, 0, from);
+        System.arraycopy(moves, to, result, from, moves.length - to);
+        return result;
+    }
+
+    /**
+     * An engine driving a plain GameBoard through its single-move methods.
+     */
+    static Engine singleMoves(GameBoard board) {
+        return new Engine() {
+            @Override
+            public void apply(int move) {
+                int row = board.getCellRow(Moves.getCellIndex(move));
+                int col = board.getCellCol(Moves.getCellIndex(move));
+                switch (Moves.getType(move)) {
+                    case Moves.REVEAL:
+                        board.revealCell(row, col);
+                        break;
+                    case Moves.FLAG:
+                        board.toggleFlag(row, col);
+                        break;
+                    default:
+                        board.chord(row, col);
+                }
+            }
+
+            @Override
+            public GameBoard getBoard() {
+                return board;
+            }
+        };
+    }
+
+    private static String describe(int move) {
+        String[] types = {"REVEAL", "FLAG", "CHORD"};
+        return types[Moves.getType(move)] + " " + Moves.getCellIndex(move);
+    }
+
+    /**
+     * The reference engine: a deliberately naive board mirroring the original GameBoard, a grid of GridCell objects
+     * revealed with a LinkedList breadth-first search. It shares only the mine layout generator and the topologies
+     * with GameBoard, so a bug in GameBoard's packed-state reveal, flag or chord code shows up as a difference.
+     */
+    static final class NaiveBoard {
+        private final int rows;
+        private final int columns;
+        private final int mines;
+        private final BoardTopology topology;
+        private final GridCell[][] grid;
+        private final int[] neighbours;
+        private int revealedCount;
+        private int minesUncovered;
+        private GameResult gameResult = GameResult.IN_PROGRESS;
+        private boolean showingAll;
+
+        NaiveBoard(BoardSpec spec) {
+            rows = spec.rows;
+            columns = spec.columns;
+            mines = spec.mines;
+            topology = spec.topology;
+            neighbours = new int[2 * topology.getMaxNeighbours()];
+            grid = new GridCell[rows][columns];
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < columns; col++) {
+                    grid[row][col] = new GridCell(row, col);
+                }
+            }
+            BitSet layout = GameBoard.generateMineLayout(rows, columns, mines, spec.layoutSeed);
+            for (int mine = layout.nextSetBit(0); mine >= 0; mine = layout.nextSetBit(mine + 1)) {
+                grid[mine / columns][mine % columns].setMine(true);
+                for (GridCell neighbour : neighbours(grid[mine / columns][mine % columns])) {
+                    neighbour.incrementAdjacentMines();
+                }
+            }
+        }
+
+        void apply(int move) {
+            int cell = Moves.getCellIndex(move);
+            GridCell gridCell = grid[cell / columns][cell % columns];
+            switch (Moves.getType(move)) {
+                case Moves.REVEAL:
+                    reveal(gridCell);
+                    break;
+                case Moves.FLAG:
+                    toggleFlag(gridCell);
+                    break;
+                default:
+                    chord(gridCell);
+            }
+        }
+
+        private void reveal(GridCell cell) {
+            if (showingAll || cell.isRevealed()) {
+                return;
+            }
+            Queue<GridCell> queue = new LinkedList<>();
+            queue.add(cell);
+            if (flood(queue)) {
+                checkWin();
+            }
+        }
+
+        /**
+         * Reveals the queued cells and every cell reached through zero cells.
+         *
+         * @return false if a mine was revealed and the game lost
+         */
+        private boolean flood(Queue<GridCell> queue) {
+            while (!queue.isEmpty()) {
+                GridCell cell = queue.poll();
+                if (cell.isRevealed()) {
+                    continue;
+                }
+                cell.setRevealed(true);
+                revealedCount++;
+                if (cell.isMine()) {
+                    lose();
+                    return false;
+                }
+                if (cell.getAdjacentMines() == 0) {
+                    for (GridCell neighbour : neighbours(cell)) {
+                        if (!neighbour.isRevealed()) {
+                            queue.add(neighbour);
+                        }
+                    }
+                }
+            }
+            return true;
+        }
+
+        private void toggleFlag(GridCell cell) {
+            if (showingAll || cell.isRevealed()) {
+                return;
+            }
+            cell.setFlagged(!cell.isFlagged());
+            minesUncovered += cell.isFlagged() ? 1 : -1;
+        }
+
+        private void chord(GridCell cell) {
+            if (showingAll || !cell.isRevealed() || cell.isMine() || cell.getAdjacentMines() == 0) {
+                return;
+            }
+            List<GridCell> around = neighbours(cell);
+            int flagged = 0;
+            for (GridCell neighbour : around) {
+                if (neighbour.isFlagged()) {
+                    flagged++;
+                }
+            }
+            if (flagged != cell.getAdjacentMines()) {
+                return;
+            }
+            List<GridCell> opened = new ArrayList<>();
+            boolean mineHit = false;
+            for (GridCell neighbour : around) {
+                if (!neighbour.isFlagged() && !neighbour.isRevealed()) {
+                    neighbour.setRevealed(true);
+                    revealedCount++;
+                    opened.add(neighbour);
+                    mineHit |= neighbour.isMine();
+                }
+            }
+            if (mineHit) {
+                lose();
+                return;
+            }
+            Queue<GridCell> queue = new LinkedList<>();
+            for (GridCell neighbour : opened) {
+                if (neighbour.getAdjacentMines() == 0) {
+                    for (GridCell next : neighbours(neighbour)) {
+                        if (!next.isRevealed()) {
+                            queue.add(next);
+                        }
+                    }
+                }
+            }
+            flood(queue);
+            if (!opened.isEmpty()) {
+                checkWin();
+            }
+        }
+
+        private void lose() {
+            minesUncovered++;
+            gameResult = GameResult.LOST;
+            showingAll = true;
+        }
+
+        private void checkWin() {
+            if (!showingAll && revealedCount == rows * columns - mines) {
+                gameResult = GameResult.WON;
+                showingAll = true;
+            }
+        }
+
+        private List<GridCell> neighbours(GridCell cell) {
+            int count = topology.getNeighbours(cell.getRow(), cell.getCol(), rows, columns, neighbours);
+            List<GridCell> result = new ArrayList<>(count);
+            for (int k = 0; k < count; k++) {
+                result.add(grid[neighbours[2 * k]][neighbours[2 * k + 1]]);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * The parameters a case board is built from.
+     */
+    static final class BoardSpec {
+        private final int rows;
+        private final int columns;
+        private final int mines;
+        private final BoardTopology topology;
+        private final long layoutSeed;
+
+        private BoardSpec(int rows, int columns, int mines, BoardTopology topology, long layoutSeed) {
+            this.rows = rows;
+            this.columns = columns;
+            this.mines = mines;
+            this.topology = topology;
+            this.layoutSeed = layoutSeed;
+        }
+
+        private static BoardSpec random(Random random) {
+            int rows = 1 + random.nextInt(24);
+            int columns = 1 + random.nextInt(24);
+            int mines = random.nextInt(1 + rows * columns * 3 / 10);
+            return new BoardSpec(rows, columns, mines, TOPOLOGIES[random.nextInt(TOPOLOGIES.length)], random.nextLong());
+        }
+
+        private GameBoard create() {
+            GameBoard board = new GameBoard(rows, columns, mines, new HashMap<>(), new HashSet<>(), new GameStats(), topology);
+            board.initializeGame(layoutSeed);
+            return board;
+        }
+    }
+
+    /**
+     * A failing case, with everything needed to reproduce it.
+     */
+    static final class Failure {
+        final String engine;
+        final BoardSpec spec;
+        final int[] moves;
+        final String mismatch;
+
+        private Failure(String engine, BoardSpec spec, int[] moves, String mismatch) {
+            this.engine = engine;
+            this.spec = spec;
+            this.moves = moves;
+            this.mismatch = mismatch;
+        }
+
+        @Override
+        public String toString() {
+            List<String> described = new ArrayList<>();
+            for (int move : moves) {
+                described.add(describe(move));
+            }
+            return "Engine '" + engine + "' diverged from the reference " + mismatch + System.lineSeparator()
+                    + "  board: " + BoardCodec.encodeToString(spec.create()) + " (" + spec.rows + "x" + spec.columns + ", "
+                    + spec.mines + " mines, " + spec.topology.getClass().getSimpleName() + ", seed " + spec.layoutSeed + ")"
+                    + System.lineSeparator() + "  moves: " + described + System.lineSeparator()
+                    + "  encoded: " + Arrays.toString(moves);
+        }
+    }
+}
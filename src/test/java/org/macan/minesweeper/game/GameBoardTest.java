@@ -7,12 +7,15 @@ import org.macan.minesweeper.common.GameResult;
 import org.macan.minesweeper.common.GameStats;
 import org.macan.minesweeper.common.GridCell;
 
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class GameBoardTest {
@@ -121,4 +124,307 @@ class GameBoardTest {
         assertEquals(2, cell.getRow());
         assertEquals(3, cell.getCol());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testThreeBVSingleOpening() {
+        GameBoard board = createBoard(3, 3, "0_0");
+        assertEquals(1, board.getOpeningCount());
+        assertEquals(1, board.getThreeBV());
+        assertEquals(GameBoard.NO_OPENING, board.getOpeningId(0, 0));
+        assertEquals(board.getOpeningId(2, 2), board.getOpeningId(1, 1));
+    }
+
+    @Test
+    void testThreeBVSeparateOpenings() {
+        GameBoard board = createBoard(3, 3, "0_0", "2_2");
+        assertEquals(2, board.getOpeningCount());
+        assertEquals(2, board.getThreeBV());
+        Assertions.assertNotEquals(board.getOpeningId(0, 2), board.getOpeningId(2, 0));
+    }
+
+    @Test
+    void testThreeBVIsolatedNumbers() {
+        GameBoard board = createBoard(3, 3, "0_1", "2_1");
+        assertEquals(0, board.getOpeningCount());
+        assertEquals(7, board.getThreeBV());
+        assertEquals(7, board.getGameStats().getThreeBV());
+    }
+
+    @Test
+    void testGameOverShowsAllWithoutRevealingCells() {
+        GameBoard board = createBoard(3, 3, "0_0", "2_2");
+        board.revealCell(0, 2);
+        board.revealCell(0, 0);
+        assertEquals(GameResult.LOST, board.getGameStats().getGameResult());
+        assertTrue(board.isShowingAll());
+        assertTrue(board.isCellVisible(2, 0));
+        Assertions.assertFalse(board.getGridCell(2, 0).isRevealed());
+        assertTrue(board.getGridCell(0, 2).isRevealed());
+
+        board.revealCell(2, 0);
+        Assertions.assertFalse(board.getGridCell(2, 0).isRevealed());
+    }
+
+    @Test
+    void testRestoreSnapshotUndoesMoves() {
+        GameBoard board = createBoard(3, 3, "0_0", "2_2");
+        BoardSnapshot initial = board.snapshot();
+        board.revealCell(0, 2);
+        assertTrue(board.toggleFlag(2, 2));
+        BoardSnapshot afterOpening = board.snapshot();
+        board.revealCell(0, 0);
+        assertEquals(GameResult.LOST, board.getGameStats().getGameResult());
+
+        board.restore(afterOpening);
+        assertEquals(GameResult.IN_PROGRESS, board.getGameStats().getGameResult());
+        Assertions.assertFalse(board.isShowingAll());
+        Assertions.assertFalse(board.getGridCell(0, 0).isRevealed());
+        assertTrue(board.getGridCell(0, 2).isRevealed());
+        assertTrue(board.getGridCell(2, 2).isFlagged());
+
+        board.restore(initial);
+        Assertions.assertFalse(board.getGridCell(0, 2).isRevealed());
+        Assertions.assertFalse(board.getGridCell(2, 2).isFlagged());
+        assertEquals(0, board.getGameStats().getMinesUncovered());
+        Assertions.assertThrows(IllegalStateException.class, () -> board.restore(afterOpening));
+    }
+
+    @Test
+    void testRestoreRejectsSnapshotInvalidatedBeforeTrailGrewBack() {
+        GameBoard board = createBoard(3, 3, "0_0", "2_2");
+        BoardSnapshot initial = board.snapshot();
+        board.revealCell(0, 1);
+        BoardSnapshot later = board.snapshot();
+        board.revealCell(1, 0);
+        board.restore(initial);
+        board.revealCell(1, 1);
+        board.revealCell(2, 1);
+        board.revealCell(1, 2);
+
+        Assertions.assertThrows(IllegalStateException.class, () -> board.restore(later));
+        assertTrue(board.getGridCell(1, 2).isRevealed());
+        board.restore(initial);
+        Assertions.assertFalse(board.getGridCell(1, 1).isRevealed());
+    }
+
+    @Test
+    void testReleasingLastSnapshotStopsRecordingChanges() {
+        GameBoard board = createBoard(3, 3, "0_0", "2_2");
+        BoardSnapshot first = board.snapshot();
+        board.revealCell(0, 1);
+        BoardSnapshot second = board.snapshot();
+        board.revealCell(1, 0);
+        assertEquals(2, board.getTrailSize());
+
+        board.release(first);
+        assertEquals(1, board.getTrailSize());
+        board.release(second);
+        assertEquals(0, board.getTrailSize());
+        board.revealCell(1, 1);
+        assertEquals(0, board.getTrailSize());
+        Assertions.assertThrows(IllegalStateException.class, () -> board.restore(second));
+    }
+
+    @Test
+    void testTorusTopologyWrapsAdjacency() {
+        GameBoard board = new GameBoard(3, 3, 1, new HashMap<>(), new HashSet<>(), new GameStats(), new TorusTopology());
+        board.initializeGame(Arrays.asList("0_0"));
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 3; col++) {
+                if (row != 0 || col != 0) {
+                    assertEquals(1, board.getGridCell(row, col).getAdjacentMines());
+                }
+            }
+        }
+        assertEquals(8, board.getThreeBV());
+    }
+
+    @Test
+    void testHexTopologyAdjacency() {
+        GameBoard board = new GameBoard(4, 4, 1, new HashMap<>(), new HashSet<>(), new GameStats(), new HexTopology());
+        board.initializeGame(Arrays.asList("1_1"));
+        int[][] neighbours = {{0, 1}, {0, 2}, {1, 0}, {1, 2}, {2, 1}, {2, 2}};
+        for (int[] neighbour : neighbours) {
+            assertEquals(1, board.getGridCell(neighbour[0], neighbour[1]).getAdjacentMines());
+        }
+        assertEquals(0, board.getGridCell(0, 0).getAdjacentMines());
+        assertEquals(0, board.getGridCell(2, 0).getAdjacentMines());
+    }
+
+    @Test
+    void testApplyMovesStopsAtTerminalResult() {
+        GameBoard board = createBoard(3, 3, "0_0", "2_2");
+        int[] moves = {
+                Moves.encode(Moves.FLAG, board.getCellIndex(2, 2)),
+                Moves.encode(Moves.REVEAL, board.getCellIndex(0, 2)),
+                Moves.encode(Moves.REVEAL, board.getCellIndex(0, 2)),
+                Moves.encode(Moves.REVEAL, board.getCellIndex(2, 0)),
+                Moves.encode(Moves.REVEAL, board.getCellIndex(0, 0))
+        };
+        MoveBatchResult result = board.applyMoves(moves);
+        Assertions.assertArrayEquals(new byte[]{Moves.OUTCOME_APPLIED, Moves.OUTCOME_APPLIED, Moves.OUTCOME_NO_CHANGE,
+                Moves.OUTCOME_WON, Moves.OUTCOME_SKIPPED}, result.getOutcomes());
+        assertEquals(3, result.getMovesApplied());
+        assertEquals(8, result.getChangedCells().cardinality());
+        assertEquals(GameResult.WON, board.getGameStats().getGameResult());
+        assertEquals(3, board.getGameStats().getMovesMade());
+    }
+
+    @Test
+    void testApplyMovesChord() {
+        GameBoard board = createBoard(3, 3, "0_0", "2_2");
+        int center = board.getCellIndex(1, 1);
+        MoveBatchResult result = board.applyMoves(new int[]{
+                Moves.encode(Moves.REVEAL, center),
+                Moves.encode(Moves.CHORD, center),
+                Moves.encode(Moves.FLAG, board.getCellIndex(0, 0)),
+                Moves.encode(Moves.FLAG, board.getCellIndex(2, 2)),
+                Moves.encode(Moves.CHORD, center)
+        });
+        Assertions.assertArrayEquals(new byte[]{Moves.OUTCOME_APPLIED, Moves.OUTCOME_NO_CHANGE, Moves.OUTCOME_APPLIED,
+                Moves.OUTCOME_APPLIED, Moves.OUTCOME_WON}, result.getOutcomes());
+    }
+
+    @Test
+    void testChordRevealsUnflaggedNeighboursWithOneFlood() {
+        GameBoard board = createBoard(4, 4, "0_0");
+        board.revealCell(1, 1);
+        assertTrue(board.chord(1, 1).isEmpty());
+
+        board.toggleFlag(0, 0);
+        BitSet changed = board.chord(1, 1);
+
+        assertEquals(14, changed.cardinality());
+        assertEquals(15, board.getRevealedCount());
+        assertEquals(GameResult.WON, board.getGameStats().getGameResult());
+    }
+
+    @Test
+    void testChordOnWrongFlagLosesGame() {
+        GameBoard board = createBoard(3, 3, "0_0");
+        board.revealCell(1, 1);
+        board.toggleFlag(0, 1);
+
+        BitSet changed = board.chord(1, 1);
+
+        assertTrue(changed.get(board.getCellIndex(0, 0)));
+        assertEquals(GameResult.LOST, board.getGameStats().getGameResult());
+    }
+
+    @Test
+    void testParallelRevealMatchesSequentialReveal() {
+        for (BoardTopology topology : new BoardTopology[]{new RectangleTopology(), new TorusTopology(), new HexTopology()}) {
+            GameBoard sequential = new GameBoard(300, 300, 900, new HashMap<>(), new HashSet<>(), new GameStats(), topology);
+            GameBoard parallel = new GameBoard(300, 300, 900, new HashMap<>(), new HashSet<>(), new GameStats(), topology);
+            sequential.initializeGame(42L);
+            parallel.initializeGame(42L);
+            parallel.setParallelRevealTileSize(32);
+            int start = 0;
+            while (sequential.getOpeningId(start / 300, start % 300) == GameBoard.NO_OPENING
+                    || sequential.getGridCell(start / 300, start % 300).getAdjacentMines() != 0) {
+                start++;
+            }
+            MoveBatchResult expected = sequential.applyMoves(new int[]{Moves.encode(Moves.REVEAL, start)});
+            MoveBatchResult actual = parallel.applyMoves(new int[]{Moves.encode(Moves.REVEAL, start)});
+            assertTrue(expected.getChangedCells().cardinality() > 1000);
+            assertEquals(expected.getChangedCells(), actual.getChangedCells());
+            assertEquals(sequential.getRevealedCount(), parallel.getRevealedCount());
+            assertEquals(sequential.getGameStats().getGameResult(), parallel.getGameStats().getGameResult());
+        }
+    }
+
+    @Test
+    void testMortonLayoutMatchesRowMajorLayout() {
+        for (BoardTopology topology : new BoardTopology[]{new RectangleTopology(), new TorusTopology(), new HexTopology()}) {
+            GameBoard rowMajor = new GameBoard(37, 53, 150, new HashMap<>(), new HashSet<>(), new GameStats(), topology);
+            GameBoard morton = new GameBoard(37, 53, 150, new HashMap<>(), new HashSet<>(), new GameStats(), topology,
+                    new MortonLayout(3));
+            rowMajor.initializeGame(7L);
+            morton.initializeGame(7L);
+            assertEquals(rowMajor.getThreeBV(), morton.getThreeBV());
+            int[] moves = new int[60];
+            for (int m = 0; m < moves.length; m++) {
+                moves[m] = Moves.encode(m % 7 == 0 ? Moves.FLAG : m % 5 == 0 ? Moves.CHORD : Moves.REVEAL, m * 31 % (37 * 53));
+            }
+            MoveBatchResult expected = rowMajor.applyMoves(moves);
+            MoveBatchResult actual = morton.applyMoves(moves);
+            assertEquals(expected.getChangedCells(), actual.getChangedCells());
+            assertEquals(rowMajor.getRevealedCount(), morton.getRevealedCount());
+            for (int row = 0; row < 37; row++) {
+                for (int col = 0; col < 53; col++) {
+                    assertEquals(rowMajor.getOpeningId(row, col), morton.getOpeningId(row, col));
+                    assertEquals(rowMajor.asView().getAdjacentMines(row, col), morton.asView().getAdjacentMines(row, col));
+                    assertEquals(rowMajor.asView().isFlagged(row, col), morton.asView().isFlagged(row, col));
+                    assertEquals(rowMajor.getGridCell(row, col).isRevealed(), morton.getGridCell(row, col).isRevealed());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testLayoutsStepToTheSameNeighbourSlotsAsTheyStore() {
+        CellLayout[] layouts = {new RowMajorLayout(), new MortonLayout(2), new MortonLayout(3), new MortonLayout()};
+        int rows = 37;
+        int cols = 53;
+        for (CellLayout layout : layouts) {
+            int[] stepped = new int[8];
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < cols; col++) {
+                    layout.getNeighbourSlots(layout.getSlot(row, col, cols), row, col, rows, cols, stepped);
+                    for (int k = 0; k < 8; k++) {
+                        int i = row + RectangleTopology.ROW_OFFSETS[k];
+                        int j = col + RectangleTopology.COL_OFFSETS[k];
+                        int expected = i >= 0 && i < rows && j >= 0 && j < cols ? layout.getSlot(i, j, cols) : -1;
+                        assertEquals(expected, stepped[k]);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testLayoutBoardsCreateGridCellsOnDemand() {
+        Map<String, GridCell> cells = new HashMap<>();
+        GameBoard board = new GameBoard(30, 40, 0, cells, new HashSet<>(), new GameStats(), new RectangleTopology(),
+                new MortonLayout());
+        board.initializeGame(3L);
+        assertTrue(cells.isEmpty());
+
+        GridCell cell = board.getGridCell(12, 17);
+        assertEquals(1, cells.size());
+        Assertions.assertFalse(cell.isRevealed());
+        board.revealCell(0, 0);
+        assertTrue(cell.isRevealed());
+        assertSame(cell, board.getGridCell(12, 17));
+
+        GridCell hidden = board.getGridCell(29, 39);
+        hidden.setFlagged(true);
+        assertTrue(board.asView().isFlagged(29, 39));
+        hidden.setFlagged(false);
+        Assertions.assertFalse(board.asView().isFlagged(29, 39));
+        hidden.setMine(true);
+        assertTrue(hidden.isMine());
+        hidden.incrementAdjacentMines();
+        assertEquals(1, hidden.getAdjacentMines());
+        assertEquals(1, board.getAdjacentMineCount(29, 39));
+    }
+
+    @Test
+    void testListenersAndBatchResultDoNotShareChangedCells() {
+        GameBoard board = createBoard(3, 3, "0_0", "2_2");
+        BitSet[] notified = new BitSet[1];
+        board.addChangeListener((changedBoard, changed) -> {
+            notified[0] = changed;
+            changed.clear();
+        });
+        MoveBatchResult result = board.applyMoves(new int[]{Moves.encode(Moves.REVEAL, board.getCellIndex(0, 2))});
+        assertTrue(result.getChangedCells().get(board.getCellIndex(0, 2)));
+        Assertions.assertNotSame(notified[0], result.getChangedCells());
+    }
+
+    private static GameBoard createBoard(int rows, int columns, String... mines) {
+        GameBoard board = new GameBoard(rows, columns, mines.length, new HashMap<>(), new HashSet<>(), new GameStats());
+        board.initializeGame(Arrays.asList(mines));
+        return board;
+    }
+}
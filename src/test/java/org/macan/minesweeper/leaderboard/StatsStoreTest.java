@@ -0,0 +1,93 @@
+package org.macan.minesweeper.leaderboard;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.macan.minesweeper.common.GameDifficulty;
+import org.macan.minesweeper.common.GameResult;
+import org.macan.minesweeper.common.GridSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StatsStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testTopRecordsAreBoundedAndSorted() throws IOException {
+        try (StatsStore store = new StatsStore(tempDir.resolve("stats.log"), 3, 1000)) {
+            appendGames(store);
+            List<GameRecord> top = store.getTopRecords(GridSize.SMALL, GameDifficulty.EASY);
+            assertEquals(3, top.size());
+            assertEquals(1000, top.get(0).getTimeMillis());
+            assertEquals(3000, top.get(2).getTimeMillis());
+            assertEquals(11, store.getGamesPlayed(GridSize.SMALL, GameDifficulty.EASY));
+            assertEquals(10, store.getGamesWon(GridSize.SMALL, GameDifficulty.EASY));
+            assertEquals(0, store.getGamesPlayed(GridSize.LARGE, GameDifficulty.EASY));
+        }
+    }
+
+    @Test
+    void testReopenAndCompactionKeepLeaderboard() throws IOException {
+        Path logFile = tempDir.resolve("stats.log");
+        try (StatsStore store = new StatsStore(logFile, 3, 1000)) {
+            appendGames(store);
+        }
+        long uncompactedSize = Files.size(logFile);
+        try (StatsStore store = new StatsStore(logFile, 3, 1000)) {
+            assertEquals(11, store.getGamesPlayed(GridSize.SMALL, GameDifficulty.EASY));
+            store.compact();
+        }
+        try (StatsStore store = new StatsStore(logFile, 3, 1000)) {
+            assertEquals(11, store.getGamesPlayed(GridSize.SMALL, GameDifficulty.EASY));
+            assertEquals(10, store.getGamesWon(GridSize.SMALL, GameDifficulty.EASY));
+            assertEquals(1000, store.getTopRecords(GridSize.SMALL, GameDifficulty.EASY).get(0).getTimeMillis());
+        }
+        // A torn write at the end of the log is dropped on load.
+        Files.write(logFile, new byte[]{1, 0, 0}, StandardOpenOption.APPEND);
+        try (StatsStore store = new StatsStore(logFile, 3, 1000)) {
+            assertEquals(11, store.getGamesPlayed(GridSize.SMALL, GameDifficulty.EASY));
+            store.append(new GameRecord(99, GridSize.SMALL, GameDifficulty.EASY, GameResult.WON, 500, 4, 4));
+        }
+        try (StatsStore store = new StatsStore(logFile, 3, 1000)) {
+            assertEquals(12, store.getGamesPlayed(GridSize.SMALL, GameDifficulty.EASY));
+            assertEquals(500, store.getTopRecords(GridSize.SMALL, GameDifficulty.EASY).get(0).getTimeMillis());
+        }
+        assertEquals(true, Files.size(logFile) < uncompactedSize + 28);
+    }
+
+    @Test
+    void testCorruptRecordsAreReportedWithoutTruncatingTheLog() throws IOException {
+        Path logFile = tempDir.resolve("stats.log");
+        try (StatsStore store = new StatsStore(logFile, 3, 1000)) {
+            appendGames(store);
+        }
+        byte[] valid = Files.readAllBytes(logFile);
+
+        byte[] unknownType = valid.clone();
+        unknownType[28] = 7;
+        Files.write(logFile, unknownType);
+        assertThrows(IOException.class, () -> new StatsStore(logFile, 3, 1000));
+        assertEquals(valid.length, Files.size(logFile));
+
+        byte[] badOrdinal = valid.clone();
+        badOrdinal[28 + 9] = 42;
+        Files.write(logFile, badOrdinal);
+        assertThrows(IOException.class, () -> new StatsStore(logFile, 3, 1000));
+        assertEquals(valid.length, Files.size(logFile));
+    }
+
+    private static void appendGames(StatsStore store) throws IOException {
+        for (int i = 10; i >= 1; i--) {
+            store.append(new GameRecord(i, GridSize.SMALL, GameDifficulty.EASY, GameResult.WON, i * 1000L, 10 + i, 8));
+        }
+        store.append(new GameRecord(11, GridSize.SMALL, GameDifficulty.EASY, GameResult.LOST, 10L, 1, 8));
+    }
+}
@@ -0,0 +1,95 @@
+package org.macan.minesweeper.library;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.macan.minesweeper.common.GameDifficulty;
+import org.macan.minesweeper.common.GridSize;
+import org.macan.minesweeper.game.GameBoard;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoardLibraryTest {
+
+    @Test
+    void testBoardsAreSortedIntoBandsAndReproducible(@TempDir Path directory) throws IOException, InterruptedException {
+        Path file = directory.resolve("boards.lib");
+        new BoardLibraryBuilder(40, 4, 2, 7).build(file);
+        BoardLibrary library = new BoardLibrary(file);
+
+        assertEquals(4, library.getBandCount());
+        for (GridSize gridSize : GridSize.values()) {
+            for (GameDifficulty difficulty : GameDifficulty.values()) {
+                assertEquals(40, library.getBoardCount(gridSize, difficulty));
+                for (int i = 1; i < 40; i++) {
+                    LibraryBoard previous = library.getBoard(gridSize, difficulty, i - 1);
+                    LibraryBoard next = library.getBoard(gridSize, difficulty, i);
+                    assertTrue(previous.getGuesses() <= next.getGuesses());
+                    if (previous.getGuesses() == next.getGuesses()) {
+                        assertTrue(previous.getThreeBV() <= next.getThreeBV());
+                    }
+                }
+            }
+        }
+        LibraryBoard easy = library.getBoardInBand(GridSize.MEDIUM, GameDifficulty.HARD, 0, 3);
+        LibraryBoard hard = library.getBoardInBand(GridSize.MEDIUM, GameDifficulty.HARD, 3, 3);
+        assertTrue(easy.getGuesses() < hard.getGuesses());
+        assertEquals(easy.getSeed(), library.getBoardInBand(GridSize.MEDIUM, GameDifficulty.HARD, 0, 3).getSeed());
+
+        GameBoard board = hard.createBoard();
+        assertEquals(hard.getThreeBV(), board.getThreeBV());
+        LibraryBoard rated = BoardLibraryBuilder.rate(GridSize.MEDIUM, GameDifficulty.HARD, hard.getSeed());
+        assertEquals(hard.getGuesses(), rated.getGuesses());
+        assertEquals(hard.getSolverSteps(), rated.getSolverSteps());
+
+        Path again = directory.resolve("again.lib");
+        new BoardLibraryBuilder(40, 4, 3, 7).build(again);
+        assertArrayEquals(Files.readAllBytes(file), Files.readAllBytes(again));
+    }
+
+    @Test
+    void testRatingSolverFinishesEveryBoardAndCountsGuesses() {
+        for (GridSize gridSize : GridSize.values()) {
+            int[] guesses = new int[GameDifficulty.values().length];
+            for (GameDifficulty difficulty : GameDifficulty.values()) {
+                for (long seed = 0; seed < 20; seed++) {
+                    LibraryBoard rated = BoardLibraryBuilder.rate(gridSize, difficulty, seed);
+                    assertTrue(rated.getSolverSteps() > rated.getGuesses());
+                    guesses[difficulty.ordinal()] += rated.getGuesses();
+                }
+            }
+            assertTrue(guesses[GameDifficulty.EASY.ordinal()] < guesses[GameDifficulty.HARD.ordinal()]);
+        }
+    }
+
+    @Test
+    void testFindsBoardsByThreeBVRange(@TempDir Path directory) throws IOException, InterruptedException {
+        Path file = directory.resolve("boards.lib");
+        new BoardLibraryBuilder(30, 3, 2, 11).build(file);
+        BoardLibrary library = new BoardLibrary(file);
+
+        int threeBV = library.getBoard(GridSize.SMALL, GameDifficulty.EASY, 15).getThreeBV();
+        for (long pick = 0; pick < 10; pick++) {
+            LibraryBoard found = library.findBoard(GridSize.SMALL, GameDifficulty.EASY, threeBV, threeBV, pick);
+            assertNotNull(found);
+            assertEquals(threeBV, found.getThreeBV());
+        }
+        assertNull(library.findBoard(GridSize.SMALL, GameDifficulty.EASY, 10000, Integer.MAX_VALUE, 0));
+        assertThrows(IllegalArgumentException.class, () -> library.getBoardInBand(GridSize.SMALL, GameDifficulty.EASY, 3, 0));
+    }
+
+    @Test
+    void testRejectsOtherFiles(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("boards.lib");
+        Files.write(file, new byte[64]);
+        assertThrows(IOException.class, () -> new BoardLibrary(file));
+    }
+}
@@ -0,0 +1,35 @@
+package org.macan.minesweeper.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.macan.minesweeper.common.GameDifficulty;
+import org.macan.minesweeper.common.GridSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadGeneratorTest {
+
+    @Test
+    void testRunWritesComparableReport(@TempDir Path directory) throws InterruptedException, IOException {
+        LoadGenerator generator = new LoadGenerator(GridSize.SMALL, GameDifficulty.EASY, 8, 2, true, true, 200, 1);
+        LoadReport report = generator.run();
+        Path file = directory.resolve("report.txt");
+        report.writeTo(file);
+
+        assertTrue(report.getMoves() > 0);
+        assertTrue(report.getGames() > 0);
+        assertTrue(report.getMoveLatencies().getCount() > 0);
+        assertTrue(report.getAllocationBytesPerSecond() > 0);
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(20, lines.size());
+        assertTrue(lines.stream().anyMatch(line -> line.startsWith("latency.p999.micros=")));
+        assertTrue(lines.contains("sessions=8"));
+    }
+}
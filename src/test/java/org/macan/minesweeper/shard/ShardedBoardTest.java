@@ -0,0 +1,135 @@
+package org.macan.minesweeper.shard;
+
+import org.junit.jupiter.api.Test;
+import org.macan.minesweeper.common.GameResult;
+import org.macan.minesweeper.common.GameStats;
+import org.macan.minesweeper.game.BoardView;
+import org.macan.minesweeper.game.GameBoard;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardedBoardTest {
+    private static final int ROWS = 120;
+    private static final int COLUMNS = 100;
+    private static final int MINES = 600;
+    private static final long SEED = 2024;
+
+    @Test
+    void testCrossShardRevealMatchesSingleProcessBoard() throws IOException {
+        BitSet layout = new BlockMineLayout(ROWS, COLUMNS, MINES, SEED).generate(0, ROWS, 0, COLUMNS);
+        List<String> mineLocations = new ArrayList<>();
+        for (int mine = layout.nextSetBit(0); mine >= 0; mine = layout.nextSetBit(mine + 1)) {
+            mineLocations.add(mine / COLUMNS + "_" + mine % COLUMNS);
+        }
+        GameBoard reference = new GameBoard(ROWS, COLUMNS, MINES, new HashMap<>(), new HashSet<>(), new GameStats());
+        reference.initializeGame(mineLocations);
+        BoardView view = reference.asView();
+
+        try (ShardedBoard sharded = new ShardedBoard(ROWS, COLUMNS, MINES, SEED, 2, 2)) {
+            int crossShardReveals = 0;
+            byte[] before = sharded.getCellStates(0, ROWS, 0, COLUMNS);
+            for (int row = 0; row < ROWS && crossShardReveals < 3; row += 7) {
+                for (int col = 0; col < COLUMNS; col += 5) {
+                    if (view.isRevealed(row, col) || !isZeroCell(layout, row, col)) {
+                        continue;
+                    }
+                    reference.revealCell(row, col);
+                    sharded.revealCell(row, col);
+                    byte[] states = sharded.getCellStates(0, ROWS, 0, COLUMNS);
+                    assertArrayEquals(referenceStates(view), states);
+                    if (crossesShards(before, states)) {
+                        crossShardReveals++;
+                    }
+                    before = states;
+                }
+            }
+            assertTrue(crossShardReveals > 0, "no reveal crossed a shard border");
+            assertEquals(reference.getRevealedCount(), sharded.getRevealedCount());
+            assertEquals(GameResult.IN_PROGRESS, sharded.getGameResult());
+
+            byte[] region = sharded.getCellStates(50, 70, 40, 60);
+            byte[] states = referenceStates(view);
+            for (int row = 50; row < 70; row++) {
+                for (int col = 40; col < 60; col++) {
+                    assertEquals(states[row * COLUMNS + col], region[(row - 50) * 20 + col - 40]);
+                }
+            }
+
+            int mine = layout.nextSetBit(0);
+            sharded.revealCell(mine / COLUMNS, mine % COLUMNS);
+            assertEquals(GameResult.LOST, sharded.getGameResult());
+        }
+    }
+
+    @Test
+    void testBlockLayoutPlacesExactMineCountAndMatchesAcrossRegions() {
+        BlockMineLayout layout = new BlockMineLayout(1000, 700, 140000, 11);
+        BitSet full = layout.generate(0, 1000, 0, 700);
+        assertEquals(140000, full.cardinality());
+
+        BitSet region = layout.generate(333, 501, 250, 699);
+        for (int row = 333; row < 501; row++) {
+            for (int col = 250; col < 699; col++) {
+                assertEquals(full.get(row * 700 + col), region.get((row - 333) * 449 + col - 250));
+            }
+        }
+    }
+
+    @Test
+    void testBlockLayoutGeneratesRegionsOfHugeBoards() {
+        BlockMineLayout layout = new BlockMineLayout(1 << 20, 1 << 20, 200_000_000, 5);
+        BitSet region = layout.generate(123_456, 123_556, 987_654, 987_754);
+        BitSet inner = layout.generate(123_500, 123_510, 987_700, 987_710);
+        assertTrue(region.cardinality() > 0);
+        for (int row = 0; row < 10; row++) {
+            for (int col = 0; col < 10; col++) {
+                assertEquals(region.get((row + 44) * 100 + col + 46), inner.get(row * 10 + col));
+            }
+        }
+    }
+
+    private static boolean isZeroCell(BitSet layout, int row, int col) {
+        for (int i = Math.max(0, row - 1); i <= Math.min(ROWS - 1, row + 1); i++) {
+            for (int j = Math.max(0, col - 1); j <= Math.min(COLUMNS - 1, col + 1); j++) {
+                if (layout.get(i * COLUMNS + j)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static byte[] referenceStates(BoardView view) {
+        byte[] states = new byte[ROWS * COLUMNS];
+        for (int row = 0; row < ROWS; row++) {
+            for (int col = 0; col < COLUMNS; col++) {
+                states[row * COLUMNS + col] = (byte) (view.isRevealed(row, col) ? view.getAdjacentMines(row, col) : ShardProtocol.HIDDEN);
+            }
+        }
+        return states;
+    }
+
+    /**
+     * Checks whether the cells revealed by a single move lie in more than one of the four shards.
+     */
+    private static boolean crossesShards(byte[] before, byte[] after) {
+        int shards = 0;
+        for (int index = 0; index < after.length; index++) {
+            if (before[index] == ShardProtocol.HIDDEN && after[index] != ShardProtocol.HIDDEN) {
+                int row = index / COLUMNS;
+                int col = index % COLUMNS;
+                shards |= 1 << ((row < ROWS / 2 ? 0 : 2) + (col < COLUMNS / 2 ? 0 : 1));
+            }
+        }
+        return Integer.bitCount(shards) > 1;
+    }
+}
@@ -0,0 +1,116 @@
+package org.macan.minesweeper.solver;
+
+import org.junit.jupiter.api.Test;
+import org.macan.minesweeper.common.GameResult;
+import org.macan.minesweeper.common.GameStats;
+import org.macan.minesweeper.game.BoardTopology;
+import org.macan.minesweeper.game.BoardView;
+import org.macan.minesweeper.game.GameBoard;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProbabilitySolverTest {
+
+    @Test
+    void testSingleNumberSharesProbability() {
+        GameBoard board = new GameBoard(2, 2, 1, new HashMap<>(), new HashSet<>(), new GameStats());
+        board.initializeGame(Arrays.asList("0_0"));
+        board.revealCell(1, 1);
+
+        double[] probabilities = new ProbabilitySolver().solve(board.asView());
+
+        assertEquals(1 / 3.0, probabilities[0], 1e-12);
+        assertEquals(1 / 3.0, probabilities[1], 1e-12);
+        assertEquals(1 / 3.0, probabilities[2], 1e-12);
+        assertTrue(Double.isNaN(probabilities[3]));
+    }
+
+    @Test
+    void testMatchesBruteForceOnRandomBoards() {
+        Random random = new Random(11);
+        for (int game = 0; game < 40; game++) {
+            GameBoard board = new GameBoard(4, 5, 5, new HashMap<>(), new HashSet<>(), new GameStats());
+            board.initializeGame(random.nextLong());
+            for (int reveal = 0; reveal < 3 && board.getGameStats().getGameResult() == GameResult.IN_PROGRESS; reveal++) {
+                int cell = random.nextInt(20);
+                if (!board.asView().isRevealed(cell / 5, cell % 5) && board.asView().getAdjacentMines(cell / 5, cell % 5) != BoardView.HIDDEN) {
+                    board.revealCell(cell / 5, cell % 5);
+                }
+            }
+            BoardView view = FrozenView.copyOf(board.asView());
+            double[] expected = bruteForce(view);
+            double[] actual = new ProbabilitySolver().solve(view);
+            for (int cell = 0; cell < 20; cell++) {
+                if (Double.isNaN(expected[cell])) {
+                    assertTrue(Double.isNaN(actual[cell]));
+                } else {
+                    assertEquals(expected[cell], actual[cell], 1e-9, "cell " + cell + " of game " + game);
+                }
+            }
+        }
+    }
+
+    /**
+     * Enumerates every placement of the mines over the hidden cells and counts the ones matching all visible numbers.
+     */
+    private static double[] bruteForce(BoardView view) {
+        int rows = view.getGridRows();
+        int cols = view.getGridColumns();
+        int cellCount = rows * cols;
+        BoardTopology topology = view.getTopology();
+        int[] neighbours = new int[2 * topology.getMaxNeighbours()];
+        int[] hidden = new int[cellCount];
+        int hiddenCount = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (!view.isRevealed(cell / cols, cell % cols)) {
+                hidden[hiddenCount++] = cell;
+            }
+        }
+        double[] mineCounts = new double[cellCount];
+        double layouts = 0;
+        for (int mask = 0; mask < 1 << hiddenCount; mask++) {
+            if (Integer.bitCount(mask) != view.getTotalMines()) {
+                continue;
+            }
+            boolean[] mine = new boolean[cellCount];
+            for (int k = 0; k < hiddenCount; k++) {
+                mine[hidden[k]] = (mask >> k & 1) == 1;
+            }
+            boolean consistent = true;
+            for (int cell = 0; cell < cellCount && consistent; cell++) {
+                int adjacentMines = view.getAdjacentMines(cell / cols, cell % cols);
+                if (adjacentMines == BoardView.HIDDEN) {
+                    continue;
+                }
+                int count = topology.getNeighbours(cell / cols, cell % cols, rows, cols, neighbours);
+                int mines = 0;
+                for (int k = 0; k < count; k++) {
+                    if (mine[neighbours[2 * k] * cols + neighbours[2 * k + 1]]) {
+                        mines++;
+                    }
+                }
+                consistent = mines == adjacentMines;
+            }
+            if (consistent) {
+                layouts++;
+                for (int k = 0; k < hiddenCount; k++) {
+                    if (mine[hidden[k]]) {
+                        mineCounts[hidden[k]]++;
+                    }
+                }
+            }
+        }
+        double[] probabilities = new double[cellCount];
+        Arrays.fill(probabilities, Double.NaN);
+        for (int k = 0; k < hiddenCount; k++) {
+            probabilities[hidden[k]] = mineCounts[hidden[k]] / layouts;
+        }
+        return probabilities;
+    }
+}
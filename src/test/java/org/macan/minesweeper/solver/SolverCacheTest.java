@@ -0,0 +1,83 @@
+package org.macan.minesweeper.solver;
+
+import org.junit.jupiter.api.Test;
+import org.macan.minesweeper.common.GameResult;
+import org.macan.minesweeper.common.GameStats;
+import org.macan.minesweeper.game.GameBoard;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SolverCacheTest {
+
+    @Test
+    void testReflectedAndRotatedPatternsShareEntry() {
+        SolverCache cache = new SolverCache(1 << 20);
+        // Hidden cells 0_0, 0_1 and 0_2 below two numbers: 1_0 sees the first two, 1_3 only sees 0_2.
+        Component original = component(new int[][]{{0, 0}, {0, 1}, {0, 2}}, new int[][]{{0, 1}, {2}}, new int[]{1, 1},
+                new int[][]{{1, 0}, {1, 3}});
+        // The same pattern mirrored left to right, listed in a different cell order.
+        Component mirrored = component(new int[][]{{0, 2}, {0, 3}, {0, 4}}, new int[][]{{1, 2}, {0}}, new int[]{1, 1},
+                new int[][]{{1, 4}, {1, 1}});
+        // The same pattern turned by 90 degrees and moved.
+        Component rotated = component(new int[][]{{5, 7}, {6, 7}, {7, 7}}, new int[][]{{0, 1}, {2}}, new int[]{1, 1},
+                new int[][]{{5, 6}, {8, 6}});
+
+        assertArrayEquals(new double[]{0.5, 0.5, 1}, cache.solve(original).localProbabilities(), 1e-12);
+        assertArrayEquals(new double[]{1, 0.5, 0.5}, cache.solve(mirrored).localProbabilities(), 1e-12);
+        assertArrayEquals(new double[]{0.5, 0.5, 1}, cache.solve(rotated).localProbabilities(), 1e-12);
+        assertEquals(1, cache.getMisses());
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getEntryCount());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedEntriesBeyondSizeLimit() {
+        SolverCache cache = new SolverCache(1000);
+        for (int need = 0; need <= 3; need++) {
+            cache.solve(component(new int[][]{{0, 0}, {0, 1}, {0, 2}}, new int[][]{{0, 1, 2}}, new int[]{need},
+                    new int[][]{{1, 1}}));
+        }
+        assertTrue(cache.getEvictions() > 0);
+        assertTrue(cache.getSizeBytes() <= 1000);
+    }
+
+    @Test
+    void testCachedSolverMatchesUncachedSolver() {
+        SolverCache cache = new SolverCache(1 << 20);
+        ProbabilitySolver cached = new ProbabilitySolver(cache);
+        ProbabilitySolver uncached = new ProbabilitySolver();
+        Random random = new Random(5);
+        for (int game = 0; game < 30; game++) {
+            GameBoard board = new GameBoard(9, 9, 10, new HashMap<>(), new HashSet<>(), new GameStats());
+            board.initializeGame(random.nextLong());
+            for (int move = 0; move < 4 && board.getGameStats().getGameResult() == GameResult.IN_PROGRESS; move++) {
+                int cell = random.nextInt(81);
+                if (!board.asView().isRevealed(cell / 9, cell % 9)) {
+                    board.revealCell(cell / 9, cell % 9);
+                }
+                assertArrayEquals(uncached.solve(board.asView()), cached.solve(board.asView()), 1e-9);
+                assertArrayEquals(uncached.solve(board.asView()), cached.solve(board.asView()), 1e-9);
+            }
+        }
+        assertTrue(cache.getHitRate() >= 0.5);
+    }
+
+    private static Component component(int[][] cells, int[][] constraints, int[] needs, int[][] origins) {
+        int columns = 10;
+        int[] cellIndices = new int[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            cellIndices[i] = cells[i][0] * columns + cells[i][1];
+        }
+        int[] originIndices = new int[origins.length];
+        for (int k = 0; k < origins.length; k++) {
+            originIndices[k] = origins[k][0] * columns + origins[k][1];
+        }
+        return new Component(cellIndices, constraints, needs, originIndices, columns);
+    }
+}
@@ -0,0 +1,119 @@
+package org.macan.minesweeper.spectator;
+
+import org.junit.jupiter.api.Test;
+import org.macan.minesweeper.common.GameResult;
+import org.macan.minesweeper.common.GameStats;
+import org.macan.minesweeper.game.GameBoard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpectatorFeedTest {
+
+    @Test
+    void testSlowSpectatorReceivesCoalescedDelta() {
+        GameBoard board = createBoard();
+        SpectatorFeed feed = new SpectatorFeed(board, Runnable::run);
+        RecordingSpectator spectator = new RecordingSpectator();
+        feed.subscribe(spectator);
+        assertTrue(spectator.deltas.isEmpty());
+
+        spectator.subscription.request(1);
+        assertEquals(1, spectator.deltas.size());
+        assertTrue(spectator.deltas.get(0).isKeyframe());
+        assertEquals(9, spectator.deltas.get(0).size());
+
+        board.toggleFlag(0, 0);
+        board.revealCell(1, 1);
+        board.toggleFlag(0, 0);
+        assertEquals(1, spectator.deltas.size());
+
+        spectator.subscription.request(1);
+        BoardDelta delta = spectator.deltas.get(1);
+        assertFalse(delta.isKeyframe());
+        assertEquals(3, delta.getVersion());
+        assertEquals(2, delta.size());
+        assertEquals(board.getCellIndex(0, 0), delta.getCellIndex(0));
+        assertEquals(BoardDelta.HIDDEN, delta.getState(0));
+        assertEquals(board.getCellIndex(1, 1), delta.getCellIndex(1));
+        assertEquals(2, delta.getState(1));
+    }
+
+    @Test
+    void testSpectatorFarBehindGetsKeyframe() {
+        GameBoard board = createBoard();
+        SpectatorFeed feed = new SpectatorFeed(board, Runnable::run);
+        RecordingSpectator spectator = new RecordingSpectator();
+        feed.subscribe(spectator);
+        spectator.subscription.request(1);
+
+        for (int i = 0; i < 10; i++) {
+            board.toggleFlag(0, 1);
+        }
+        spectator.subscription.request(1);
+
+        BoardDelta delta = spectator.deltas.get(1);
+        assertTrue(delta.isKeyframe());
+        assertEquals(10, delta.getVersion());
+        assertEquals(BoardDelta.HIDDEN, delta.getState(board.getCellIndex(0, 1)));
+    }
+
+    @Test
+    void testFanOutToManySpectators() {
+        GameBoard board = createBoard();
+        SpectatorFeed feed = new SpectatorFeed(board, Runnable::run);
+        List<RecordingSpectator> spectators = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            RecordingSpectator spectator = new RecordingSpectator();
+            feed.subscribe(spectator);
+            spectator.subscription.request(Long.MAX_VALUE);
+            spectators.add(spectator);
+        }
+
+        board.revealCell(2, 0);
+        feed.close();
+
+        assertEquals(0, feed.getSubscriberCount());
+        for (RecordingSpectator spectator : spectators) {
+            assertTrue(spectator.completed);
+            BoardDelta last = spectator.deltas.get(spectator.deltas.size() - 1);
+            assertEquals(GameResult.LOST, last.getGameResult());
+            assertEquals(9, last.size());
+            assertEquals(BoardDelta.MINE, last.getState(board.getCellIndex(2, 0)));
+        }
+    }
+
+    private static GameBoard createBoard() {
+        GameBoard board = new GameBoard(3, 3, 2, new HashMap<>(), new HashSet<>(), new GameStats());
+        board.initializeGame(Arrays.asList("0_0", "2_0"));
+        return board;
+    }
+
+    private static final class RecordingSpectator implements Spectator {
+        private final List<BoardDelta> deltas = new ArrayList<>();
+        private SpectatorSubscription subscription;
+        private boolean completed;
+
+        @Override
+        public void onSubscribe(SpectatorSubscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(BoardDelta delta) {
+            deltas.add(delta);
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}